@@ -0,0 +1,268 @@
+package edu.ncsu.csc316.cleaning.benchmark;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Random;
+
+import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.cleaning.manager.CleaningManager;
+import edu.ncsu.csc316.cleaning.manager.LoadMode;
+import edu.ncsu.csc316.cleaning.manager.ReportManager;
+
+/**
+*
+* Class that measures the CleaningManager and ReportManager hot paths on synthetic logs
+* of several sizes, for every map type DSAFactory supports. Each measurement is run a few
+* times to warm up the JIT before it is timed, and the median and fastest times are printed
+*
+* Options are given as name=value arguments, for example
+* events=1000,100000 maps=SKIPLIST,AVLTREE mode=PARALLEL warmup=2 iterations=5 dir=/tmp/bench
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class ManagerBenchmark {
+
+	/** The format of the vacuum bag report timestamps */
+	private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+	/** The number of queries timed together for the per-query benchmarks */
+	private static final int QUERIES = 1000;
+
+	/** A value every result is folded into, so the JIT cannot drop the work being timed */
+	private static volatile long sink;
+
+	/** The numbers of cleaning events to generate logs for */
+	private long[] eventCounts = {1000, 10000, 100000};
+	/** The map types to measure */
+	private DataStructure[] mapTypes = DataStructure.values();
+	/** The way the managers load the cleaning log */
+	private LoadMode loadMode = LoadMode.STANDARD;
+	/** The number of untimed runs before each measurement */
+	private int warmup = 2;
+	/** The number of timed runs of each measurement */
+	private int iterations = 5;
+	/** The directory the synthetic files are written to */
+	private Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "cleaning-benchmark");
+
+	/**
+	 * Runs the benchmarks
+	 * @param args the name=value options
+	 * @throws IOException if the synthetic files cannot be written
+	*/
+	public static void main(String[] args) throws IOException {
+		ManagerBenchmark benchmark = new ManagerBenchmark();
+		for (String arg : args) {
+			benchmark.setOption(arg);
+		}
+		benchmark.run();
+	}
+
+	/**
+	 * Private helper method that sets one name=value option
+	 * @param arg the option
+	*/
+	private void setOption(String arg) {
+		int equals = arg.indexOf('=');
+		if (equals < 0) {
+			throw new IllegalArgumentException("Options must be name=value: " + arg);
+		}
+		String name = arg.substring(0, equals);
+		String[] values = arg.substring(equals + 1).split(",");
+
+		if ("events".equals(name)) {
+			eventCounts = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				eventCounts[i] = (long) Double.parseDouble(values[i]);
+			}
+		} else if ("maps".equals(name)) {
+			mapTypes = new DataStructure[values.length];
+			for (int i = 0; i < values.length; i++) {
+				mapTypes[i] = DataStructure.valueOf(values[i]);
+			}
+		} else if ("mode".equals(name)) {
+			loadMode = LoadMode.valueOf(values[0]);
+		} else if ("warmup".equals(name)) {
+			warmup = Integer.parseInt(values[0]);
+		} else if ("iterations".equals(name)) {
+			iterations = Integer.parseInt(values[0]);
+		} else if ("dir".equals(name)) {
+			dir = Paths.get(values[0]);
+		} else {
+			throw new IllegalArgumentException("Unknown option: " + name);
+		}
+	}
+
+	/**
+	 * Private helper method that generates the logs and measures every benchmark on them
+	 * @throws IOException if the synthetic files cannot be written
+	*/
+	private void run() throws IOException {
+		Files.createDirectories(dir);
+		System.out.printf("%-10s %-26s %-28s %14s %14s%n", "events", "map", "benchmark", "median", "fastest");
+
+		for (long events : eventCounts) {
+			// Around 2000 events per room, with at least 10 rooms
+			int rooms = (int) Math.max(10, Math.min(100000, events / 2000));
+			Path roomFile = dir.resolve("rooms-" + rooms + ".txt");
+			Path logFile = dir.resolve("log-" + events + ".txt");
+			SyntheticData data = new SyntheticData(events);
+			if (!Files.exists(roomFile)) {
+				data.writeRoomFile(roomFile, rooms);
+			}
+			if (!Files.exists(logFile)) {
+				data.writeLogFile(logFile, rooms, events);
+			}
+
+			for (DataStructure mapType : mapTypes) {
+				measureAll(events, mapType, roomFile.toString(), logFile.toString());
+			}
+		}
+
+		System.out.println("checksum " + sink);
+	}
+
+	/**
+	 * Private helper method that measures every benchmark for one log and map type
+	 *
+	 * @param events the number of events in the log
+	 * @param mapType the map type to measure
+	 * @param roomFile the room file
+	 * @param logFile the cleaning log
+	 * @throws FileNotFoundException if a file cannot be found
+	*/
+	private void measureAll(long events, DataStructure mapType, String roomFile, String logFile) throws FileNotFoundException {
+		String label = String.format("%-10d %-26s", events, mapType);
+		LocalDateTime[] times = queryTimes();
+		String[] timestamps = new String[times.length];
+		for (int i = 0; i < times.length; i++) {
+			timestamps[i] = times[i].format(TIMESTAMP_FORMAT);
+		}
+
+		report(label, "CleaningManager.<init>", "ms", measure(() -> {
+			sink += new CleaningManager(roomFile, logFile, mapType, loadMode).getLoadMode().ordinal();
+		}), 1e6);
+
+		// getEventsByRoom builds its map on the first call, so time that call on a new manager each run
+		report(label, "getEventsByRoom (first)", "ms", measure(() -> {
+			CleaningManager manager = new CleaningManager(roomFile, logFile, mapType, loadMode);
+			long start = System.nanoTime();
+			sink += manager.getEventsByRoom() == null ? 0 : 1;
+			return System.nanoTime() - start;
+		}), 1e6);
+
+		CleaningManager manager = new CleaningManager(roomFile, logFile, mapType, loadMode);
+		report(label, "getCoverageSince", "ns/op", measure(() -> {
+			for (LocalDateTime time : times) {
+				sink += manager.getCoverageSince(time);
+			}
+		}), QUERIES);
+
+		ReportManager reports = new ReportManager(roomFile, logFile, mapType, loadMode);
+		report(label, "getFrequencyReport(10)", "ms", measure(() -> {
+			sink += reports.getFrequencyReport(10).length();
+		}), 1e6);
+		report(label, "getRoomReport", "ms", measure(() -> {
+			sink += reports.getRoomReport().length();
+		}), 1e6);
+		report(label, "getVacuumBagReport", "ns/op", measure(() -> {
+			for (String timestamp : timestamps) {
+				sink += reports.getVacuumBagReport(timestamp).length();
+			}
+		}), QUERIES);
+	}
+
+	/**
+	 * Private helper method that returns query times spread over the generated logs
+	 * @return LocalDateTime[] the query times
+	*/
+	private LocalDateTime[] queryTimes() {
+		Random random = new Random(QUERIES);
+		LocalDateTime[] times = new LocalDateTime[QUERIES];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = SyntheticData.getStart().plusSeconds(random.nextInt(SyntheticData.getSpanSeconds()));
+		}
+		return times;
+	}
+
+	/**
+	 * Private helper method that warms up and then times a benchmark
+	 * @param body the benchmark
+	 * @return long[] the time of each timed run in nanoseconds, sorted
+	 * @throws FileNotFoundException if a file cannot be found
+	*/
+	private long[] measure(Body body) throws FileNotFoundException {
+		return measure(() -> {
+			long start = System.nanoTime();
+			body.run();
+			return System.nanoTime() - start;
+		});
+	}
+
+	/**
+	 * Private helper method that warms up and then times a benchmark that times itself
+	 * @param body the benchmark, which returns how long its measured part took in nanoseconds
+	 * @return long[] the time of each timed run in nanoseconds, sorted
+	 * @throws FileNotFoundException if a file cannot be found
+	*/
+	private long[] measure(TimedBody body) throws FileNotFoundException {
+		for (int i = 0; i < warmup; i++) {
+			body.run();
+		}
+		long[] nanos = new long[iterations];
+		for (int i = 0; i < iterations; i++) {
+			nanos[i] = body.run();
+		}
+		Arrays.sort(nanos);
+		return nanos;
+	}
+
+	/**
+	 * Private helper method that prints the median and fastest time of a benchmark
+	 *
+	 * @param label the log size and map type
+	 * @param name the benchmark name
+	 * @param unit the unit the times are printed in
+	 * @param nanos the sorted times in nanoseconds
+	 * @param divisor what the nanoseconds are divided by to get the unit
+	*/
+	private static void report(String label, String name, String unit, long[] nanos, double divisor) {
+		System.out.printf("%s %-28s %11.3f %-2s %11.3f %-2s%n", label, name,
+				nanos[nanos.length / 2] / divisor, unit, nanos[0] / divisor, unit);
+	}
+
+	/**
+	 * Interface for a benchmark body that is timed from the outside
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private interface Body {
+
+		/**
+		 * Runs the benchmark once
+		 * @throws FileNotFoundException if a file cannot be found
+		*/
+		void run() throws FileNotFoundException;
+	}
+
+	/**
+	 * Interface for a benchmark body that times its own measured part
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private interface TimedBody {
+
+		/**
+		 * Runs the benchmark once
+		 * @return long how long the measured part took in nanoseconds
+		 * @throws FileNotFoundException if a file cannot be found
+		*/
+		long run() throws FileNotFoundException;
+	}
+
+}
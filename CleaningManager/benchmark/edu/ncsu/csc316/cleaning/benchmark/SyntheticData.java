@@ -0,0 +1,93 @@
+package edu.ncsu.csc316.cleaning.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+*
+* Class that writes synthetic room files and cleaning logs in the same CSV formats as
+* the files in input/, so the managers can be measured on logs of any size. The same
+* seed always writes the same files
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class SyntheticData {
+
+	/** The format of the log timestamps */
+	private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+	/** The time of the earliest generated cleaning event */
+	private static final LocalDateTime START = LocalDateTime.of(2015, 1, 1, 0, 0, 0);
+	/** The number of seconds the generated cleaning events are spread over, about six years */
+	private static final int SPAN_SECONDS = 6 * 365 * 24 * 60 * 60;
+
+	/** The random numbers the files are generated from */
+	private final Random random;
+
+	/**
+	 * The constructor that takes in the seed the files are generated from
+	 * @param seed the seed for the random numbers
+	*/
+	public SyntheticData(long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * Writes a room file with rooms named "Room 0" up to "Room n-1"
+	 * with lengths and widths from 5 to 39 feet
+	 *
+	 * @param path where the room file is written
+	 * @param rooms the number of rooms
+	 * @throws IOException if the file cannot be written
+	*/
+	public void writeRoomFile(Path path, int rooms) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			out.write("ROOM_ID,LENGTH,WIDTH\n");
+			for (int room = 0; room < rooms; room++) {
+				out.write("Room " + room + "," + (5 + random.nextInt(35)) + "," + (5 + random.nextInt(35)) + "\n");
+			}
+		}
+	}
+
+	/**
+	 * Writes a cleaning log with events for rooms from the room file, at random times
+	 * spread over about six years and in no particular order
+	 *
+	 * @param path where the cleaning log is written
+	 * @param rooms the number of rooms in the room file
+	 * @param events the number of cleaning events
+	 * @throws IOException if the file cannot be written
+	*/
+	public void writeLogFile(Path path, int rooms, long events) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			out.write("TIMESTAMP,ROOM_ID,PERCENT_CLEANED\n");
+			for (long i = 0; i < events; i++) {
+				LocalDateTime time = START.plusSeconds(random.nextInt(SPAN_SECONDS));
+				out.write(time.format(TIMESTAMP_FORMAT) + ",Room " + random.nextInt(rooms) + "," + (1 + random.nextInt(100)) + "\n");
+			}
+		}
+	}
+
+	/**
+	 * Returns the time of the earliest generated cleaning event
+	 * @return LocalDateTime the earliest time
+	*/
+	public static LocalDateTime getStart() {
+		return START;
+	}
+
+	/**
+	 * Returns the number of seconds the generated cleaning events are spread over
+	 * @return int the span in seconds
+	*/
+	public static int getSpanSeconds() {
+		return SPAN_SECONDS;
+	}
+
+}
@@ -0,0 +1,199 @@
+package edu.ncsu.csc316.cleaning.io;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+
+/**
+*
+* Class that reads a cleaning log file one line at a time and hands each cleaning
+* event to a consumer as soon as it is parsed, so the whole log never has to be held
+* in memory the way InputReader.readLogFile holds it
+* 
+* @author Lalitha Edupuganti
+*
+*/
+public class LogStreamReader {
+	
+	/** The formatter for the timestamps in the cleaning log file */
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+	
+	/**
+	 * Private constructor since the class only has static methods
+	*/
+	private LogStreamReader() {
+		
+	}
+	
+	/**
+	 * Reads the cleaning log file in the TIMESTAMP,ROOM_ID,PERCENT_CLEANED format line by line
+	 * The header line and any blank lines are skipped, and every other line is given to
+	 * the consumer in the order it appears in the file
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param consumer the consumer that each cleaning event is given to
+	 * @return int the number of cleaning events read
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static int readLogFile(String pathToLogFile, Consumer<CleaningLogEntry> consumer) throws FileNotFoundException {
+		return readLogFile(pathToLogFile, Long.MAX_VALUE, consumer);
+	}
+	
+	/**
+	 * Reads the cleaning log file in the TIMESTAMP,ROOM_ID,PERCENT_CLEANED format line by line
+	 * up to a byte offset. The offset should be just past a line break, so a line still being
+	 * written past it is not read
+	 * The header line and any blank lines are skipped
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param end the byte offset just past the last line to read, past the end of the file to read all of it
+	 * @param consumer the consumer that each cleaning event is given to
+	 * @return int the number of cleaning events read
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static int readLogFile(String pathToLogFile, long end, Consumer<CleaningLogEntry> consumer) throws FileNotFoundException {
+		int count = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new LimitedInputStream(new FileInputStream(pathToLogFile), end), StandardCharsets.UTF_8))) {
+			// Skip the header line
+			String line = reader.readLine();
+			
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank()) {
+					consumer.accept(processLine(line));
+					count++;
+				}
+			}
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return count;
+	}
+	
+	/**
+	 * Helper method that parses one line of the cleaning log file
+	 *
+	 * @param line the line to parse
+	 * @return CleaningLogEntry the cleaning event on the line
+	 * @throws IllegalArgumentException if the line does not have three fields
+	*/
+	static CleaningLogEntry processLine(String line) {
+		int firstComma = line.indexOf(',');
+		int lastComma = line.lastIndexOf(',');
+		if (firstComma < 0 || firstComma == lastComma) {
+			throw new IllegalArgumentException("Invalid cleaning log line: " + line);
+		}
+		
+		LocalDateTime timestamp = LocalDateTime.parse(line.substring(0, firstComma), FORMATTER);
+		String roomID = line.substring(firstComma + 1, lastComma);
+		int percent = Integer.parseInt(line.substring(lastComma + 1).trim());
+		
+		return new CleaningLogEntry(timestamp, roomID, percent);
+	}
+	
+	/**
+	 * Class that reads no more than a set number of bytes from a stream, and then reports the
+	 * end of the stream
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class LimitedInputStream extends FilterInputStream {
+		
+		/** The number of bytes left to read */
+		private long remaining;
+		
+		/**
+		 * The constructor that takes in the stream and the most bytes to read from it
+		 * @param in the stream to read
+		 * @param limit the most bytes to read
+		*/
+		LimitedInputStream(InputStream in, long limit) {
+			super(in);
+			this.remaining = limit;
+		}
+		
+		/**
+		 * Reads one byte
+		 * @return int the byte, or -1 if the limit or the end of the stream is reached
+		 * @throws IOException if the stream cannot be read
+		*/
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int b = in.read();
+			if (b >= 0) {
+				remaining--;
+			}
+			return b;
+		}
+		
+		/**
+		 * Reads bytes into part of an array
+		 * @param b the array the bytes are read into
+		 * @param off the index of the first byte to fill
+		 * @param len the most bytes to read
+		 * @return int the number of bytes read, or -1 if the limit or the end of the stream is reached
+		 * @throws IOException if the stream cannot be read
+		*/
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int read = in.read(b, off, (int) Math.min(len, remaining));
+			if (read > 0) {
+				remaining -= read;
+			}
+			return read;
+		}
+		
+		/**
+		 * Skips bytes, no further than the limit
+		 * @param n the most bytes to skip
+		 * @return long the number of bytes skipped
+		 * @throws IOException if the stream cannot be read
+		*/
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(Math.min(n, remaining));
+			remaining -= skipped;
+			return skipped;
+		}
+		
+		/**
+		 * Returns the number of bytes that can be read without blocking, no more than the limit
+		 * @return int the number of bytes
+		 * @throws IOException if the stream cannot be read
+		*/
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(in.available(), remaining);
+		}
+		
+		/**
+		 * Marks are not supported, since the limit could not be reset with the stream
+		 * @return boolean false
+		*/
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,198 @@
+package edu.ncsu.csc316.cleaning.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+
+/**
+*
+* Class that reads the lines appended to a cleaning log file since it was last read
+* The byte offset just past the last whole line read is remembered, so each read starts
+* where the last one stopped instead of reading the file again. A line without its line
+* break yet is left for the next read, since the rest of it may still be being written
+*
+* A file that ended without a line break when it was loaded had its last line loaded
+* already, so that line is skipped once its line break is written. If more was written to
+* the line first, the loaded part was only the start of it, and it has to be loaded again
+*
+* The bytes just before the offset are kept and compared on every read, so a file that
+* became shorter than the offset or was replaced by another file is found instead of being
+* read from the offset or from the start again, which would add its lines a second time
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class LogTail {
+
+	/** The number of bytes read from the file at a time */
+	private static final int BLOCK_SIZE = 64 * 1024;
+	/** The most bytes before the offset kept to tell whether the file is the one read before */
+	private static final int MARK_SIZE = 64;
+
+	/** The cleaning log file */
+	private final Path path;
+	/** The byte offset just past the last whole line read */
+	private long offset;
+	/** The number of bytes at the offset that were already loaded as an unfinished last line */
+	private long loadedLength;
+	/** The bytes just before the offset, as they were when they were read */
+	private byte[] mark;
+
+	/**
+	 * The constructor that takes in the cleaning log file and where to start reading it
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param offset the byte offset of the first line to read, or 0 to read the file from its header
+	 * @throws IOException if the file cannot be read
+	*/
+	public LogTail(String pathToLogFile, long offset) throws IOException {
+		this(pathToLogFile, offset, 0);
+	}
+
+	/**
+	 * The constructor that takes in the cleaning log file, where to start reading it, and how
+	 * much of the line there was loaded already because the file ended without a line break
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param offset the byte offset of the first line to read, or 0 to read the file from its header
+	 * @param loadedLength the number of bytes of the line at the offset that were already loaded
+	 * @throws IOException if the file cannot be read
+	*/
+	public LogTail(String pathToLogFile, long offset, long loadedLength) throws IOException {
+		this.path = Paths.get(pathToLogFile);
+		this.offset = offset;
+		this.loadedLength = loadedLength;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.mark = readMark(channel);
+		}
+	}
+
+	/**
+	 * Returns the byte offset just past the last whole line read
+	 * @return offset the offset the next read starts from
+	*/
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Returns the number of bytes of the line at the offset that were already loaded
+	 * @return loadedLength the loaded length, or 0 if the line at the offset was not loaded
+	*/
+	public long getLoadedLength() {
+		return loadedLength;
+	}
+
+	/**
+	 * Reads every whole line appended to the cleaning log file since the last read and hands
+	 * each cleaning event to the consumer in the order they appear. The header line, any
+	 * blank lines and a last line that was already loaded are skipped
+	 *
+	 * @param consumer the consumer that each cleaning event is given to
+	 * @return int the number of cleaning events read
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a whole line is not a cleaning event, in which case
+	 * the offset is left at the start of that line
+	 * @throws IllegalStateException if the file was truncated or replaced since it was read,
+	 * or more was written to a last line that was already loaded, in which case nothing is read
+	 * and the file has to be loaded again
+	*/
+	public int readAppended(Consumer<CleaningLogEntry> consumer) throws IOException {
+		int count = 0;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < offset + loadedLength) {
+				throw new IllegalStateException(path + " is shorter than the " + (offset + loadedLength) + " bytes already read, so it has to be loaded again");
+			}
+			if (!Arrays.equals(mark, readMark(channel))) {
+				throw new IllegalStateException(path + " was replaced after " + offset + " bytes were read, so it has to be loaded again");
+			}
+			if (size == offset) {
+				return 0;
+			}
+
+			boolean header = offset == 0;
+			ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+			channel.position(offset);
+
+			try {
+				while (channel.read(block) > 0) {
+					block.flip();
+					int lineStart = 0;
+					for (int i = 0; i < block.limit(); i++) {
+						if (block.get(i) == '\n') {
+							if (header) {
+								header = false;
+							} else if (loadedLength > 0) {
+								skipLoadedLine(block, lineStart, i);
+							} else {
+								String line = new String(block.array(), lineStart, i - lineStart, StandardCharsets.UTF_8);
+								if (!line.isBlank()) {
+									consumer.accept(LogStreamReader.processLine(line));
+									count++;
+								}
+							}
+							loadedLength = 0;
+							offset += i + 1 - lineStart;
+							lineStart = i + 1;
+						}
+					}
+
+					// Keep the start of an unfinished line for the next block
+					if (lineStart == 0 && block.limit() == block.capacity()) {
+						throw new IllegalArgumentException("Line is too long in " + path);
+					}
+					block.position(lineStart);
+					block.compact();
+				}
+			} finally {
+				mark = readMark(channel);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Private helper method that checks that the line at the offset, now that its line break
+	 * is written, is the same length as the unfinished last line that was already loaded
+	 *
+	 * @param block the bytes read from the file
+	 * @param lineStart the index of the first byte of the line
+	 * @param lineEnd the index of the line break
+	 * @throws IllegalStateException if more was written to the line after it was loaded
+	*/
+	private void skipLoadedLine(ByteBuffer block, int lineStart, int lineEnd) {
+		long length = lineEnd - lineStart;
+		if (length > loadedLength && block.get(lineEnd - 1) == '\r') {
+			length--;
+		}
+		if (length != loadedLength) {
+			throw new IllegalStateException("The last line of " + path + " was still being written when it was loaded, so it has to be loaded again");
+		}
+	}
+
+	/**
+	 * Private helper method that reads the bytes just before the offset
+	 *
+	 * @param channel the open file
+	 * @return byte[] up to MARK_SIZE bytes ending at the offset, or fewer if the file is shorter
+	 * @throws IOException if the file cannot be read
+	*/
+	private byte[] readMark(FileChannel channel) throws IOException {
+		long start = Math.max(0, offset - MARK_SIZE);
+		ByteBuffer bytes = ByteBuffer.allocate((int) (offset - start));
+		while (bytes.hasRemaining() && channel.read(bytes, start + bytes.position()) > 0) {
+			// Keep reading until the mark is full or the file ends
+		}
+		return Arrays.copyOf(bytes.array(), bytes.position());
+	}
+
+}
@@ -0,0 +1,701 @@
+package edu.ncsu.csc316.cleaning.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+import edu.ncsu.csc316.cleaning.data.RoomRecord;
+import edu.ncsu.csc316.cleaning.dsa.DSAFactory;
+import edu.ncsu.csc316.dsa.list.List;
+
+/**
+*
+* Class that reads the room and cleaning log files the same way as InputReader, but
+* memory-maps each file and parses the fields straight from its bytes. The fixed
+* MM/dd/yyyy HH:mm:ss timestamps and the integer fields are read digit by digit
+* without building a String or using a DateTimeFormatter, and each room ID String
+* is only built the first time that room is seen
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class MappedInputReader {
+
+	/** The length in bytes of a MM/dd/yyyy HH:mm:ss timestamp */
+	private static final int TIMESTAMP_LENGTH = 19;
+	/** The most bytes mapped at one time, since a single mapping is limited to an int size */
+	private static final int MAX_REGION = Integer.MAX_VALUE;
+
+	/**
+	 * Private constructor since the class only has static methods
+	*/
+	private MappedInputReader() {
+
+	}
+
+	/**
+	 * Reads the cleaning log file in the TIMESTAMP,ROOM_ID,PERCENT_CLEANED format
+	 * The header line and any blank lines are skipped
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @return List the list of cleaning events in the order they appear in the file
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static List<CleaningLogEntry> readLogFile(String pathToLogFile) throws FileNotFoundException {
+		List<CleaningLogEntry> entries = DSAFactory.getIndexedList();
+		readLogFile(pathToLogFile, entries::addLast);
+		return entries;
+	}
+
+	/**
+	 * Reads the cleaning log file in the TIMESTAMP,ROOM_ID,PERCENT_CLEANED format, handing
+	 * each cleaning event to the consumer instead of collecting them in a list, so no
+	 * DSAFactory list type has to be set
+	 * The header line and any blank lines are skipped
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param consumer what each cleaning event is handed to, in the order they appear in the file
+	 * @return int the number of cleaning events read
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static int readLogFile(String pathToLogFile, Consumer<CleaningLogEntry> consumer) throws FileNotFoundException {
+		RoomNames roomNames = new RoomNames();
+		int[] count = new int[1];
+
+		readLines(pathToLogFile, (buffer, start, end) -> {
+			consumer.accept(parseLogLine(buffer, start, end, roomNames));
+			count[0]++;
+		});
+
+		return count[0];
+	}
+
+	/**
+	 * Reads the cleaning log file in the TIMESTAMP,ROOM_ID,PERCENT_CLEANED format up to a byte
+	 * offset, handing each cleaning event to the consumer. The offset should be just past a line
+	 * break from lastLineEnd, so a line still being written past it is not read
+	 * The header line and any blank lines are skipped
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param end the byte offset just past the last line to read
+	 * @param consumer what each cleaning event is handed to, in the order they appear in the file
+	 * @return int the number of cleaning events read
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static int readLogFile(String pathToLogFile, long end, Consumer<CleaningLogEntry> consumer) throws FileNotFoundException {
+		RoomNames roomNames = new RoomNames();
+		int[] count = new int[1];
+
+		readLines(pathToLogFile, 0, end, true, (buffer, start, lineEnd) -> {
+			consumer.accept(parseLogLine(buffer, start, lineEnd, roomNames));
+			count[0]++;
+		});
+
+		return count[0];
+	}
+
+	/**
+	 * Reads the cleaning log lines that start within a byte range of the cleaning log file
+	 * The range should start and end on line boundaries from splitLines, so the header
+	 * is not part of any range
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param start the byte offset of the first line to read
+	 * @param end the byte offset just past the last line to read
+	 * @return List the list of cleaning events in the order they appear in the range
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static List<CleaningLogEntry> readLogFile(String pathToLogFile, long start, long end) throws FileNotFoundException {
+		List<CleaningLogEntry> entries = DSAFactory.getIndexedList();
+		readLogFile(pathToLogFile, start, end, entries::addLast);
+		return entries;
+	}
+
+	/**
+	 * Reads the cleaning log lines that start within a byte range of the cleaning log file,
+	 * handing each cleaning event to the consumer instead of collecting them in a list
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param start the byte offset of the first line to read
+	 * @param end the byte offset just past the last line to read
+	 * @param consumer what each cleaning event is handed to, in the order they appear in the range
+	 * @return int the number of cleaning events read
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static int readLogFile(String pathToLogFile, long start, long end, Consumer<CleaningLogEntry> consumer) throws FileNotFoundException {
+		RoomNames roomNames = new RoomNames();
+		int[] count = new int[1];
+
+		readLines(pathToLogFile, start, end, false, (buffer, lineStart, lineEnd) -> {
+			consumer.accept(parseLogLine(buffer, lineStart, lineEnd, roomNames));
+			count[0]++;
+		});
+
+		return count[0];
+	}
+
+	/**
+	 * Splits a file after its header line into about the given number of byte ranges that
+	 * each start at the beginning of a line, so each range can be read on its own
+	 *
+	 * @param path the file to split
+	 * @param parts the number of ranges to split the file into
+	 * @return long[] the byte offsets of the range boundaries, where range i is from
+	 * index i to index i + 1, and the last offset is the size of the file
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static long[] splitLines(String path, int parts) throws FileNotFoundException {
+		return splitLines(path, Long.MAX_VALUE, parts);
+	}
+
+	/**
+	 * Splits the start of a file after its header line, up to a byte offset, into about the
+	 * given number of byte ranges that each start at the beginning of a line
+	 *
+	 * @param path the file to split
+	 * @param end the byte offset just past the last line to split, past the end of the file to split all of it
+	 * @param parts the number of ranges to split the file into
+	 * @return long[] the byte offsets of the range boundaries, where range i is from
+	 * index i to index i + 1, and the last offset is the end or the size of the file if smaller
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static long[] splitLines(String path, long end, int parts) throws FileNotFoundException {
+		try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+			long size = Math.min(file.length(), end);
+			long[] boundaries = new long[Math.max(parts, 1) + 1];
+
+			boundaries[0] = nextLineStart(file, 0, size);
+			for (int i = 1; i < boundaries.length - 1; i++) {
+				long target = size / (boundaries.length - 1) * i;
+				boundaries[i] = Math.max(boundaries[i - 1], nextLineStart(file, Math.max(target, boundaries[i - 1]), size));
+			}
+			boundaries[boundaries.length - 1] = size;
+
+			return boundaries;
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Finds the byte offset just past the last line break in the first bytes of a file, which
+	 * is where a read of every whole line in them stops. A line without its line break yet
+	 * may still be being written, so it is left out
+	 *
+	 * @param path the file to search
+	 * @param size the number of bytes at the start of the file to search, past the end of the file to search all of it
+	 * @return long the byte offset just past the last line break, or 0 if there is none
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static long lastLineEnd(String path, long size) throws FileNotFoundException {
+		try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+			byte[] block = new byte[8192];
+			long end = Math.min(file.length(), size);
+			while (end > 0) {
+				int length = (int) Math.min(block.length, end);
+				file.seek(end - length);
+				file.readFully(block, 0, length);
+				for (int i = length - 1; i >= 0; i--) {
+					if (block[i] == '\n') {
+						return end - length + i + 1;
+					}
+				}
+				end -= length;
+			}
+			return 0;
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Finds the byte offset just past a number of line breaks from the start of a file, which
+	 * is where a read of that many lines stops
+	 *
+	 * @param path the file to search
+	 * @param lines the number of lines to skip
+	 * @return long the byte offset just past the last skipped line break, or -1 if the file has fewer line breaks
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static long lineEnd(String path, long lines) throws FileNotFoundException {
+		if (lines <= 0) {
+			return 0;
+		}
+		try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+			byte[] block = new byte[8192];
+			long position = 0;
+			long remaining = lines;
+			int read;
+			while ((read = file.read(block)) > 0) {
+				for (int i = 0; i < read; i++) {
+					if (block[i] == '\n' && --remaining == 0) {
+						return position + i + 1;
+					}
+				}
+				position += read;
+			}
+			return -1;
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Private helper method that finds the start of the first line after a byte offset
+	 *
+	 * @param file the file to search
+	 * @param offset the byte offset to search from
+	 * @param size the size of the file
+	 * @return long the byte offset just past the next line break, or the size of the file
+	 * @throws IOException if the file cannot be read
+	*/
+	private static long nextLineStart(RandomAccessFile file, long offset, long size) throws IOException {
+		file.seek(offset);
+		byte[] block = new byte[8192];
+		long position = offset;
+		while (position < size) {
+			int read = file.read(block);
+			if (read < 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (block[i] == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return size;
+	}
+
+	/**
+	 * Reads the room file in the ROOM_ID,LENGTH,WIDTH format
+	 * The header line and any blank lines are skipped
+	 *
+	 * @param pathToRoomFile the file that holds the list of rooms
+	 * @return List the list of rooms in the order they appear in the file
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static List<RoomRecord> readRoomFile(String pathToRoomFile) throws FileNotFoundException {
+		List<RoomRecord> rooms = DSAFactory.getIndexedList();
+		readRoomFile(pathToRoomFile, rooms::addLast);
+		return rooms;
+	}
+
+	/**
+	 * Reads the room file in the ROOM_ID,LENGTH,WIDTH format, handing each room
+	 * to the consumer instead of collecting them in a list
+	 * The header line and any blank lines are skipped
+	 *
+	 * @param pathToRoomFile the file that holds the list of rooms
+	 * @param consumer what each room is handed to, in the order they appear in the file
+	 * @throws FileNotFoundException if file cannot be found
+	 * @throws UncheckedIOException if the file cannot be read after it is opened
+	*/
+	public static void readRoomFile(String pathToRoomFile, Consumer<RoomRecord> consumer) throws FileNotFoundException {
+		readLines(pathToRoomFile, (buffer, start, end) -> consumer.accept(parseRoomLine(buffer, start, end)));
+	}
+
+	/**
+	 * Private helper method that parses one line of a cleaning log file from the mapped bytes
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index of the first byte of the line
+	 * @param end the index just past the last byte of the line
+	 * @param roomNames the room IDs already seen in the file
+	 * @return CleaningLogEntry the cleaning event on the line
+	*/
+	private static CleaningLogEntry parseLogLine(MappedByteBuffer buffer, int start, int end, RoomNames roomNames) {
+		int timeEnd = start + TIMESTAMP_LENGTH;
+		int lastComma = lastIndexOf(buffer, start, end, (byte) ',');
+		if (timeEnd >= end || buffer.get(timeEnd) != ',' || lastComma <= timeEnd) {
+			throw new IllegalArgumentException("Invalid cleaning log line: " + toString(buffer, start, end));
+		}
+
+		LocalDateTime timestamp = parseTimestamp(buffer, start);
+		String roomID = roomNames.get(buffer, timeEnd + 1, lastComma);
+		int percent = parseInt(buffer, lastComma + 1, end);
+
+		return new CleaningLogEntry(timestamp, roomID, percent);
+	}
+
+	/**
+	 * Private helper method that parses one line of a room file from the mapped bytes
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index of the first byte of the line
+	 * @param end the index just past the last byte of the line
+	 * @return RoomRecord the room on the line
+	*/
+	private static RoomRecord parseRoomLine(MappedByteBuffer buffer, int start, int end) {
+		int lastComma = lastIndexOf(buffer, start, end, (byte) ',');
+		int middleComma = lastIndexOf(buffer, start, lastComma, (byte) ',');
+		if (middleComma < 0) {
+			throw new IllegalArgumentException("Invalid room line: " + toString(buffer, start, end));
+		}
+
+		String roomID = toString(buffer, start, middleComma);
+		int length = parseInt(buffer, middleComma + 1, lastComma);
+		int width = parseInt(buffer, lastComma + 1, end);
+
+		return new RoomRecord(roomID, length, width);
+	}
+
+	/**
+	 * Private helper method that memory-maps a file and gives each line after the header
+	 * to the handler, without the line ending
+	 *
+	 * @param path the file to read
+	 * @param handler the handler each line is given to
+	 * @throws FileNotFoundException if file cannot be found
+	*/
+	private static void readLines(String path, LineHandler handler) throws FileNotFoundException {
+		readLines(path, 0, Long.MAX_VALUE, true, handler);
+	}
+
+	/**
+	 * Private helper method that memory-maps a byte range of a file and gives each line in it
+	 * to the handler, without the line ending. Ranges larger than one mapping are mapped
+	 * a region at a time, with each region ending on a line break
+	 *
+	 * @param path the file to read
+	 * @param start the byte offset of the first line to read
+	 * @param end the byte offset just past the last line to read, past the end of the file to read to the end
+	 * @param skipHeader true if the first line in the range is a header to skip
+	 * @param handler the handler each line is given to
+	 * @throws FileNotFoundException if file cannot be found
+	*/
+	private static void readLines(String path, long start, long end, boolean skipHeader, LineHandler handler) throws FileNotFoundException {
+		try (RandomAccessFile file = new RandomAccessFile(path, "r");
+				FileChannel channel = file.getChannel()) {
+			long size = Math.min(channel.size(), end);
+			long position = start;
+			boolean header = skipHeader;
+
+			while (position < size) {
+				int regionSize = (int) Math.min(size - position, MAX_REGION);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+
+				// Only parse up to the last line break unless this region reaches the end of the range
+				int limit = regionSize;
+				if (position + regionSize < size) {
+					limit = lastIndexOf(buffer, 0, regionSize, (byte) '\n') + 1;
+					if (limit == 0) {
+						throw new IllegalArgumentException("Line is too long in " + path);
+					}
+				}
+
+				int lineStart = 0;
+				while (lineStart < limit) {
+					int lineEnd = indexOf(buffer, lineStart, limit, (byte) '\n');
+					int next = lineEnd + 1;
+					if (lineEnd < 0) {
+						lineEnd = limit;
+						next = limit;
+					}
+					if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+						lineEnd--;
+					}
+
+					if (header) {
+						header = false;
+					} else if (lineEnd > lineStart) {
+						handler.handle(buffer, lineStart, lineEnd);
+					}
+					lineStart = next;
+				}
+
+				position += limit;
+			}
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Private helper method that parses a MM/dd/yyyy HH:mm:ss timestamp from its digits
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index of the first byte of the timestamp
+	 * @return LocalDateTime the parsed timestamp
+	*/
+	private static LocalDateTime parseTimestamp(MappedByteBuffer buffer, int start) {
+		if (buffer.get(start + 2) != '/' || buffer.get(start + 5) != '/' || buffer.get(start + 10) != ' '
+				|| buffer.get(start + 13) != ':' || buffer.get(start + 16) != ':') {
+			throw new DateTimeParseException("Invalid timestamp", toString(buffer, start, start + TIMESTAMP_LENGTH), 0);
+		}
+
+		int month = digits(buffer, start, 2);
+		int day = digits(buffer, start + 3, 2);
+		int year = digits(buffer, start + 6, 4);
+		int hour = digits(buffer, start + 11, 2);
+		int minute = digits(buffer, start + 14, 2);
+		int second = digits(buffer, start + 17, 2);
+
+		// Like DateTimeFormatter's default resolving, a day past the end of the month becomes its last day
+		if (day > 28 && day <= 31 && month >= 1 && month <= 12) {
+			day = Math.min(day, YearMonth.of(year, month).lengthOfMonth());
+		}
+
+		return LocalDateTime.of(year, month, day, hour, minute, second);
+	}
+
+	/**
+	 * Private helper method that reads a fixed number of digits as a number
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index of the first digit
+	 * @param count the number of digits
+	 * @return int the number the digits make
+	*/
+	private static int digits(MappedByteBuffer buffer, int start, int count) {
+		int value = 0;
+		for (int i = start; i < start + count; i++) {
+			int digit = buffer.get(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new DateTimeParseException("Invalid timestamp", toString(buffer, start, start + count), i - start);
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Private helper method that parses an optionally signed integer field
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index of the first byte of the field
+	 * @param end the index just past the last byte of the field
+	 * @return int the parsed integer
+	*/
+	private static int parseInt(MappedByteBuffer buffer, int start, int end) {
+		boolean negative = start < end && buffer.get(start) == '-';
+		int i = negative ? start + 1 : start;
+		if (i == end) {
+			throw new NumberFormatException("Invalid number: " + toString(buffer, start, end));
+		}
+
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = buffer.get(i) - '0';
+			if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+				throw new NumberFormatException("Invalid number: " + toString(buffer, start, end));
+			}
+			value = value * 10 + digit;
+		}
+
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+			throw new NumberFormatException("Invalid number: " + toString(buffer, start, end));
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Private helper method that finds the first index of a byte in a range
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index to start searching from
+	 * @param end the index just past the last byte to search
+	 * @param value the byte to search for
+	 * @return int the index of the byte, or -1 if it is not in the range
+	*/
+	private static int indexOf(MappedByteBuffer buffer, int start, int end, byte value) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Private helper method that finds the last index of a byte in a range
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the first index to search
+	 * @param end the index just past the last byte to search
+	 * @param value the byte to search for
+	 * @return int the index of the byte, or -1 if it is not in the range
+	*/
+	private static int lastIndexOf(MappedByteBuffer buffer, int start, int end, byte value) {
+		for (int i = end - 1; i >= start; i--) {
+			if (buffer.get(i) == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Private helper method that decodes a range of bytes as a UTF-8 String
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index of the first byte
+	 * @param end the index just past the last byte
+	 * @return String the decoded String
+	*/
+	private static String toString(MappedByteBuffer buffer, int start, int end) {
+		return new String(copy(buffer, start, end), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Private helper method that copies a range of bytes out of the buffer
+	 *
+	 * @param buffer the mapped bytes of the file
+	 * @param start the index of the first byte
+	 * @param end the index just past the last byte
+	 * @return byte[] the copied bytes
+	*/
+	private static byte[] copy(MappedByteBuffer buffer, int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Interface for handling one line of a mapped file
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private interface LineHandler {
+
+		/**
+		 * Handles one line of a mapped file
+		 *
+		 * @param buffer the mapped bytes of the file
+		 * @param start the index of the first byte of the line
+		 * @param end the index just past the last byte of the line, without the line ending
+		*/
+		void handle(MappedByteBuffer buffer, int start, int end);
+	}
+
+	/**
+	 * Class that remembers the room ID Strings already built while reading a file, so
+	 * repeated room IDs are matched against their bytes instead of being decoded again.
+	 * The IDs are held in an open addressing hash table keyed on the bytes
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class RoomNames {
+
+		/** The bytes of each room ID in the table */
+		private byte[][] keys = new byte[64][];
+		/** The room ID Strings, parallel to keys */
+		private String[] names = new String[64];
+		/** The number of room IDs in the table */
+		private int size;
+
+		/**
+		 * Returns the room ID String for a range of bytes, building it the first time it is seen
+		 *
+		 * @param buffer the mapped bytes of the file
+		 * @param start the index of the first byte of the room ID
+		 * @param end the index just past the last byte of the room ID
+		 * @return String the room ID
+		*/
+		String get(MappedByteBuffer buffer, int start, int end) {
+			int hash = 1;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + buffer.get(i);
+			}
+
+			int mask = keys.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (keys[slot] != null) {
+				if (matches(keys[slot], buffer, start, end)) {
+					return names[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+
+			byte[] key = copy(buffer, start, end);
+			keys[slot] = key;
+			names[slot] = new String(key, StandardCharsets.UTF_8);
+			String name = names[slot];
+			size++;
+
+			if (size * 2 > keys.length) {
+				grow();
+			}
+			return name;
+		}
+
+		/**
+		 * Private helper method that checks whether stored bytes match a range of the buffer
+		 *
+		 * @param key the stored bytes
+		 * @param buffer the mapped bytes of the file
+		 * @param start the index of the first byte of the range
+		 * @param end the index just past the last byte of the range
+		 * @return boolean true if the bytes match
+		*/
+		private static boolean matches(byte[] key, MappedByteBuffer buffer, int start, int end) {
+			if (key.length != end - start) {
+				return false;
+			}
+			for (int i = 0; i < key.length; i++) {
+				if (key[i] != buffer.get(start + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Private helper method that doubles the size of the table
+		*/
+		private void grow() {
+			byte[][] oldKeys = keys;
+			String[] oldNames = names;
+			keys = new byte[oldKeys.length * 2][];
+			names = new String[oldNames.length * 2];
+			int mask = keys.length - 1;
+
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != null) {
+					int hash = 1;
+					for (byte b : oldKeys[i]) {
+						hash = 31 * hash + b;
+					}
+					int slot = (hash ^ (hash >>> 16)) & mask;
+					while (keys[slot] != null) {
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = oldKeys[i];
+					names[slot] = oldNames[i];
+				}
+			}
+		}
+	}
+
+}
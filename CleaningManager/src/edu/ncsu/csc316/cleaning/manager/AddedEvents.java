@@ -0,0 +1,350 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+/**
+*
+* Class that holds the cleaning events added to a manager since its indexes were last built,
+* in structures that take a new event in O(log n) time without changing the old ones, so each
+* snapshot can keep its own AddedEvents while newer snapshots add to it
+*
+* Each room's added events are kept in a persistent AVL tree ordered from most recent to least
+* recent, and the trees are kept in a PersistentArray indexed by room. Adding an event copies
+* only the O(log k) nodes on its path, so events that arrive out of order, such as a backfill
+* of a room's older cleanings, cost the same as events that arrive in order
+*
+* Coverage is kept as sorted CoverageIndex runs whose sizes are distinct powers of two, like
+* the bits of a binary counter. An event starts a run of one, and runs of the same size are
+* merged, so each event is merged O(log n) times in all and a query searches O(log n) runs
+*
+* @author Lalitha Edupuganti
+*
+*/
+final class AddedEvents {
+
+	/** The root of each room's tree of added events, or null if it has none */
+	private final PersistentArray<Node> byRoom;
+	/** The coverage runs, where run i holds 2 to the i events or is null */
+	private final CoverageIndex[] coverage;
+	/** The number of added events */
+	private final int size;
+
+	/**
+	 * The constructor that makes an empty set of added events
+	 * @param roomCount the number of listed rooms
+	*/
+	AddedEvents(int roomCount) {
+		this(new PersistentArray<Node>(roomCount), new CoverageIndex[0], 0);
+	}
+
+	/**
+	 * Private constructor that takes in the structures of a set of added events
+	 *
+	 * @param byRoom each room's added events
+	 * @param coverage the coverage runs
+	 * @param size the number of added events
+	*/
+	private AddedEvents(PersistentArray<Node> byRoom, CoverageIndex[] coverage, int size) {
+		this.byRoom = byRoom;
+		this.coverage = coverage;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a new set of added events with one more event. This set is not changed
+	 * An event at the same time as events already in its room comes after them
+	 *
+	 * @param time the time of the event in epoch seconds
+	 * @param room the index of the event's room
+	 * @param percent the percent of the room that was cleaned
+	 * @param cleaned the square feet cleaned by the event in hundredths of a square foot
+	 * @return AddedEvents the new set of added events
+	 * @throws IllegalArgumentException if the percent is not between 0 and 255
+	*/
+	AddedEvents add(long time, int room, int percent, long cleaned) {
+		if (percent < 0 || percent > 255) {
+			throw new IllegalArgumentException("Percent cleaned must be between 0 and 255: " + percent);
+		}
+
+		// Carry the new run up through every run of the same size, like adding one in binary
+		CoverageIndex run = new CoverageIndex(new long[] {time}, new long[] {0, cleaned});
+		int level = 0;
+		while (level < coverage.length && coverage[level] != null) {
+			run = coverage[level].merge(run);
+			level++;
+		}
+		CoverageIndex[] newCoverage = new CoverageIndex[Math.max(coverage.length, level + 1)];
+		System.arraycopy(coverage, level, newCoverage, level, coverage.length - level);
+		newCoverage[level] = run;
+
+		return new AddedEvents(byRoom.set(room, Node.insert(byRoom.get(room), time, percent)), newCoverage, size + 1);
+	}
+
+	/**
+	 * Returns the number of added events
+	 * @return size the number of events
+	*/
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of events added for a room
+	 * @param room the index of the room
+	 * @return int the number of events
+	*/
+	int size(int room) {
+		return Node.size(byRoom.get(room));
+	}
+
+	/**
+	 * Returns the number of events added for a room at or after a time, in O(log k) time
+	 * @param room the index of the room
+	 * @param since the time in epoch seconds
+	 * @return int the number of events
+	*/
+	int countSince(int room, long since) {
+		int count = 0;
+		Node node = byRoom.get(room);
+		while (node != null) {
+			if (node.time >= since) {
+				count += Node.size(node.newer) + 1;
+				node = node.older;
+			} else {
+				node = node.newer;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns a walk through the events added for a room from most recent to least recent
+	 * @param room the index of the room
+	 * @return Walk the walk, starting before the room's most recent added event
+	*/
+	Walk walk(int room) {
+		Node root = byRoom.get(room);
+		return root == null ? Walk.EMPTY : new Walk(root);
+	}
+
+	/**
+	 * Returns the square feet cleaned by the added events at or after a time
+	 * @param since the time in epoch seconds
+	 * @return long the square feet cleaned in hundredths of a square foot
+	*/
+	long cleanedSince(long since) {
+		long cleaned = 0;
+		for (CoverageIndex run : coverage) {
+			if (run != null) {
+				cleaned += run.cleanedSince(since);
+			}
+		}
+		return cleaned;
+	}
+
+	/**
+	 * Adds the square feet cleaned by added events at or after each of several times
+	 * @param sinceMostRecentFirst the times in epoch seconds, from most recent to least recent
+	 * @param cleaned the totals the square feet cleaned since each time are added to, in
+	 * hundredths of a square foot
+	*/
+	void addCleanedSince(long[] sinceMostRecentFirst, long[] cleaned) {
+		for (CoverageIndex run : coverage) {
+			if (run != null) {
+				run.addCleanedSince(sinceMostRecentFirst, cleaned);
+			}
+		}
+	}
+
+	/**
+	 * Returns the time of the most recent added event
+	 * @return long the time in epoch seconds, or Long.MIN_VALUE if no events were added
+	*/
+	long getLatestTime() {
+		long latest = Long.MIN_VALUE;
+		for (CoverageIndex run : coverage) {
+			if (run != null) {
+				latest = Math.max(latest, run.getLatestTime());
+			}
+		}
+		return latest;
+	}
+
+	/**
+	 * Returns one coverage index that holds every added event
+	 * @return CoverageIndex the merged coverage runs
+	*/
+	CoverageIndex getCoverage() {
+		CoverageIndex merged = new CoverageIndex(new long[0], new long[1]);
+		for (CoverageIndex run : coverage) {
+			if (run != null) {
+				merged = merged.merge(run);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Class for one added cleaning event in a room's tree. Events that are more recent are
+	 * to the newer side, and events at the same time are to the older side of the events
+	 * added before them. Nodes are never changed once they are made, so trees can share
+	 * every node off the path of a new event
+	 *
+	 * @author Lalitha Edupuganti
+	 *
+	*/
+	static final class Node {
+
+		/** The time of the event in epoch seconds */
+		final long time;
+		/** The percent of the room cleaned by the event */
+		final int percent;
+		/** The subtree of events before this one, or null if there are none */
+		private final Node newer;
+		/** The subtree of events after this one, or null if there are none */
+		private final Node older;
+		/** The number of nodes on the longest path down from this node */
+		private final int height;
+		/** The number of events in the subtree starting at this node */
+		private final int size;
+
+		/**
+		 * The constructor that joins an event and its two subtrees
+		 *
+		 * @param time the time of the event in epoch seconds
+		 * @param percent the percent of the room cleaned by the event
+		 * @param newer the subtree of events before this one
+		 * @param older the subtree of events after this one
+		*/
+		private Node(long time, int percent, Node newer, Node older) {
+			this.time = time;
+			this.percent = percent;
+			this.newer = newer;
+			this.older = older;
+			this.height = Math.max(height(newer), height(older)) + 1;
+			this.size = size(newer) + size(older) + 1;
+		}
+
+		/**
+		 * Returns a new tree with an event added after every event at the same time or later
+		 * Only the O(log k) nodes on the path down to the new event are copied
+		 *
+		 * @param root the root of the tree, or null if the tree is empty
+		 * @param time the time of the new event in epoch seconds
+		 * @param percent the percent of the room cleaned by the new event
+		 * @return Node the root of the new tree
+		*/
+		static Node insert(Node root, long time, int percent) {
+			if (root == null) {
+				return new Node(time, percent, null, null);
+			}
+			if (time > root.time) {
+				return balance(root.time, root.percent, insert(root.newer, time, percent), root.older);
+			}
+			return balance(root.time, root.percent, root.newer, insert(root.older, time, percent));
+		}
+
+		/**
+		 * Returns the number of events in a subtree
+		 * @param node the root of the subtree, or null
+		 * @return int the number of events
+		*/
+		static int size(Node node) {
+			return node == null ? 0 : node.size;
+		}
+
+		/**
+		 * Returns the height of a subtree
+		 * @param node the root of the subtree, or null
+		 * @return int the number of nodes on the longest path down
+		*/
+		static int height(Node node) {
+			return node == null ? 0 : node.height;
+		}
+
+		/**
+		 * Private helper method that joins an event and two subtrees whose heights differ by at
+		 * most two, rotating once or twice so the heights of the new root's subtrees differ by
+		 * at most one
+		 *
+		 * @param time the time of the event in epoch seconds
+		 * @param percent the percent of the room cleaned by the event
+		 * @param newer the subtree of events before this one
+		 * @param older the subtree of events after this one
+		 * @return Node the root of the balanced tree
+		*/
+		private static Node balance(long time, int percent, Node newer, Node older) {
+			if (height(newer) > height(older) + 1) {
+				if (height(newer.newer) >= height(newer.older)) {
+					return new Node(newer.time, newer.percent, newer.newer, new Node(time, percent, newer.older, older));
+				}
+				Node middle = newer.older;
+				return new Node(middle.time, middle.percent, new Node(newer.time, newer.percent, newer.newer, middle.newer),
+						new Node(time, percent, middle.older, older));
+			}
+			if (height(older) > height(newer) + 1) {
+				if (height(older.older) >= height(older.newer)) {
+					return new Node(older.time, older.percent, new Node(time, percent, newer, older.newer), older.older);
+				}
+				Node middle = older.newer;
+				return new Node(middle.time, middle.percent, new Node(time, percent, newer, middle.newer),
+						new Node(older.time, older.percent, middle.older, older.older));
+			}
+			return new Node(time, percent, newer, older);
+		}
+	}
+
+	/**
+	 * Class that steps through a room's tree of added events from most recent to least
+	 * recent, keeping the path to the next event on a stack
+	 *
+	 * @author Lalitha Edupuganti
+	 *
+	*/
+	static final class Walk {
+
+		/** The walk through a room with no added events */
+		static final Walk EMPTY = new Walk(null);
+
+		/** The nodes whose events are still to come, with the next event on top */
+		private final Node[] stack;
+		/** The number of nodes on the stack */
+		private int depth;
+
+		/**
+		 * The constructor that starts before the most recent event of a tree
+		 * @param root the root of the tree, or null if it is empty
+		*/
+		private Walk(Node root) {
+			stack = new Node[Node.height(root)];
+			pushNewer(root);
+		}
+
+		/**
+		 * Returns the next event without moving past it
+		 * @return Node the next event, or null if every event has been stepped through
+		*/
+		Node peek() {
+			return depth == 0 ? null : stack[depth - 1];
+		}
+
+		/**
+		 * Moves past the next event
+		*/
+		void advance() {
+			Node node = stack[--depth];
+			pushNewer(node.older);
+		}
+
+		/**
+		 * Private helper method that pushes a subtree's most recent event and every node on
+		 * the way down to it
+		 * @param node the root of the subtree, or null
+		*/
+		private void pushNewer(Node node) {
+			while (node != null) {
+				stack[depth++] = node;
+				node = node.newer;
+			}
+		}
+	}
+
+}
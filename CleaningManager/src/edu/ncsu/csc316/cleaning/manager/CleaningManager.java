@@ -1,35 +1,167 @@
 package edu.ncsu.csc316.cleaning.manager;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Paths;
 import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
 import edu.ncsu.csc316.cleaning.data.RoomRecord;
-import edu.ncsu.csc316.cleaning.dsa.Algorithm;
 import edu.ncsu.csc316.cleaning.dsa.DSAFactory;
 import edu.ncsu.csc316.cleaning.dsa.DataStructure;
 import edu.ncsu.csc316.cleaning.io.InputReader;
+import edu.ncsu.csc316.cleaning.io.LogStreamReader;
+import edu.ncsu.csc316.cleaning.io.MappedInputReader;
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
 import edu.ncsu.csc316.dsa.list.List;
 import edu.ncsu.csc316.dsa.map.Map;
-import edu.ncsu.csc316.dsa.sorter.Sorter;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.time.ZoneOffset;
+import java.util.concurrent.ForkJoinPool;
 
 /**
 *
 * Class that uses methods to generate the lists and values used by the ReportManager
 * class to generate reports on frequency, vacuum bag status and room report
 * 
+* The cleaning events are kept in a columnar EventStore rather than as CleaningLogEntry
+* objects, with a RoomIndex and a CoverageIndex built over the store once at load time
+* 
+* Everything loaded is held in one CleaningSnapshot that is never changed, so any number of
+* threads can query the manager at once without locks. Adding cleaning events builds a new
+* snapshot that shares the indexes of the old one and publishes it in its place, so each
+* query sees either all of the new events or none of them
+* 
 * @author Lalitha Edupuganti
 *
 */
 public class CleaningManager {
-	/** A generic list that holds a list of entries of type CleaningLogEntry */
-	private List<CleaningLogEntry> newList = null;
-	/** A generic map that holds entries of type String, RoomRecord */
-	private Map<String, RoomRecord> roomList = null;
-	/** A generic list that holds a list of entries of type RoomRecord */
-	private List<RoomRecord> roomRecords = null;
+	/** Everything that has been loaded, replaced as a whole when new cleaning events are added */
+	private volatile CleaningSnapshot snapshot = null;
+	/** The rooms and cleaning events loaded from the room and cleaning log files, without added events */
+	private CleaningSnapshot loadedSnapshot = null;
+	/** The number of times the rooms or cleaning events have changed since the manager was loaded */
+	private volatile long dataVersion = 0;
+	/** The data version the set of cleaning log files was last loaded at */
+	private long loadedVersion = 0;
+	/** The data structures the manager builds */
+	private ManagerConfig config = null;
+	/** The way the cleaning log file was loaded */
+	private LoadMode loadMode = null;
+	/** The file that holds the list of cleaning events */
+	private String pathToLogFile = null;
+	/** The byte offset just past the last line break loaded from the cleaning log file, where following it starts, or -1 if not found yet */
+	private long loadedLogOffset = 0;
+	/** The number of bytes after the offset loaded as a last line without a line break */
+	private long loadedLogTail = 0;
+	/** The number of lines InputReader read from the cleaning log file, including its header */
+	private long loadedLogLines = 0;
+	/** The sizes and last modified times of the room and cleaning log files before they were loaded */
+	private long[] sourceStamp = null;
+	/** The follower adding lines appended to the cleaning log file, or null if it is not followed */
+	private LogFollower follower = null;
+	/** The error that kept a new snapshot file from being saved when the manager was loaded, or null if it was saved */
+	private IOException snapshotFailure = null;
+	/** The loader of the set of cleaning log files, or null if the manager was loaded from one file */
+	private LogSetLoader logSet = null;
 	
+	/** The number of most recent cleaning events kept for each room when streaming */
+	public static final int STREAMING_RECENT_EVENTS = 10;
+	/** The number of most recent cleaning events kept for coverage when streaming */
+	public static final int STREAMING_COVERAGE_WINDOW = 1 << 20;
+	
+	/**
+     * The constructor that takes in a roomFile, cleaning log file, a binary snapshot file, the
+     * data structure configuration, and the way the cleaning log file should be loaded
+     * If the snapshot file was saved from the same room and cleaning log files with the same load
+     * mode, it is memory-mapped and loaded instead of parsing the files. Otherwise the files are
+     * loaded and a new snapshot is saved in its place, so the next manager can load it
+     * The snapshot only saves time, so a snapshot that cannot be saved does not stop the loaded
+     * manager from being used, and the error is kept for getSnapshotFailure
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param pathToSnapshotFile the binary snapshot file, or null to always load the files
+     * @param config the data structures the manager builds
+     * @param loadMode the way the cleaning log file should be loaded
+     * @throws FileNotFoundException if file cannot be found
+    */
+    public CleaningManager(String pathToRoomFile, String pathToLogFile, String pathToSnapshotFile, ManagerConfig config, LoadMode loadMode) throws FileNotFoundException {
+        this.config = config;
+        this.loadMode = loadMode;
+        this.pathToLogFile = pathToLogFile;
+        this.sourceStamp = SnapshotFile.sourceStamp(pathToRoomFile, pathToLogFile);
+        
+        if (pathToSnapshotFile != null) {
+        	snapshot = readSnapshot(pathToSnapshotFile);
+        }
+        
+        if (snapshot != null) {
+        	setLoadedLogEnd(sourceStamp[2]);
+        	loadedSnapshot = snapshot;
+        } else {
+        	snapshot = loadFiles(pathToRoomFile, pathToLogFile, sourceStamp[2]);
+        	loadedSnapshot = snapshot;
+        	if (pathToSnapshotFile != null) {
+        		try {
+        			saveSnapshot(pathToSnapshotFile);
+        		} catch (IOException e) {
+        			snapshotFailure = e;
+        		}
+        	}
+        }
+    }
+    
+	/**
+     * The constructor that takes in a roomFile, a set of cleaning log files, and the data
+     * structure configuration. The files are loaded as if they were one log written in the
+     * order given, and a directory stands for every file in it in order of file name, so a
+     * directory of daily logs named by date can be loaded without joining them first
+     * The files are read in parallel and each is sorted on its own, since logs are written in
+     * time order, and the sorted files are then merged, so the set is never sorted at once
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathsToLogFiles the cleaning log files and directories of cleaning log files
+     * @param config the data structures the manager builds
+     * @throws FileNotFoundException if a file or directory cannot be found
+    */
+    public CleaningManager(String pathToRoomFile, String[] pathsToLogFiles, ManagerConfig config) throws FileNotFoundException {
+        this.config = config;
+        this.loadMode = LoadMode.PARALLEL;
+        
+        List<RoomRecord> roomRecords = config.getIndexedList();
+        MappedInputReader.readRoomFile(pathToRoomFile, roomRecords::addLast);
+        logSet = new LogSetLoader(new RoomTable(roomRecords, config), pathsToLogFiles, ForkJoinPool.commonPool());
+        snapshot = loadLogSet();
+    }
+    
+	/**
+     * The constructor that takes in a roomFile, cleaning log file, the data structure
+     * configuration, and the way the cleaning log file should be loaded
+     * Every map, list and sorter the manager builds comes from its own configuration,
+     * so the static DSAFactory settings are not changed and managers can be built on several threads
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param config the data structures the manager builds
+     * @param loadMode the way the cleaning log file should be loaded
+     * @throws FileNotFoundException if file cannot be found
+    */
+    public CleaningManager(String pathToRoomFile, String pathToLogFile, ManagerConfig config, LoadMode loadMode) throws FileNotFoundException {
+        this(pathToRoomFile, pathToLogFile, null, config, loadMode);
+    }
+    
+	/**
+     * The constructor that takes in a roomFile, cleaning log file, the specified
+     * mapType, and the way the cleaning log file should be loaded
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param mapType the type of map datastructure to hold the entries of room and cleaning events
+     * @param loadMode the way the cleaning log file should be loaded
+     * @throws FileNotFoundException if file cannot be found
+    */
+    public CleaningManager(String pathToRoomFile, String pathToLogFile, DataStructure mapType, LoadMode loadMode) throws FileNotFoundException {
+        this(pathToRoomFile, pathToLogFile, new ManagerConfig(mapType), loadMode);
+    }
+    
 	/**
      * The constructor that takes in a roomFile, cleaning log file, and the specified
      * mapType
@@ -39,26 +171,7 @@ public class CleaningManager {
      * @throws FileNotFoundException if file cannot be found
     */
     public CleaningManager(String pathToRoomFile, String pathToLogFile, DataStructure mapType) throws FileNotFoundException {
-        DSAFactory.setListType(DataStructure.ARRAYBASEDLIST);
-        DSAFactory.setComparisonSorterType(Algorithm.MERGESORT);
-        DSAFactory.setNonComparisonSorterType(Algorithm.COUNTING_SORT);
-        DSAFactory.setMapType(mapType);
-        
-        
-        newList = DSAFactory.getIndexedList();
-    	
-    	newList = InputReader.readLogFile(pathToLogFile);
-    	
-    	roomList = DSAFactory.getMap(null);
-    	
-    	roomRecords = InputReader.readRoomFile(pathToRoomFile);
-    	
-    	for (RoomRecord roomRecord : roomRecords) {
-    	    // Assuming getRoomId() returns the String key for the SkipListMap
-    	    String roomId = roomRecord.getRoomID();
-    	    roomList.put(roomId, roomRecord);
-    	}
-        
+        this(pathToRoomFile, pathToLogFile, mapType, LoadMode.STANDARD);
     }
     
     /**
@@ -74,154 +187,521 @@ public class CleaningManager {
 
     /**
      * This method returns a Map that holds a entries of type String, List of CleaningLogEntry
-     * The method takes the listed rooms and their cleaning events and stores them into a map
+     * The map is built from the event store the first time it is asked for and then kept, so
+     * no rebuilding or re-sorting is done on later calls. When the log was streamed, each room
+     * only holds its most recent cleaning events
+     * The map is shared by every caller until new cleaning events are added, so it should not be changed
      *
-     * @return getEventByRoom the map created and filled by entries of the room name and corresponding 
-     * cleaning events
+     * @return eventsByRoom the map of room names and their corresponding cleaning events
+     * from most recent to least recent, or null if there are no rooms or cleaning events
     */
     public Map<String, List<CleaningLogEntry>> getEventsByRoom() {
-    	
-    	Map<String, List<CleaningLogEntry>> getEventByRoomMap = DSAFactory.getMap(null);
-    	
-    	if (roomList.isEmpty() || newList.isEmpty()) {
-    		return null;
-    	}
-    	
-    	// Initialize the map with all room IDs and empty lists
-        for (RoomRecord roomToRead : roomRecords) {
-            String roomString = roomToRead.getRoomID();
-            getEventByRoomMap.put(roomString, DSAFactory.getIndexedList());
-        }
-
-        // Populate the map with the cleaning events
-        for (CleaningLogEntry cleaningEvent : newList) {
-            String roomString = cleaningEvent.getRoomID();
-            List<CleaningLogEntry> eventList = getEventByRoomMap.get(roomString);
-
-            // Add the current cleaning event to the list
-            eventList.addFirst(cleaningEvent);
-        }
-
-        // Sort the lists by time
-        for (List<CleaningLogEntry> eventList : getEventByRoomMap.values()) {
-            sortByTime(eventList);
-        }
-
-        return getEventByRoomMap;
+        return snapshot.getEventsByRoom();
+    }
+    
+    /**
+     * This method returns a Map that holds the number of times each listed room was cleaned
+     * The counts are kept as the cleaning events are loaded, so they are exact in every load mode
+     *
+     * @return countsByRoom the map of room names and the number of times they were cleaned,
+     * or null if there are no rooms or cleaning events
+    */
+    public Map<String, Integer> getCountsByRoom() {
+        return snapshot.getCountsByRoom();
+    }
+    
+    /**
+     * Returns the data structures the manager builds
+     * @return config the data structure configuration of the manager
+    */
+    public ManagerConfig getConfig() {
+    	return config;
+    }
+    
+    /**
+     * Returns the way the cleaning log file was loaded
+     * @return loadMode the load mode of the manager
+    */
+    public LoadMode getLoadMode() {
+    	return loadMode;
     }
 
     /**
      * This method provides an integer value the square feet that was cleaned so far 
      * from the provided time stamp
+     * The value is found with a binary search over the time ordered coverage index
+     * and one subtraction of its running totals. When the log was streamed, only the most
+     * recent events are kept, so for times where isCoverageExact is false the value is a lower bound
      *
      * @param time the time from which coverage should be calculated
      * @return int the total squarefeet covered and cleaned from the input time
     */
     public int getCoverageSince(LocalDateTime time) {
+    	return snapshot.getCoverageSince(time);
+    }
+    
+    /**
+     * This method provides the square feet cleaned in a window of time, from the start time
+     * up to but not including the end time
+     * The value is found with two binary searches over the time ordered coverage index, so no
+     * cleaning events are visited. When the log was streamed, the value is a lower bound for
+     * windows that start where isCoverageExact is false
+     *
+     * @param from the start of the window, which is included
+     * @param to the end of the window, which is not included
+     * @return int the total square feet cleaned in the window, or 0 if the window is empty
+    */
+    public int getCoverageBetween(LocalDateTime from, LocalDateTime to) {
+    	return snapshot.getCoverageBetween(from, to);
+    }
+    
+    /**
+     * Returns whether getCoverageSince counts every cleaning event since the given time
+     * This is always true unless the log was streamed and older events were dropped
+     *
+     * @param time the time from which coverage would be calculated
+     * @return boolean true if coverage since the time is exact
+    */
+    public boolean isCoverageExact(LocalDateTime time) {
+    	return snapshot.isCoverageExact(time);
+    }
+    
+    /**
+     * Adds a cleaning event to the manager, as if it were at the end of the cleaning log file
+     * The room's events, the counts and the coverage are updated in O(log n) time, so every
+     * report includes the event without reloading the files
+     * A new snapshot holding the event is published, so queries running on other threads keep
+     * using the old snapshot and are never blocked. Calls that add events are run one at a time
+     * so no added events are lost
+     *
+     * @param newEvent the cleaning event to add
+    */
+    public synchronized void addEvent(CleaningLogEntry newEvent) {
+    	Metrics.Probe probe = Metrics.start(Stage.ADD_EVENTS);
+    	try {
+    		publish(snapshot.withEvent(newEvent));
+    	} finally {
+    		Metrics.stop(probe, 1);
+    	}
+    }
+    
+    /**
+     * Adds cleaning events to the manager, as if they were at the end of the cleaning log file
+     * Each event is added in O(log n) time and one snapshot holding all of them is published,
+     * so each query sees either all of the new events or none of them
+     *
+     * @param newEvents the cleaning events to add
+    */
+    public synchronized void addEvents(List<CleaningLogEntry> newEvents) {
+    	Metrics.Probe probe = Metrics.start(Stage.ADD_EVENTS);
+    	try {
+    		publish(snapshot.withEvents(newEvents));
+    	} finally {
+    		Metrics.stop(probe, newEvents.size());
+    	}
+    }
+    
+    /**
+     * Loads the set of cleaning log files again, reading only the files that were added or
+     * changed since they were last loaded. Directories are listed again, so new daily logs are
+     * picked up. Cleaning events added to the manager that are not in the files are dropped
+     * If no file was read or dropped and no events were added, the manager keeps what it had
+     * and its data version does not change
+     *
+     * @return int the number of files read, not counting files that were unchanged
+     * @throws FileNotFoundException if a file or directory cannot be found, in which case the
+     * manager keeps what it had
+     * @throws IllegalStateException if the manager was loaded from one cleaning log file
+    */
+    public synchronized int reloadLogs() throws FileNotFoundException {
+    	if (logSet == null) {
+    		throw new IllegalStateException("Only a manager loaded from a set of cleaning log files can reload them");
+    	}
+    	CleaningSnapshot reloaded = loadLogSet();
+    	if (logSet.isChanged() || dataVersion != loadedVersion) {
+    		publish(reloaded);
+    		loadedVersion = dataVersion;
+    	}
+    	return logSet.getFilesRead();
+    }
+    
+    /**
+     * Returns the number of times the rooms or cleaning events have changed since the manager
+     * was loaded. Adding events or reloading changed files moves it on, so a report built at
+     * one data version is still correct while the version is the same
+     * The version moves on after the new data is published, so a report built from the data
+     * read after reading the version is at least as new as that version
+     *
+     * @return long the data version
+    */
+    public long getDataVersion() {
+    	return dataVersion;
+    }
+    
+    /**
+     * Starts following the cleaning log file, so lines appended to it after it was loaded are
+     * added to the manager as they arrive, without reading the file again. Following starts just
+     * past the last line break the load read, so lines appended while the file was being loaded
+     * are added too, and a partly written last line is added once its line break is written
+     * Calling this again while the file is being followed returns the same follower
+     *
+     * @return follower the follower, which should be closed to stop following the file
+     * @throws IOException if the file cannot be read or its directory cannot be watched
+     * @throws IllegalStateException if the manager was loaded from a set of cleaning log files
+    */
+    public synchronized LogFollower follow() throws IOException {
+    	if (logSet != null) {
+    		throw new IllegalStateException("A set of cleaning log files cannot be followed, reload them instead");
+    	}
+    	if (follower == null) {
+    		if (loadedLogOffset < 0) {
+    			findLoadedLines();
+    		}
+    		follower = new LogFollower(this, pathToLogFile, loadedLogOffset, loadedLogTail);
+    	} else if (!follower.isRunning()) {
+    		follower = new LogFollower(this, pathToLogFile, follower.getOffset(), follower.getLoadedLength());
+    	}
+    	return follower;
+    }
+    
+    /**
+     * Returns the error that kept a new snapshot file from being saved when the manager was
+     * loaded. The manager is loaded from the files either way
+     * @return snapshotFailure the error, or null if no snapshot was saved or it was saved
+    */
+    public IOException getSnapshotFailure() {
+    	return snapshotFailure;
+    }
+    
+    /**
+     * Saves the rooms and cleaning events loaded from the room and cleaning log files as a
+     * compact binary snapshot that a later manager can load in place of the files
+     * The snapshot is marked with the size and last modified time the files had when they were
+     * loaded, so it is only used while the files are unchanged. Cleaning events added since the
+     * files were loaded are not in the files, so they are not saved either
+     *
+     * @param pathToSnapshotFile where the snapshot is saved
+     * @throws IOException if the snapshot cannot be written
+     * @throws IllegalStateException if the manager was loaded from a set of cleaning log files
+    */
+    public void saveSnapshot(String pathToSnapshotFile) throws IOException {
+    	if (logSet != null) {
+    		throw new IllegalStateException("A snapshot can only be saved for one cleaning log file");
+    	}
+    	CleaningSnapshot saved = loadedSnapshot;
+    	Metrics.Probe probe = Metrics.start(Stage.WRITE_SNAPSHOT);
+    	try {
+    		SnapshotFile.write(Paths.get(pathToSnapshotFile), saved, loadMode, sourceStamp);
+    	} finally {
+    		Metrics.stop(probe, saved.getEventCount());
+    	}
+    }
+    
+    /**
+     * Returns everything the manager has loaded as one snapshot, so a report can be
+     * built from the same data even if events are added while it is being built
+     * @return snapshot the current snapshot
+    */
+    CleaningSnapshot getSnapshot() {
+    	return snapshot;
+    }
+    
+    /**
+     * Private helper method that publishes a new snapshot in place of the current one and
+     * moves the data version on, unless the snapshot is the one already published
+     * Only called while holding the manager's lock, so no version is skipped or repeated
+     *
+     * @param next the snapshot to publish
+    */
+    private void publish(CleaningSnapshot next) {
+    	if (next != snapshot) {
+    		snapshot = next;
+    		dataVersion++;
+    	}
+    }
+    
+    /**
+     * Private helper method that loads the room and cleaning log files the way the load mode says
+     *
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param logSize the byte offset just past the last line of the log to load
+     * @return snapshot the loaded rooms, events and indexes
+     * @throws FileNotFoundException if file cannot be found
+    */
+    private CleaningSnapshot loadFiles(String pathToRoomFile, String pathToLogFile, long logSize) throws FileNotFoundException {
+    	Metrics.Probe probe = Metrics.start(Stage.LOAD_FILES);
+    	CleaningSnapshot loaded = null;
+    	try {
+    		loaded = readFiles(pathToRoomFile, pathToLogFile, logSize);
+    		return loaded;
+    	} finally {
+    		Metrics.stop(probe, loaded == null ? 0 : loaded.getEventCount());
+    	}
+    }
+    
+    /**
+     * Private helper method that reads the room and cleaning log files the way the load mode says
+     * Only the cleaning log file's size before loading is read, so lines appended while it is
+     * being loaded are left for following it, except that InputReader always reads to the end
+     *
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param logSize the size of the cleaning log file before loading
+     * @return snapshot the loaded rooms, events and indexes
+     * @throws FileNotFoundException if file cannot be found
+    */
+    private CleaningSnapshot readFiles(String pathToRoomFile, String pathToLogFile, long logSize) throws FileNotFoundException {
+        List<CleaningLogEntry> newList = null;
+    	List<RoomRecord> roomRecords = config.getIndexedList();
     	
-    	// Value for if the last bag change time has passed in traversal of C
-    	boolean bagChanged = false;
-
-    	// Variable to track the position in the list of cleaning events
-    	int index = 0;
-
-    	// Total square footage cleaned
-    	int sqrFeet = 0;
-
-    	//sorted the input list C into descending order by Time
-    	sortByTime(newList);
-
-    	//while loop runs until bagChanged variable does not turn to true
-    	while (index < newList.size() && !bagChanged) {
+    	if (loadMode == LoadMode.STANDARD) {
+    		newList = readWithInputReader(pathToRoomFile, pathToLogFile, roomRecords);
+    		// Where InputReader stopped is only found if the file is followed, since it takes a scan
+    		loadedLogLines = newList.size() + 1;
+    		loadedLogOffset = -1;
+    	} else {
+    		MappedInputReader.readRoomFile(pathToRoomFile, roomRecords::addLast);
+    		setLoadedLogEnd(logSize);
+    	}
     	
-    			CleaningLogEntry event = newList.get(index);
-            	//check if the specific event’s time is earlier than the param time
-            	if (event.getTimestamp().compareTo(time) >= 0) {
-            	      //this means event occurred after bag change time
-            	      //get specific event’s room
-    	        	RoomRecord room = roomList.get(event.getRoomID());
-    	        	//calculate and update sqrFeet to hold number of square feet cleaned
-    	        	Double percentCompleteDouble = (double) event.getPercentCompleted() / 100.0;
-    	        	sqrFeet += (room.getLength() * room.getWidth()) * percentCompleteDouble;
-    	        	//update index
-    	        	index++;
-            	} else {
-            		bagChanged = true;
-            	}
+    	if (loadMode == LoadMode.MAPPED) {
+    		newList = config.getIndexedList();
+    		MappedInputReader.readLogFile(pathToLogFile, logSize, newList::addLast);
     	}
-
-    	return sqrFeet;
-
-
+    	
+    	RoomTable rooms = new RoomTable(roomRecords, config);
+    	
+    	if (loadMode == LoadMode.STREAMING) {
+    		return streamLog(rooms, pathToLogFile, logSize);
+    	} else if (loadMode == LoadMode.PARALLEL) {
+    		return loadInParallel(rooms, pathToLogFile, logSize);
+    	}
+    	return loadEvents(rooms, newList);
     }
     
     /**
-     * Private helper method that is used to sort through a list of entries of tyep CleaningLogEntry
-     * The method sorts the input generic list by time in descending order where the 
-     * most recent cleaning event comes first
+     * Private helper method that remembers where following the cleaning log file starts after
+     * its first bytes were loaded. Following starts just past the last line break in them, and
+     * any bytes after it were loaded as a last line without a line break
      *
-     * @param newEntry the list of cleaning events to sort
+     * @param logSize the number of bytes loaded from the start of the cleaning log file
+     * @throws FileNotFoundException if file cannot be found
     */
-    private void sortByTime(List<CleaningLogEntry> newEntry) {
-    	int originalSize = newEntry.size();
-        
-    	CleaningLogEntry[] sortingList = new CleaningLogEntry[originalSize];
-   
-    	int i = 0;
-    	for(i = 0; i < originalSize - 1; i++) {
-    		sortingList[i] = newEntry.removeLast();
+    private void setLoadedLogEnd(long logSize) throws FileNotFoundException {
+    	loadedLogOffset = MappedInputReader.lastLineEnd(pathToLogFile, logSize);
+    	loadedLogTail = Math.max(0, Math.min(logSize, new File(pathToLogFile).length()) - loadedLogOffset);
+    }
+    
+    /**
+     * Private helper method that finds where following the cleaning log file starts after
+     * InputReader read a number of lines from it. If the last line read had no line break,
+     * following starts at that line, and the rest of the file was loaded as that line
+     *
+     * @throws FileNotFoundException if file cannot be found
+    */
+    private void findLoadedLines() throws FileNotFoundException {
+    	long offset = MappedInputReader.lineEnd(pathToLogFile, loadedLogLines);
+    	if (offset >= 0) {
+    		loadedLogOffset = offset;
+    		loadedLogTail = 0;
+    	} else {
+    		loadedLogOffset = Math.max(0, MappedInputReader.lineEnd(pathToLogFile, loadedLogLines - 1));
+    		loadedLogTail = new File(pathToLogFile).length() - loadedLogOffset;
     	}
-    	if (originalSize > 0) {
-    		sortingList[i] = newEntry.last();
+    }
+    
+    /**
+     * Private helper method that loads the set of cleaning log files, reading only the files
+     * that changed since the last load
+     *
+     * @return snapshot the loaded rooms, events and indexes
+     * @throws FileNotFoundException if a file or directory cannot be found
+    */
+    private CleaningSnapshot loadLogSet() throws FileNotFoundException {
+    	Metrics.Probe probe = Metrics.start(Stage.LOAD_FILES);
+    	try {
+    		logSet.load();
+    		return buildSnapshot(logSet.getRooms(), logSet.getEvents(), logSet.getOrder(), logSet.getEventCount());
+    	} finally {
+    		Metrics.stop(probe, logSet.getEventCount());
+    	}
+    }
+    
+    /**
+     * Private helper method that loads a binary snapshot file if it is current
+     * A snapshot that cannot be read is treated the same as a stale one, so the files are loaded instead
+     *
+     * @param pathToSnapshotFile the binary snapshot file
+     * @return snapshot the loaded snapshot, or null if it is missing, stale or cannot be read
+    */
+    private CleaningSnapshot readSnapshot(String pathToSnapshotFile) {
+    	Metrics.Probe probe = Metrics.start(Stage.READ_SNAPSHOT);
+    	CleaningSnapshot loaded = null;
+    	try {
+    		loaded = SnapshotFile.read(Paths.get(pathToSnapshotFile), config, loadMode, sourceStamp);
+    	} catch (IOException e) {
+    		loaded = null;
+    	} finally {
+    		Metrics.stop(probe, loaded == null ? 0 : loaded.getEventCount());
+    	}
+    	return loaded;
+    }
+    
+    /**
+     * Private helper method that reads the room and cleaning log files with InputReader
+     * InputReader builds its lists from the static DSAFactory list type, so the list type
+     * is set and the files are read while holding the DSAFactory lock, which keeps another
+     * manager from changing the list type part way through
+     *
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param roomRecords the list the rooms are added to
+     * @return newList the list of cleaning events
+     * @throws FileNotFoundException if file cannot be found
+    */
+    private List<CleaningLogEntry> readWithInputReader(String pathToRoomFile, String pathToLogFile, List<RoomRecord> roomRecords) throws FileNotFoundException {
+    	synchronized (DSAFactory.class) {
+    		DSAFactory.setListType(config.getListType());
+    		List<CleaningLogEntry> newList = InputReader.readLogFile(pathToLogFile);
+    		for (RoomRecord roomRecord : InputReader.readRoomFile(pathToRoomFile)) {
+    			roomRecords.addLast(roomRecord);
+    		}
+    		return newList;
+    	}
+    }
+    
+    /**
+     * Private helper method that moves the loaded cleaning events into the event store and
+     * builds the room and coverage indexes from one sort of the store by time.
+     * Events for rooms that are not in the room file are not kept
+     *
+     * @param rooms the listed rooms
+     * @param newList the loaded cleaning events
+     * @return snapshot the loaded rooms, events and indexes
+    */
+    private CleaningSnapshot loadEvents(RoomTable rooms, List<CleaningLogEntry> newList) {
+    	EventStore events = new EventStore(newList.size());
+    	for (CleaningLogEntry cleaningEvent : newList) {
+    		int room = rooms.indexOf(cleaningEvent.getRoomID());
+    		if (room >= 0) {
+    			events.add(toEpochSecond(cleaningEvent.getTimestamp()), room, cleaningEvent.getPercentCompleted());
+    		}
     	}
     	
-    	Sorter<CleaningLogEntry> cleaningSorter = DSAFactory.getComparisonSorter(new TimeComparator());
+    	return buildSnapshot(rooms, events, EventSorter.mostRecentFirst(events), newList.size());
+    }
+    
+    /**
+     * Private helper method that builds the room and coverage indexes over the event store
+     * @param rooms the listed rooms
+     * @param events the cleaning events for listed rooms
+     * @param mostRecentFirst the indexes of every event in the store from most recent to least recent
+     * @param eventCount the number of cleaning events loaded, including ones for rooms that are not listed
+     * @return snapshot the loaded rooms, events and indexes
+    */
+    private CleaningSnapshot buildSnapshot(RoomTable rooms, EventStore events, int[] mostRecentFirst, long eventCount) {
+    	Metrics.Probe probe = Metrics.start(Stage.BUILD_INDEXES);
+    	RoomIndex roomIndex = new RoomIndex(events, mostRecentFirst, rooms.size());
+    	CoverageIndex coverage = new CoverageIndex(events, mostRecentFirst, rooms);
     	
-    	cleaningSorter.sort(sortingList);
+    	int[] counts = new int[rooms.size()];
+    	for (int room = 0; room < rooms.size(); room++) {
+    		counts[room] = roomIndex.size(room);
+    	}
+    	Metrics.stop(probe, mostRecentFirst.length);
     	
-    	int j = 0;
-    	while(j < originalSize) {
-    		newEntry.addLast(sortingList[j]);
-    		j++;
+    	return new CleaningSnapshot(config, rooms, events, roomIndex, coverage, counts, eventCount, Long.MIN_VALUE);
+    }
+    
+    /**
+     * Private helper method that streams the cleaning log file one line at a time, folding
+     * each cleaning event into its room's totals and the bounded coverage window without
+     * keeping the events themselves. Each room keeps only its most recent events
+     *
+     * @param rooms the listed rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param logSize the number of bytes to read from the start of the cleaning log file
+     * @return snapshot the rooms' totals, recent events and coverage
+     * @throws FileNotFoundException if file cannot be found
+    */
+    private CleaningSnapshot streamLog(RoomTable rooms, String pathToLogFile, long logSize) throws FileNotFoundException {
+    	RoomAggregate[] roomTotals = new RoomAggregate[rooms.size()];
+    	for (int room = 0; room < rooms.size(); room++) {
+    		roomTotals[room] = new RoomAggregate(STREAMING_RECENT_EVENTS);
     	}
     	
-    	if (originalSize > 0) {
-        	newEntry.removeFirst();
+    	CoverageWindow window = new CoverageWindow(STREAMING_COVERAGE_WINDOW);
+    	
+    	long eventCount = LogStreamReader.readLogFile(pathToLogFile, logSize, cleaningEvent -> {
+    		int room = rooms.indexOf(cleaningEvent.getRoomID());
+    		long cleaned = 0;
+    		if (room >= 0) {
+    			cleaned = rooms.getArea(room) * cleaningEvent.getPercentCompleted();
+    			roomTotals[room].add(cleaningEvent, cleaned);
+    		}
+    		window.add(toEpochSecond(cleaningEvent.getTimestamp()), cleaned);
+    	});
+    	
+    	long[] coverageTimes = new long[window.size()];
+    	long[] coveragePrefix = new long[window.size() + 1];
+    	long coverageExactAfter = Long.MIN_VALUE;
+    	if (window.getDroppedCount() > 0) {
+    		coverageExactAfter = window.getDroppedUntil();
     	}
-
+    	window.drainInto(coverageTimes, coveragePrefix);
+    	CoverageIndex coverage = new CoverageIndex(coverageTimes, coveragePrefix);
     	
+    	// Only the recent events are kept in the store, so the counts come from the totals
+    	EventStore events = new EventStore(rooms.size() * STREAMING_RECENT_EVENTS);
+    	int[] counts = new int[rooms.size()];
+    	for (int room = 0; room < rooms.size(); room++) {
+    		for (CleaningLogEntry cleaningEvent : roomTotals[room].getRecentEvents()) {
+    			events.add(toEpochSecond(cleaningEvent.getTimestamp()), room, cleaningEvent.getPercentCompleted());
+    		}
+    		counts[room] = roomTotals[room].getCount();
+    	}
+    	RoomIndex roomIndex = new RoomIndex(events, EventSorter.mostRecentFirst(events), rooms.size());
+    	
+    	return new CleaningSnapshot(config, rooms, events, roomIndex, coverage, counts, eventCount, coverageExactAfter);
     }
     
     /**
-     * Private class that holds the compareTo method to compare list entries of type
-     * CleaningLogEntry based on each entry's timestamp where the more recent time should
-     * come first
-     * 
-     * @author Lalitha Edupuganti
+     * Private helper method that loads the cleaning log file on the common fork-join pool
+     * into the event store, and builds the indexes from the order merged from its chunks
+     *
+     * @param rooms the listed rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param logSize the number of bytes to read from the start of the cleaning log file
+     * @return snapshot the loaded rooms, events and indexes
+     * @throws FileNotFoundException if file cannot be found
     */
-    private class TimeComparator implements Comparator<CleaningLogEntry> {
-
-    	/**
-         * Compare to method that compares two entries based on time 
-         * to sort the entries in order of most recent to least recent time
-         * 
-         * @param entry1 the first entry to be compared
-         * @param entry2 the second entry to be compared
-         * @return int the int returned from comparing the two entries
-        */
-    	public int compare(CleaningLogEntry entry1, CleaningLogEntry entry2) {
-			if (entry2.getTimestamp().compareTo(entry1.getTimestamp()) > 0) {
-				return 1;
-			} else if (entry2.getTimestamp().compareTo(entry1.getTimestamp()) < 0) {
-				return -1;
-			} else  {
-				return 0;
-			}
-		}
-
-
+    private CleaningSnapshot loadInParallel(RoomTable rooms, String pathToLogFile, long logSize) throws FileNotFoundException {
+    	ParallelLogLoader loader = new ParallelLogLoader(rooms, ForkJoinPool.commonPool());
+    	loader.load(pathToLogFile, logSize);
     	
+    	return buildSnapshot(rooms, loader.getEvents(), loader.getOrder(), loader.getEventCount());
     }
     
+    /**
+     * Helper method that converts a timestamp into the number of seconds since the
+     * epoch, treating every timestamp as the same zone so times compare as they are written
+     *
+     * @param time the timestamp to convert
+     * @return long the number of seconds since the epoch
+    */
+    static long toEpochSecond(LocalDateTime time) {
+    	return time.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    /**
+     * Helper method that converts a number of seconds since the epoch back into a timestamp
+     *
+     * @param epochSecond the number of seconds since the epoch
+     * @return LocalDateTime the timestamp
+    */
+    static LocalDateTime toLocalDateTime(long epochSecond) {
+    	return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
 
-}
\ No newline at end of file
+}
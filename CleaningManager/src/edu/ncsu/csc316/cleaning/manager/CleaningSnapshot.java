@@ -0,0 +1,511 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.time.LocalDateTime;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
+
+/**
+*
+* Class that holds everything a CleaningManager has loaded: the rooms, the cleaning events
+* and the indexes built over them. A snapshot is never changed once it is built, so any
+* number of threads can query it at once without locks. New cleaning events are added by
+* building a new snapshot from this one, which the manager then publishes in its place
+*
+* Added events are kept in an AddedEvents beside the indexes, so adding an event takes
+* O(log n) time and shares everything else with the old snapshot. Once the added events
+* outnumber the indexed ones they are folded into new indexes
+*
+* The maps handed out by getEventsByRoom and getCountsByRoom are built the first time they
+* are asked for and shared after that, so callers should not change them
+*
+* @author Lalitha Edupuganti
+*
+*/
+final class CleaningSnapshot {
+
+	/** The fewest added events that are folded into the indexes */
+	private static final int MIN_COMPACT_SIZE = 4096;
+
+	/** The data structures the maps are built from */
+	private final ManagerConfig config;
+	/** The listed rooms, each with an int index */
+	private final RoomTable rooms;
+	/** The cleaning events for listed rooms, stored as parallel primitive arrays */
+	private final EventStore events;
+	/** The index of each room's cleaning events from most recent to least recent */
+	private final RoomIndex roomIndex;
+	/** The time ordered index used to find the square feet cleaned since a time */
+	private final CoverageIndex coverage;
+	/** The number of times each room was cleaned before the added events, parallel to the room table */
+	private final int[] counts;
+	/** The cleaning events added since the room and coverage indexes were built */
+	private final AddedEvents added;
+	/** The number of cleaning events loaded, including ones for rooms that are not listed */
+	private final long eventCount;
+	/** The time in epoch seconds after which the coverage index holds every cleaning event */
+	private final long coverageExactAfter;
+
+	/** A generic map that holds each room's cleaning events, built the first time it is asked for */
+	private volatile Map<String, List<CleaningLogEntry>> eventsByRoom = null;
+	/** A generic map that holds the number of times each room was cleaned, built the first time it is asked for */
+	private volatile Map<String, Integer> countsByRoom = null;
+
+	/**
+	 * The constructor that takes in the loaded rooms, events and indexes. None of them
+	 * may be changed after they are handed to the snapshot
+	 *
+	 * @param config the data structures the maps are built from
+	 * @param rooms the listed rooms
+	 * @param events the cleaning events for listed rooms
+	 * @param roomIndex the index of each room's events from most recent to least recent
+	 * @param coverage the time ordered coverage index
+	 * @param counts the number of times each room was cleaned
+	 * @param eventCount the number of cleaning events loaded
+	 * @param coverageExactAfter the time after which the coverage index holds every event
+	*/
+	CleaningSnapshot(ManagerConfig config, RoomTable rooms, EventStore events, RoomIndex roomIndex,
+			CoverageIndex coverage, int[] counts, long eventCount, long coverageExactAfter) {
+		this(config, rooms, events, roomIndex, coverage, counts, new AddedEvents(rooms.size()), eventCount, coverageExactAfter);
+	}
+
+	/**
+	 * Private constructor that takes in the loaded rooms, events and indexes, and the
+	 * events added since the indexes were built
+	 *
+	 * @param config the data structures the maps are built from
+	 * @param rooms the listed rooms
+	 * @param events the cleaning events for listed rooms
+	 * @param roomIndex the index of each room's events from most recent to least recent
+	 * @param coverage the time ordered coverage index
+	 * @param counts the number of times each room was cleaned before the added events
+	 * @param added the events added since the indexes were built
+	 * @param eventCount the number of cleaning events loaded and added
+	 * @param coverageExactAfter the time after which the coverage index holds every event
+	*/
+	private CleaningSnapshot(ManagerConfig config, RoomTable rooms, EventStore events, RoomIndex roomIndex,
+			CoverageIndex coverage, int[] counts, AddedEvents added, long eventCount, long coverageExactAfter) {
+		this.config = config;
+		this.rooms = rooms;
+		this.events = events;
+		this.roomIndex = roomIndex;
+		this.coverage = coverage;
+		this.counts = counts;
+		this.added = added;
+		this.eventCount = eventCount;
+		this.coverageExactAfter = coverageExactAfter;
+	}
+
+	/**
+	 * Builds a new snapshot that holds this snapshot's events and one new event
+	 * This snapshot is not changed, so threads still querying it are not affected
+	 *
+	 * @param newEvent the cleaning event to add
+	 * @return CleaningSnapshot the new snapshot
+	*/
+	CleaningSnapshot withEvent(CleaningLogEntry newEvent) {
+		return withAdded(addTo(added, newEvent), eventCount + 1);
+	}
+
+	/**
+	 * Builds a new snapshot that holds this snapshot's events and the given new ones
+	 * This snapshot is not changed, so threads still querying it are not affected
+	 *
+	 * @param newEvents the cleaning events to add
+	 * @return CleaningSnapshot the new snapshot
+	*/
+	CleaningSnapshot withEvents(List<CleaningLogEntry> newEvents) {
+		AddedEvents moreEvents = added;
+		for (CleaningLogEntry newEvent : newEvents) {
+			moreEvents = addTo(moreEvents, newEvent);
+		}
+		return withAdded(moreEvents, eventCount + newEvents.size());
+	}
+
+	/**
+	 * Returns a snapshot with the same events where the added events are folded into the
+	 * event store and indexes, such as for saving the snapshot
+	 * @return CleaningSnapshot this snapshot if no events were added, or the compacted snapshot
+	*/
+	CleaningSnapshot compacted() {
+		if (added.size() == 0) {
+			return this;
+		}
+		return compact();
+	}
+
+	/**
+	 * Returns the listed rooms
+	 * @return rooms the room table
+	*/
+	RoomTable getRooms() {
+		return rooms;
+	}
+
+	/**
+	 * Returns the indexed cleaning events
+	 * @return events the event store
+	*/
+	EventStore getEvents() {
+		return events;
+	}
+
+	/**
+	 * Returns the index of each room's indexed events
+	 * @return roomIndex the room index
+	*/
+	RoomIndex getRoomIndex() {
+		return roomIndex;
+	}
+
+	/**
+	 * Returns the coverage index of the indexed events
+	 * @return coverage the coverage index
+	*/
+	CoverageIndex getCoverage() {
+		return coverage;
+	}
+
+	/**
+	 * Returns the time after which the coverage index holds every cleaning event
+	 * @return coverageExactAfter the time in epoch seconds
+	*/
+	long getCoverageExactAfter() {
+		return coverageExactAfter;
+	}
+
+	/**
+	 * Returns whether there are no rooms or no cleaning events to report on
+	 * @return boolean true if there is nothing to report on
+	*/
+	boolean isEmpty() {
+		return rooms.size() == 0 || eventCount == 0;
+	}
+
+	/**
+	 * Returns the number of listed rooms. Rooms are indexed from 0 in alphabetical order of room ID
+	 * @return int the number of rooms
+	*/
+	int getRoomCount() {
+		return rooms.size();
+	}
+
+	/**
+	 * Returns the ID of a listed room
+	 * @param room the index of the room
+	 * @return String the room ID
+	*/
+	String getRoomId(int room) {
+		return rooms.getId(room);
+	}
+
+	/**
+	 * Returns the number of times a room was cleaned
+	 * @param room the index of the room
+	 * @return int the number of cleaning events for the room
+	*/
+	int getCount(int room) {
+		return counts[room] + added.size(room);
+	}
+
+	/**
+	 * Returns the number of cleaning events kept for a room, which is every event
+	 * unless the log was streamed
+	 * @param room the index of the room
+	 * @return int the number of kept events
+	*/
+	int getIndexedEventCount(int room) {
+		return roomIndex.size(room) + added.size(room);
+	}
+
+	/**
+	 * Returns a cursor that steps through a room's kept cleaning events from most recent to least recent
+	 * @param room the index of the room
+	 * @return RoomEventCursor the cursor, which starts before the most recent event
+	*/
+	RoomEventCursor getRoomEvents(int room) {
+		return new RoomEventCursor(events, roomIndex, room, added.walk(room));
+	}
+
+	/**
+	 * Returns the number of cleaning events loaded, including ones for rooms that are not listed
+	 * @return long the number of events
+	*/
+	long getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * Returns the square feet cleaned since a time
+	 * @param time the time from which coverage should be calculated
+	 * @return int the total square feet cleaned from the time
+	*/
+	int getCoverageSince(LocalDateTime time) {
+		long since = sinceSecond(time);
+		return (int) ((coverage.cleanedSince(since) + added.cleanedSince(since)) / 100);
+	}
+
+	/**
+	 * Returns the square feet cleaned since each of several times, answering them together in
+	 * one backward sweep over the coverage index
+	 *
+	 * @param mostRecentFirst the times from which coverage should be calculated, from most recent to least recent
+	 * @return int[] the total square feet cleaned from each time, in the same order
+	 * @throws IllegalArgumentException if the times are not in order from most recent to least recent
+	*/
+	int[] getCoverageSince(LocalDateTime[] mostRecentFirst) {
+		long[] since = new long[mostRecentFirst.length];
+		for (int i = 0; i < since.length; i++) {
+			since[i] = sinceSecond(mostRecentFirst[i]);
+			if (i > 0 && since[i] > since[i - 1]) {
+				throw new IllegalArgumentException("Times must be in order from most recent to least recent");
+			}
+		}
+
+		long[] cleaned = new long[since.length];
+		coverage.addCleanedSince(since, cleaned);
+		added.addCleanedSince(since, cleaned);
+
+		int[] squareFeet = new int[cleaned.length];
+		for (int i = 0; i < cleaned.length; i++) {
+			squareFeet[i] = (int) (cleaned[i] / 100);
+		}
+		return squareFeet;
+	}
+
+	/**
+	 * Returns the time of the most recent cleaning event with coverage
+	 * @return LocalDateTime the time of the event, or null if there are no events
+	*/
+	LocalDateTime getLatestTime() {
+		long latest = Math.max(coverage.getLatestTime(), added.getLatestTime());
+		return latest == Long.MIN_VALUE ? null : CleaningManager.toLocalDateTime(latest);
+	}
+
+	/**
+	 * Returns the number of times each room was cleaned in a window of time. Each room's
+	 * indexed events are in time order, so the events in the window are found with two binary
+	 * searches per room, and its added events with two searches of its tree of added events
+	 *
+	 * @param from the start of the window, which is included
+	 * @param to the end of the window, which is not included
+	 * @return int[] the number of kept cleaning events in the window for each room
+	*/
+	int[] getCountsBetween(LocalDateTime from, LocalDateTime to) {
+		long fromSecond = sinceSecond(from);
+		long toSecond = sinceSecond(to);
+		int[] windowCounts = new int[rooms.size()];
+		for (int room = 0; room < rooms.size(); room++) {
+			int count = countAtOrAfter(room, fromSecond) - countAtOrAfter(room, toSecond)
+					+ added.countSince(room, fromSecond) - added.countSince(room, toSecond);
+			windowCounts[room] = Math.max(count, 0);
+		}
+		return windowCounts;
+	}
+
+	/**
+	 * Returns the square feet cleaned in a window of time, from the difference of two
+	 * running totals of the coverage index
+	 *
+	 * @param from the start of the window, which is included
+	 * @param to the end of the window, which is not included
+	 * @return int the total square feet cleaned in the window
+	*/
+	int getCoverageBetween(LocalDateTime from, LocalDateTime to) {
+		long fromSecond = sinceSecond(from);
+		long toSecond = sinceSecond(to);
+		if (toSecond <= fromSecond) {
+			return 0;
+		}
+		long cleaned = coverage.cleanedSince(fromSecond) - coverage.cleanedSince(toSecond)
+				+ added.cleanedSince(fromSecond) - added.cleanedSince(toSecond);
+		return (int) (cleaned / 100);
+	}
+
+	/**
+	 * Returns whether getCoverageSince counts every cleaning event since the given time
+	 * @param time the time from which coverage would be calculated
+	 * @return boolean true if coverage since the time is exact
+	*/
+	boolean isCoverageExact(LocalDateTime time) {
+		return sinceSecond(time) > coverageExactAfter;
+	}
+
+	/**
+	 * Returns a map of each room's cleaning events from most recent to least recent,
+	 * building it the first time it is asked for
+	 * @return eventsByRoom the map of room names and their cleaning events, or null if there
+	 * are no rooms or cleaning events
+	*/
+	Map<String, List<CleaningLogEntry>> getEventsByRoom() {
+		if (isEmpty()) {
+			return null;
+		}
+
+		Map<String, List<CleaningLogEntry>> built = eventsByRoom;
+		if (built == null) {
+			synchronized (this) {
+				built = eventsByRoom;
+				if (built == null) {
+					Metrics.Probe probe = Metrics.start(Stage.BUILD_MAPS);
+					built = config.getMap(null);
+					for (int room = 0; room < rooms.size(); room++) {
+						List<CleaningLogEntry> eventList = config.getIndexedList();
+						RoomEventCursor cursor = getRoomEvents(room);
+						while (cursor.next()) {
+							eventList.addLast(new CleaningLogEntry(CleaningManager.toLocalDateTime(cursor.getTime()), rooms.getId(room), cursor.getPercent()));
+						}
+						built.put(rooms.getId(room), eventList);
+					}
+					Metrics.stop(probe, rooms.size());
+					eventsByRoom = built;
+				}
+			}
+		}
+		return built;
+	}
+
+	/**
+	 * Returns a map of the number of times each room was cleaned, building it the first
+	 * time it is asked for
+	 * @return countsByRoom the map of room names and the number of times they were cleaned,
+	 * or null if there are no rooms or cleaning events
+	*/
+	Map<String, Integer> getCountsByRoom() {
+		if (isEmpty()) {
+			return null;
+		}
+
+		Map<String, Integer> built = countsByRoom;
+		if (built == null) {
+			synchronized (this) {
+				built = countsByRoom;
+				if (built == null) {
+					Metrics.Probe probe = Metrics.start(Stage.BUILD_MAPS);
+					built = config.getMap(null);
+					for (int room = 0; room < rooms.size(); room++) {
+						built.put(rooms.getId(room), getCount(room));
+					}
+					Metrics.stop(probe, rooms.size());
+					countsByRoom = built;
+				}
+			}
+		}
+		return built;
+	}
+
+	/**
+	 * Private helper method that binary searches a room's indexed events, which are from most
+	 * recent to least recent, for how many of them are at or after a time
+	 *
+	 * @param room the index of the room
+	 * @param time the time in epoch seconds
+	 * @return int the number of the room's indexed events at or after the time
+	*/
+	private int countAtOrAfter(int room, long time) {
+		int low = 0;
+		int high = roomIndex.size(room);
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (events.getTime(roomIndex.get(room, mid)) >= time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Private helper method that adds a cleaning event to a set of added events
+	 * Events for rooms that are not listed are not kept
+	 *
+	 * @param addTo the added events
+	 * @param newEvent the cleaning event to add
+	 * @return AddedEvents the added events with the new event
+	*/
+	private AddedEvents addTo(AddedEvents addTo, CleaningLogEntry newEvent) {
+		int room = rooms.indexOf(newEvent.getRoomID());
+		if (room < 0) {
+			return addTo;
+		}
+		int percent = newEvent.getPercentCompleted();
+		return addTo.add(CleaningManager.toEpochSecond(newEvent.getTimestamp()), room, percent, rooms.getArea(room) * percent);
+	}
+
+	/**
+	 * Private helper method that builds a snapshot of this snapshot's indexes with a new set
+	 * of added events. Once the added events outnumber the indexed ones they are folded into
+	 * new indexes, which takes linear time but happens only after a linear number of additions
+	 *
+	 * @param moreEvents the added events
+	 * @param newEventCount the number of cleaning events loaded and added
+	 * @return CleaningSnapshot the new snapshot
+	*/
+	private CleaningSnapshot withAdded(AddedEvents moreEvents, long newEventCount) {
+		CleaningSnapshot next = new CleaningSnapshot(config, rooms, events, roomIndex, coverage, counts, moreEvents, newEventCount, coverageExactAfter);
+		if (moreEvents.size() >= Math.max(events.size(), MIN_COMPACT_SIZE)) {
+			return next.compact();
+		}
+		return next;
+	}
+
+	/**
+	 * Private helper method that builds a snapshot where the added events are in the event
+	 * store and indexes. Each room's indexed and added events are merged in the same order
+	 * a cursor steps through them, so reports do not change
+	 *
+	 * @return CleaningSnapshot the compacted snapshot
+	*/
+	private CleaningSnapshot compact() {
+		EventStore merged = new EventStore(events.size() + added.size());
+		merged.addAll(events);
+		int[] roomStart = new int[rooms.size() + 1];
+		int[] order = new int[events.size() + added.size()];
+		int[] newCounts = new int[rooms.size()];
+
+		int position = 0;
+		for (int room = 0; room < rooms.size(); room++) {
+			roomStart[room] = position;
+			int k = 0;
+			AddedEvents.Walk walk = added.walk(room);
+			AddedEvents.Node node = walk.peek();
+			while (k < roomIndex.size(room) || node != null) {
+				if (k < roomIndex.size(room) && (node == null || events.getTime(roomIndex.get(room, k)) >= node.time)) {
+					order[position] = roomIndex.get(room, k);
+					k++;
+				} else {
+					order[position] = merged.size();
+					merged.add(node.time, room, node.percent);
+					walk.advance();
+					node = walk.peek();
+				}
+				position++;
+			}
+			newCounts[room] = getCount(room);
+		}
+		roomStart[rooms.size()] = position;
+
+		return new CleaningSnapshot(config, rooms, merged, new RoomIndex(roomStart, order), coverage.merge(added.getCoverage()),
+				newCounts, eventCount, coverageExactAfter);
+	}
+
+	/**
+	 * Private helper method that finds the first whole second at or after a time
+	 * Event times are whole seconds, so any fraction of a second starts from the next second
+	 *
+	 * @param time the time from which coverage would be calculated
+	 * @return long the first second in epoch seconds that is counted
+	*/
+	private static long sinceSecond(LocalDateTime time) {
+		long since = CleaningManager.toEpochSecond(time);
+		if (time.getNano() > 0) {
+			since++;
+		}
+		return since;
+	}
+
+}
@@ -0,0 +1,172 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+/**
+*
+* Class that holds the time of every cleaning event in order from least recent to most
+* recent, with a running total of the square feet cleaned, so the square feet cleaned
+* since any time is one binary search and one subtraction
+* 
+* @author Lalitha Edupuganti
+*
+*/
+class CoverageIndex {
+	
+	/** The time of every cleaning event in epoch seconds, from least recent to most recent */
+	private final long[] times;
+	/** Running totals of square feet cleaned in hundredths of a square foot, where index i
+	 * holds the total for the first i events of times */
+	private final long[] prefix;
+	
+	/**
+	 * The constructor that takes in already built coverage
+	 * @param times the event times in epoch seconds, from least recent to most recent
+	 * @param prefix the running totals, with one more entry than times
+	*/
+	CoverageIndex(long[] times, long[] prefix) {
+		this.times = times;
+		this.prefix = prefix;
+	}
+	
+	/**
+	 * The constructor that builds the coverage of every event in a store
+	 *
+	 * @param store the events
+	 * @param mostRecentFirst the indexes of every event in the store from most recent to least recent
+	 * @param rooms the rooms the events refer to
+	*/
+	CoverageIndex(EventStore store, int[] mostRecentFirst, RoomTable rooms) {
+		int size = mostRecentFirst.length;
+		times = new long[size];
+		prefix = new long[size + 1];
+		
+		// Read the order backwards so the index goes from least recent to most recent
+		for (int i = 0; i < size; i++) {
+			int event = mostRecentFirst[size - 1 - i];
+			times[i] = store.getTime(event);
+			// Square feet times the percent cleaned is exact in hundredths of a square foot
+			prefix[i + 1] = prefix[i] + rooms.getArea(store.getRoom(event)) * store.getPercent(event);
+		}
+	}
+	
+	/**
+	 * Builds a new index that holds the events of this index and another one, merging
+	 * their times in one pass. Neither index is changed
+	 *
+	 * @param other the index to merge with this one
+	 * @return CoverageIndex the merged index
+	*/
+	CoverageIndex merge(CoverageIndex other) {
+		int size = times.length + other.times.length;
+		long[] mergedTimes = new long[size];
+		long[] mergedPrefix = new long[size + 1];
+
+		int left = 0;
+		int right = 0;
+		for (int i = 0; i < size; i++) {
+			long cleaned;
+			if (right >= other.times.length || (left < times.length && times[left] <= other.times[right])) {
+				mergedTimes[i] = times[left];
+				cleaned = prefix[left + 1] - prefix[left];
+				left++;
+			} else {
+				mergedTimes[i] = other.times[right];
+				cleaned = other.prefix[right + 1] - other.prefix[right];
+				right++;
+			}
+			mergedPrefix[i + 1] = mergedPrefix[i] + cleaned;
+		}
+
+		return new CoverageIndex(mergedTimes, mergedPrefix);
+	}
+
+	/**
+	 * Returns the square feet cleaned at or after a time
+	 * @param since the time in epoch seconds
+	 * @return long the square feet cleaned in hundredths of a square foot
+	*/
+	long cleanedSince(long since) {
+		return prefix[times.length] - prefix[firstAtOrAfter(since, 0, times.length)];
+	}
+	
+	/**
+	 * Adds the square feet cleaned at or after each of several times, in one backward sweep
+	 * from the most recent event. Each search gallops back from where the last one stopped,
+	 * so the times cost O(k log(n / k)) together instead of k full binary searches
+	 *
+	 * @param sinceMostRecentFirst the times in epoch seconds, from most recent to least recent
+	 * @param cleaned the totals the square feet cleaned since each time are added to, in
+	 * hundredths of a square foot
+	*/
+	void addCleanedSince(long[] sinceMostRecentFirst, long[] cleaned) {
+		// Every event from bound on is at or after the current time
+		int bound = times.length;
+		for (int q = 0; q < sinceMostRecentFirst.length; q++) {
+			long since = sinceMostRecentFirst[q];
+			int step = 1;
+			int probe = bound - step;
+			while (probe >= 0 && times[probe] >= since) {
+				bound = probe;
+				step <<= 1;
+				probe = bound - step;
+			}
+			bound = firstAtOrAfter(since, Math.max(probe + 1, 0), bound);
+			cleaned[q] += prefix[times.length] - prefix[bound];
+		}
+	}
+
+	/**
+	 * Returns the time of the most recent event in the index
+	 * @return long the time in epoch seconds, or Long.MIN_VALUE if the index is empty
+	*/
+	long getLatestTime() {
+		return times.length == 0 ? Long.MIN_VALUE : times[times.length - 1];
+	}
+
+	/**
+	 * Returns the number of events in the index
+	 * @return int the number of events
+	*/
+	int size() {
+		return times.length;
+	}
+	
+	/**
+	 * Returns the time of an event in the index
+	 * @param i the position of the event, where 0 is the least recent
+	 * @return long the time of the event in epoch seconds
+	*/
+	long getTime(int i) {
+		return times[i];
+	}
+	
+	/**
+	 * Returns the square feet cleaned by the events before a position in the index
+	 * @param i the position, from 0 up to the number of events
+	 * @return long the square feet cleaned in hundredths of a square foot
+	*/
+	long cleanedBefore(int i) {
+		return prefix[i];
+	}
+	
+	/**
+	 * Private helper method that binary searches part of the index for the first event at or after a time
+	 *
+	 * @param since the time in epoch seconds to search for
+	 * @param low the first position searched
+	 * @param high the position just past the last one searched, where every event from it on is at or after the time
+	 * @return int the index of the first event at or after the time, or high if every
+	 * event searched happened before it
+	*/
+	private int firstAtOrAfter(long since, int low, int high) {
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (times[mid] < since) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+}
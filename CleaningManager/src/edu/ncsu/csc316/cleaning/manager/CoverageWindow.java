@@ -0,0 +1,172 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.util.Arrays;
+
+/**
+*
+* Class that keeps a bounded window of the most recent cleaning events while a log is
+* streamed, holding only each event's time and square feet cleaned. The window is a
+* min-heap on time, so when it is full the least recent event is the one dropped,
+* and every dropped event is at or before every event still in the window
+* 
+* The heap starts small and doubles as events arrive, up to the most events the window can
+* hold, so streaming a short log never sets aside room for the whole window
+* 
+* @author Lalitha Edupuganti
+*
+*/
+class CoverageWindow {
+	
+	/** The number of events the heap has room for before it first grows */
+	private static final int INITIAL_CAPACITY = 1024;
+	
+	/** The most events the window can hold */
+	private final int capacity;
+	/** The times of the events in the window in epoch seconds, stored as a min-heap */
+	private long[] times;
+	/** The square feet cleaned by each event in the window in hundredths, parallel to times */
+	private long[] cleaned;
+	/** The number of events in the window */
+	private int size;
+	/** The number of events dropped from the window */
+	private long droppedCount;
+	/** The time of the most recent event dropped from the window in epoch seconds */
+	private long droppedUntil = Long.MIN_VALUE;
+	
+	/**
+	 * The constructor that takes in the most events the window can hold
+	 * @param capacity the most events the window can hold
+	*/
+	CoverageWindow(int capacity) {
+		this.capacity = capacity;
+		times = new long[Math.min(capacity, INITIAL_CAPACITY)];
+		cleaned = new long[times.length];
+	}
+	
+	/**
+	 * Adds an event to the window, dropping the least recent event if the window is full
+	 *
+	 * @param time the time of the event in epoch seconds
+	 * @param cleanedHundredths the square feet cleaned by the event in hundredths
+	*/
+	void add(long time, long cleanedHundredths) {
+		if (size == times.length && size < capacity) {
+			int grown = (int) Math.min((long) size * 2, capacity);
+			times = Arrays.copyOf(times, grown);
+			cleaned = Arrays.copyOf(cleaned, grown);
+		}
+		if (size < times.length) {
+			times[size] = time;
+			cleaned[size] = cleanedHundredths;
+			upHeap(size);
+			size++;
+			return;
+		}
+		
+		droppedCount++;
+		if (size == 0 || time <= times[0]) {
+			droppedUntil = Math.max(droppedUntil, time);
+			return;
+		}
+		
+		droppedUntil = Math.max(droppedUntil, times[0]);
+		times[0] = time;
+		cleaned[0] = cleanedHundredths;
+		downHeap(0);
+	}
+	
+	/**
+	 * Returns the number of events held in the window
+	 * @return size the number of events in the window
+	*/
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the number of events that were dropped from the window
+	 * @return droppedCount the number of dropped events
+	*/
+	long getDroppedCount() {
+		return droppedCount;
+	}
+	
+	/**
+	 * Returns the time of the most recent event dropped from the window, where coverage
+	 * since any later time is exact
+	 * @return droppedUntil the time in epoch seconds, or Long.MIN_VALUE if nothing was dropped
+	*/
+	long getDroppedUntil() {
+		return droppedUntil;
+	}
+	
+	/**
+	 * Empties the window into time ordered arrays, from least recent to most recent,
+	 * with a running total of the square feet cleaned
+	 *
+	 * @param sortedTimes the array of at least size() entries to fill with event times
+	 * @param prefix the array of at least size() + 1 entries to fill with running totals,
+	 * where index i holds the total for the first i events
+	*/
+	void drainInto(long[] sortedTimes, long[] prefix) {
+		prefix[0] = 0;
+		int i = 0;
+		while (size > 0) {
+			sortedTimes[i] = times[0];
+			prefix[i + 1] = prefix[i] + cleaned[0];
+			i++;
+			size--;
+			times[0] = times[size];
+			cleaned[0] = cleaned[size];
+			downHeap(0);
+		}
+	}
+	
+	/**
+	 * Private helper method that moves an event up the heap until its parent is not later
+	 * @param index the index of the event to move
+	*/
+	private void upHeap(int index) {
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (times[parent] <= times[index]) {
+				return;
+			}
+			swap(index, parent);
+			index = parent;
+		}
+	}
+	
+	/**
+	 * Private helper method that moves an event down the heap until neither child is earlier
+	 * @param index the index of the event to move
+	*/
+	private void downHeap(int index) {
+		while (2 * index + 1 < size) {
+			int child = 2 * index + 1;
+			if (child + 1 < size && times[child + 1] < times[child]) {
+				child++;
+			}
+			if (times[index] <= times[child]) {
+				return;
+			}
+			swap(index, child);
+			index = child;
+		}
+	}
+	
+	/**
+	 * Private helper method that swaps two events in the heap
+	 * @param first the index of the first event
+	 * @param second the index of the second event
+	*/
+	private void swap(int first, int second) {
+		long time = times[first];
+		times[first] = times[second];
+		times[second] = time;
+		long amount = cleaned[first];
+		cleaned[first] = cleaned[second];
+		cleaned[second] = amount;
+	}
+
+}
@@ -0,0 +1,377 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
+
+/**
+*
+* Class that orders the events of an EventStore by time without building any objects.
+* The events are sorted as int indexes into the store, from most recent to least recent,
+* and events at the same time keep the order they were added to the store in
+* 
+* Cleaning logs are usually written in time order with a few short bursts out of order, so
+* the store is first checked for runs of events that are already in order either way. When
+* the runs are long the store is sorted by merging them, TimSort style, which is close to
+* linear on a nearly ordered log. Otherwise large stores are sorted with a least significant
+* digit radix sort on the epoch-second times, which takes a few linear passes instead of
+* n log n comparisons
+* 
+* @author Lalitha Edupuganti
+*
+*/
+final class EventSorter {
+	
+	/** The number of bits of the time sorted on in each radix pass */
+	private static final int RADIX_BITS = 11;
+	/** The number of buckets in each radix pass */
+	private static final int RADIX = 1 << RADIX_BITS;
+	/** The fewest events worth radix sorting */
+	private static final int MIN_RADIX_SIZE = 256;
+	/** The shortest average run length for which merging the runs beats radix sorting */
+	private static final int MIN_AVERAGE_RUN = 64;
+	/** The shortest run merged, where shorter runs are extended with an insertion sort */
+	private static final int MIN_RUN = 32;
+	
+	/**
+	 * Private constructor since the class only has static methods
+	*/
+	private EventSorter() {
+		
+	}
+	
+	/**
+	 * Returns the indexes of every event in the store from most recent to least recent
+	 *
+	 * @param store the events to sort
+	 * @return int[] the sorted event indexes
+	*/
+	static int[] mostRecentFirst(EventStore store) {
+		Metrics.Probe probe = Metrics.start(Stage.SORT_EVENTS);
+		int[] order = new int[store.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		if (order.length < MIN_RADIX_SIZE || countRuns(store, order.length / MIN_AVERAGE_RUN) <= order.length / MIN_AVERAGE_RUN) {
+			runSort(store, order);
+		} else {
+			radixSort(store, order);
+		}
+		Metrics.stop(probe, order.length);
+		return order;
+	}
+	
+	/**
+	 * Merges two ranges of event indexes that are each sorted from most recent to least recent
+	 * into one sorted array. On equal times the event from the first range comes first
+	 *
+	 * @param store the events the indexes refer to
+	 * @param first the first sorted range
+	 * @param second the second sorted range
+	 * @return int[] the merged indexes
+	*/
+	static int[] merge(EventStore store, int[] first, int[] second) {
+		int[] merged = new int[first.length + second.length];
+		int left = 0;
+		int right = 0;
+		for (int i = 0; i < merged.length; i++) {
+			if (right >= second.length || (left < first.length && store.getTime(first[left]) >= store.getTime(second[right]))) {
+				merged[i] = first[left];
+				left++;
+			} else {
+				merged[i] = second[right];
+				right++;
+			}
+		}
+		return merged;
+	}
+	
+	/**
+	 * Private helper method that radix sorts event indexes from most recent to least recent.
+	 * Each event is keyed by how long before the most recent event it happened, so sorting the
+	 * keys up sorts the times down, and each pass is stable so events at the same time keep their order.
+	 * Only as many passes are made as there are digits in the span of the times
+	 *
+	 * @param store the events the indexes refer to
+	 * @param order the event indexes to sort, in the order they were added to the store
+	*/
+	private static void radixSort(EventStore store, int[] order) {
+		long latest = Long.MIN_VALUE;
+		long earliest = Long.MAX_VALUE;
+		for (int i = 0; i < store.size(); i++) {
+			latest = Math.max(latest, store.getTime(i));
+			earliest = Math.min(earliest, store.getTime(i));
+		}
+		
+		// The span is compared unsigned so it is right even for times far apart
+		long span = latest - earliest;
+		int[] source = order;
+		int[] target = new int[order.length];
+		int[] counts = new int[RADIX + 1];
+		
+		for (int shift = 0; shift < Long.SIZE && (span >>> shift) != 0; shift += RADIX_BITS) {
+			Arrays.fill(counts, 0);
+			for (int event : source) {
+				counts[digit(latest - store.getTime(event), shift) + 1]++;
+			}
+			for (int d = 1; d <= RADIX; d++) {
+				counts[d] += counts[d - 1];
+			}
+			for (int event : source) {
+				int d = digit(latest - store.getTime(event), shift);
+				target[counts[d]] = event;
+				counts[d]++;
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		
+		if (source != order) {
+			System.arraycopy(source, 0, order, 0, order.length);
+		}
+	}
+	
+	/**
+	 * Private helper method that returns one radix digit of a key
+	 * @param key the key
+	 * @param shift the position of the digit's lowest bit
+	 * @return int the digit
+	*/
+	private static int digit(long key, int shift) {
+		return (int) (key >>> shift) & (RADIX - 1);
+	}
+	
+	/**
+	 * Private helper method that counts the runs of events already in order either way, in
+	 * the order they were added to the store, stopping once there are more than a limit
+	 *
+	 * @param store the events to check
+	 * @param limit the most runs worth counting
+	 * @return int the number of runs, or limit + 1 if there are more than limit
+	*/
+	private static int countRuns(EventStore store, int limit) {
+		int runs = 0;
+		int from = 0;
+		while (from < store.size() && runs <= limit) {
+			int to = from + 1;
+			if (to < store.size() && store.getTime(to) > store.getTime(from)) {
+				while (to < store.size() && store.getTime(to) >= store.getTime(to - 1)) {
+					to++;
+				}
+			} else {
+				while (to < store.size() && store.getTime(to) <= store.getTime(to - 1)) {
+					to++;
+				}
+			}
+			runs++;
+			from = to;
+		}
+		return runs;
+	}
+
+	/**
+	 * Private helper method that sorts event indexes from most recent to least recent by finding
+	 * the runs already in order and merging them. Runs are kept on a stack whose lengths shrink
+	 * at least as fast as the Fibonacci numbers, so every index is merged O(log runs) times
+	 *
+	 * @param store the events the indexes refer to
+	 * @param order the event indexes to sort, in the order they were added to the store
+	*/
+	private static void runSort(EventStore store, int[] order) {
+		int size = order.length;
+		int[] buffer = new int[size];
+		int[] runStart = new int[Integer.SIZE * 2];
+		int[] runLength = new int[Integer.SIZE * 2];
+		int runs = 0;
+
+		int from = 0;
+		while (from < size) {
+			int length = makeRun(store, order, from, size);
+			if (length < MIN_RUN) {
+				int extended = Math.min(MIN_RUN, size - from);
+				insertionSort(store, order, from, from + length, from + extended);
+				length = extended;
+			}
+			runStart[runs] = from;
+			runLength[runs] = length;
+			runs++;
+			from += length;
+
+			// Merge until each run is longer than the next two together, as TimSort does
+			while (runs > 1) {
+				int n = runs - 2;
+				if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+						|| n > 1 && runLength[n - 2] <= runLength[n - 1] + runLength[n]) {
+					if (runLength[n - 1] < runLength[n + 1]) {
+						n--;
+					}
+				} else if (runLength[n] > runLength[n + 1]) {
+					break;
+				}
+				merge(store, order, runStart[n], runStart[n + 1], runStart[n + 1] + runLength[n + 1], buffer);
+				runLength[n] += runLength[n + 1];
+				for (int r = n + 1; r < runs - 1; r++) {
+					runStart[r] = runStart[r + 1];
+					runLength[r] = runLength[r + 1];
+				}
+				runs--;
+			}
+		}
+
+		while (runs > 1) {
+			int n = runs - 2;
+			merge(store, order, runStart[n], runStart[n + 1], runStart[n + 1] + runLength[n + 1], buffer);
+			runLength[n] += runLength[n + 1];
+			runs--;
+		}
+	}
+
+	/**
+	 * Private helper method that finds the run starting at an index and puts it from most recent
+	 * to least recent. A run going from least recent to most recent is reversed, and events at
+	 * the same time within it are put back in the order they were added
+	 *
+	 * @param store the events the indexes refer to
+	 * @param order the event indexes
+	 * @param from the first index of the run
+	 * @param size the number of indexes
+	 * @return int the length of the run
+	*/
+	private static int makeRun(EventStore store, int[] order, int from, int size) {
+		int to = from + 1;
+		if (to < size && store.getTime(order[to]) > store.getTime(order[from])) {
+			while (to < size && store.getTime(order[to]) >= store.getTime(order[to - 1])) {
+				to++;
+			}
+			reverse(order, from, to);
+			for (int same = from; same < to;) {
+				int end = same + 1;
+				while (end < to && store.getTime(order[end]) == store.getTime(order[same])) {
+					end++;
+				}
+				reverse(order, same, end);
+				same = end;
+			}
+		} else {
+			while (to < size && store.getTime(order[to]) <= store.getTime(order[to - 1])) {
+				to++;
+			}
+		}
+		return to - from;
+	}
+
+	/**
+	 * Private helper method that reverses a range of event indexes
+	 * @param order the event indexes
+	 * @param from the first index of the range
+	 * @param to the index just past the end of the range
+	*/
+	private static void reverse(int[] order, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+	}
+
+	/**
+	 * Private helper method that extends a sorted range of event indexes with a binary insertion
+	 * sort. Each event goes after every event at the same time already placed
+	 *
+	 * @param store the events the indexes refer to
+	 * @param order the event indexes
+	 * @param from the first index of the range
+	 * @param sorted the index just past the part of the range already sorted
+	 * @param to the index just past the end of the range
+	*/
+	private static void insertionSort(EventStore store, int[] order, int from, int sorted, int to) {
+		for (int i = sorted; i < to; i++) {
+			int event = order[i];
+			int position = firstOlder(store, order, from, i, store.getTime(event));
+			System.arraycopy(order, position, order, position + 1, i - position);
+			order[position] = event;
+		}
+	}
+
+	/**
+	 * Private helper method that merges two neighbouring runs of event indexes that are each
+	 * sorted from most recent to least recent. Events of the first run already before every event
+	 * of the second, and events of the second already after every event of the first, are found
+	 * with binary searches and not moved, so a short run out of place costs little to merge
+	 *
+	 * @param store the events the indexes refer to
+	 * @param order the event indexes
+	 * @param from the first index of the first run
+	 * @param mid the first index of the second run
+	 * @param to the index just past the end of the second run
+	 * @param buffer scratch space as long as order
+	*/
+	private static void merge(EventStore store, int[] order, int from, int mid, int to, int[] buffer) {
+		// On equal times the event from the first run comes first
+		from = firstOlder(store, order, from, mid, store.getTime(order[mid]));
+		to = firstNotNewer(store, order, mid, to, store.getTime(order[mid - 1]));
+		if (from == mid || mid == to) {
+			return;
+		}
+
+		System.arraycopy(order, from, buffer, from, to - from);
+		int left = from;
+		int right = mid;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < mid && store.getTime(buffer[left]) >= store.getTime(buffer[right]))) {
+				order[i] = buffer[left];
+				left++;
+			} else {
+				order[i] = buffer[right];
+				right++;
+			}
+		}
+	}
+
+	/**
+	 * Private helper method that binary searches a sorted range for the first event older than a time
+	 *
+	 * @param store the events the indexes refer to
+	 * @param order the event indexes
+	 * @param low the first index searched
+	 * @param high the index just past the last one searched
+	 * @param time the time in epoch seconds
+	 * @return int the index of the first event before the time, or high if there is none
+	*/
+	private static int firstOlder(EventStore store, int[] order, int low, int high, long time) {
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (store.getTime(order[mid]) >= time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Private helper method that binary searches a sorted range for the first event at or before a time
+	 *
+	 * @param store the events the indexes refer to
+	 * @param order the event indexes
+	 * @param low the first index searched
+	 * @param high the index just past the last one searched
+	 * @param time the time in epoch seconds
+	 * @return int the index of the first event at or before the time, or high if there is none
+	*/
+	private static int firstNotNewer(EventStore store, int[] order, int low, int high, long time) {
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (store.getTime(order[mid]) > time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+}
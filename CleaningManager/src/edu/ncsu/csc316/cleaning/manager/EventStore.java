@@ -0,0 +1,138 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+/**
+*
+* Class that stores cleaning events as three parallel primitive arrays instead of as
+* CleaningLogEntry objects. Each event is its time in epoch seconds, the index of its room
+* in a RoomTable, and the percent of the room that was cleaned, which is 13 bytes an event
+* 
+* @author Lalitha Edupuganti
+*
+*/
+class EventStore {
+	
+	/** The capacity used when none is given */
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	/** The time of each event in epoch seconds */
+	private long[] times;
+	/** The room index of each event, parallel to times */
+	private int[] rooms;
+	/** The percent cleaned by each event as an unsigned byte, parallel to times */
+	private byte[] percents;
+	/** The number of events in the store */
+	private int size;
+	
+	/**
+	 * The constructor that takes in the number of events the store should make room for
+	 * @param capacity the number of events to make room for
+	*/
+	EventStore(int capacity) {
+		capacity = Math.max(capacity, DEFAULT_CAPACITY);
+		times = new long[capacity];
+		rooms = new int[capacity];
+		percents = new byte[capacity];
+	}
+	
+	/**
+	 * The constructor that takes in the events as full parallel arrays, such as the events
+	 * of a saved snapshot. The arrays are used as they are rather than copied
+	 *
+	 * @param times the time of each event in epoch seconds
+	 * @param rooms the room index of each event
+	 * @param percents the percent cleaned by each event as an unsigned byte
+	*/
+	EventStore(long[] times, int[] rooms, byte[] percents) {
+		this.times = times;
+		this.rooms = rooms;
+		this.percents = percents;
+		this.size = times.length;
+	}
+	
+	/**
+	 * Adds an event to the end of the store
+	 *
+	 * @param time the time of the event in epoch seconds
+	 * @param room the index of the event's room
+	 * @param percent the percent of the room that was cleaned
+	 * @throws IllegalArgumentException if the percent is not between 0 and 255
+	*/
+	void add(long time, int room, int percent) {
+		if (percent < 0 || percent > 255) {
+			throw new IllegalArgumentException("Percent cleaned must be between 0 and 255: " + percent);
+		}
+		if (size == times.length) {
+			grow();
+		}
+		times[size] = time;
+		rooms[size] = room;
+		percents[size] = (byte) percent;
+		size++;
+	}
+	
+	/**
+	 * Adds every event in another store to the end of this store
+	 * @param other the store to add
+	*/
+	void addAll(EventStore other) {
+		while (times.length < size + other.size) {
+			grow();
+		}
+		System.arraycopy(other.times, 0, times, size, other.size);
+		System.arraycopy(other.rooms, 0, rooms, size, other.size);
+		System.arraycopy(other.percents, 0, percents, size, other.size);
+		size += other.size;
+	}
+	
+	/**
+	 * Returns the number of events in the store
+	 * @return size the number of events
+	*/
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the time of an event
+	 * @param event the index of the event
+	 * @return long the time of the event in epoch seconds
+	*/
+	long getTime(int event) {
+		return times[event];
+	}
+	
+	/**
+	 * Returns the room index of an event
+	 * @param event the index of the event
+	 * @return int the index of the event's room
+	*/
+	int getRoom(int event) {
+		return rooms[event];
+	}
+	
+	/**
+	 * Returns the percent of the room cleaned by an event
+	 * @param event the index of the event
+	 * @return int the percent cleaned
+	*/
+	int getPercent(int event) {
+		return percents[event] & 0xFF;
+	}
+	
+	/**
+	 * Private helper method that doubles the capacity of the store
+	*/
+	private void grow() {
+		int capacity = (int) Math.min((long) times.length * 2, Integer.MAX_VALUE - 8);
+		long[] newTimes = new long[capacity];
+		int[] newRooms = new int[capacity];
+		byte[] newPercents = new byte[capacity];
+		System.arraycopy(times, 0, newTimes, 0, size);
+		System.arraycopy(rooms, 0, newRooms, 0, size);
+		System.arraycopy(percents, 0, newPercents, 0, size);
+		times = newTimes;
+		rooms = newRooms;
+		percents = newPercents;
+	}
+
+}
@@ -0,0 +1,27 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+/**
+*
+* The ways a CleaningManager can load its cleaning log file
+* 
+* @author Lalitha Edupuganti
+*
+*/
+public enum LoadMode {
+	
+	/** Every cleaning event is read into memory with InputReader, so every report is exact */
+	STANDARD,
+	
+	/** Every cleaning event is read into memory like STANDARD, but both files are memory-mapped
+	 * and parsed straight from their bytes with MappedInputReader */
+	MAPPED,
+	
+	/** Every cleaning event is read into memory like STANDARD, but the log file is split into chunks
+	 * at line breaks that are parsed into their own columnar event stores and sorted by time in
+	 * parallel on the common fork-join pool, and the chunks' sorted orders are then merged */
+	PARALLEL,
+	
+	/** Cleaning events are read one line at a time and folded into per-room totals,
+	 * keeping only a bounded number of recent events so logs larger than memory can be loaded */
+	STREAMING
+}
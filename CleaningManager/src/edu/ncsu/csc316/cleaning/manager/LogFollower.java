@@ -0,0 +1,172 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+import edu.ncsu.csc316.cleaning.io.LogTail;
+import edu.ncsu.csc316.dsa.list.List;
+
+/**
+*
+* Class that watches a manager's cleaning log file and adds the lines appended to it to the
+* manager as they arrive. A daemon thread waits on a WatchService for the file's directory,
+* and when the file changes only the bytes after the last whole line read are read, so each
+* batch of new lines costs one small read and one addEvents call
+*
+* Some file systems only report changes every few seconds, so the file is also checked once
+* every POLL_SECONDS even when no change is reported. The check is one size lookup when
+* nothing was appended
+*
+* A file that is truncated or replaced, for example when the log is rotated, stops the
+* follower with an IllegalStateException as its failure instead of adding the new file's lines
+* on top of the old ones. The manager has to be loaded again from the file
+*
+* @author Lalitha Edupuganti
+*
+*/
+public final class LogFollower implements Closeable {
+
+	/** The most seconds between checks of the file when no change is reported */
+	public static final int POLL_SECONDS = 1;
+
+	/** The manager the appended cleaning events are added to */
+	private final CleaningManager manager;
+	/** The cleaning log file */
+	private final Path file;
+	/** The reader that remembers how much of the file has been read */
+	private final LogTail tail;
+	/** The service that reports changes in the file's directory */
+	private final WatchService watcher;
+	/** The thread that waits for changes */
+	private final Thread thread;
+	/** The error that stopped the follower, or null if it has not failed */
+	private volatile Exception failure = null;
+
+	/**
+	 * The constructor that starts following a cleaning log file from a byte offset
+	 *
+	 * @param manager the manager the appended cleaning events are added to
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param offset the byte offset just past the last whole line already added to the manager
+	 * @param loadedLength the number of bytes of the unfinished line at the offset already added to the manager
+	 * @throws IOException if the file cannot be read or its directory cannot be watched
+	*/
+	LogFollower(CleaningManager manager, String pathToLogFile, long offset, long loadedLength) throws IOException {
+		this.manager = manager;
+		this.file = Paths.get(pathToLogFile).toAbsolutePath();
+		this.tail = new LogTail(pathToLogFile, offset, loadedLength);
+		this.watcher = FileSystems.getDefault().newWatchService();
+		file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+		thread = new Thread(this::run, "LogFollower " + file.getFileName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Reads the lines appended to the cleaning log file since the last read and adds them to
+	 * the manager right away, without waiting for the file's change to be reported
+	 *
+	 * @return int the number of cleaning events added
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if an appended line is not a cleaning event
+	 * @throws IllegalStateException if the file was truncated or replaced since it was read
+	*/
+	public synchronized int poll() throws IOException {
+		List<CleaningLogEntry> newEvents = manager.getConfig().getIndexedList();
+		try {
+			tail.readAppended(newEvents::addLast);
+		} finally {
+			// Events read before a bad line are still added, and the bad line is read again next time
+			if (!newEvents.isEmpty()) {
+				manager.addEvents(newEvents);
+			}
+		}
+		return newEvents.size();
+	}
+
+	/**
+	 * Returns the byte offset just past the last whole line added to the manager
+	 * @return long the offset the next read starts from
+	*/
+	public synchronized long getOffset() {
+		return tail.getOffset();
+	}
+
+	/**
+	 * Returns the number of bytes of the unfinished line at the offset already added to the manager
+	 * @return long the loaded length of the line the next read starts at
+	*/
+	synchronized long getLoadedLength() {
+		return tail.getLoadedLength();
+	}
+
+	/**
+	 * Returns whether the follower is still watching the file
+	 * @return boolean true if the follower has not been closed or failed
+	*/
+	public boolean isRunning() {
+		return thread.isAlive();
+	}
+
+	/**
+	 * Returns the error that stopped the follower thread
+	 * @return failure the error, or null if the follower has not failed
+	*/
+	public Exception getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Stops watching the file. Events already added stay in the manager
+	 * @throws IOException if the watch service cannot be closed
+	*/
+	@Override
+	public void close() throws IOException {
+		watcher.close();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Private helper method that waits for changes to the file and reads its appended lines
+	 * until the follower is closed or a read fails
+	*/
+	private void run() {
+		try {
+			while (true) {
+				WatchKey key = watcher.poll(POLL_SECONDS, TimeUnit.SECONDS);
+				if (key != null) {
+					// Any change in the directory is only a hint, since the file is checked either way
+					key.pollEvents();
+					key.reset();
+				}
+				poll();
+			}
+		} catch (ClosedWatchServiceException e) {
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException | RuntimeException e) {
+			failure = e;
+			try {
+				watcher.close();
+			} catch (IOException closeFailure) {
+				e.addSuppressed(closeFailure);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,413 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc316.cleaning.io.MappedInputReader;
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
+import edu.ncsu.csc316.dsa.priority_queue.HeapPriorityQueue;
+import edu.ncsu.csc316.dsa.priority_queue.PriorityQueue;
+
+/**
+*
+* Class that loads a set of cleaning log files, such as logs rotated once a day, as if they
+* were one log written in the order the files are given. A directory stands for every file in
+* it in order of file name, so daily logs named by date come in time order
+*
+* The files are read on a fork-join pool, one file to a task, and each file is sorted on its
+* own. Logs are written in time order, so that sort is close to linear. The sorted files are
+* then joined with a k-way merge on a HeapPriorityQueue holding the most recent unmerged
+* event of each file, so the whole set is never sorted at once
+*
+* What was read from each file is kept with the file's size and last modified time, so
+* loading the set again only reads the files that were added or changed since. A file is
+* read up to the last line break within that size, so a line still being written to today's
+* log is left out until a later load finds the file changed and reads it again
+*
+* @author Lalitha Edupuganti
+*
+*/
+class LogSetLoader {
+
+	/** The pool the files are read on */
+	private final ForkJoinPool pool;
+	/** The rooms the events refer to */
+	private final RoomTable rooms;
+	/** The files and directories the set was given as */
+	private final String[] paths;
+	/** What was read from each file the last time the set was loaded, by path */
+	private HashMap<String, LogFile> loaded = new HashMap<String, LogFile>();
+
+	/** Every cleaning event for a listed room, in order of file and then line */
+	private EventStore events;
+	/** The indexes of every event from most recent to least recent */
+	private int[] order;
+	/** The number of cleaning events read, including ones for rooms that are not listed */
+	private long eventCount;
+	/** The number of files read by the last load, not counting files that were unchanged */
+	private int filesRead;
+	/** Whether the last load read or dropped any file */
+	private boolean eventsChanged;
+
+	/**
+	 * The constructor that takes in the room table events are looked up in and the log files
+	 * @param rooms the rooms the events refer to
+	 * @param pathsToLogFiles the cleaning log files and directories of cleaning log files
+	 * @param pool the pool the files are read on
+	*/
+	LogSetLoader(RoomTable rooms, String[] pathsToLogFiles, ForkJoinPool pool) {
+		this.rooms = rooms;
+		this.paths = pathsToLogFiles.clone();
+		this.pool = pool;
+	}
+
+	/**
+	 * Loads every file in the set, reading only the files that were added or changed since
+	 * the last load. Directories are listed again, so new files in them are picked up
+	 *
+	 * @throws FileNotFoundException if a file or directory cannot be found
+	*/
+	void load() throws FileNotFoundException {
+		File[] files = listFiles();
+		LogFile[] logFiles = new LogFile[files.length];
+		HashMap<String, LogFile> current = new HashMap<String, LogFile>();
+		int changed = 0;
+		for (int i = 0; i < files.length; i++) {
+			String path = files[i].getPath();
+			LogFile previous = loaded.get(path);
+			if (previous != null && previous.size == files[i].length() && previous.lastModified == files[i].lastModified()) {
+				logFiles[i] = previous;
+			} else {
+				logFiles[i] = new LogFile(path, files[i].length(), files[i].lastModified());
+				changed++;
+			}
+			current.put(path, logFiles[i]);
+		}
+
+		LogFile[] toRead = new LogFile[changed];
+		changed = 0;
+		for (LogFile logFile : logFiles) {
+			if (logFile.events == null) {
+				toRead[changed++] = logFile;
+			}
+		}
+		read(toRead);
+
+		// Join the files in order, keeping where each file's events start in the joined store
+		int total = 0;
+		eventCount = 0;
+		int[] offsets = new int[logFiles.length];
+		for (int i = 0; i < logFiles.length; i++) {
+			offsets[i] = total;
+			total += logFiles[i].events.size();
+			eventCount += logFiles[i].read;
+		}
+		events = new EventStore(total);
+		for (LogFile logFile : logFiles) {
+			events.addAll(logFile.events);
+		}
+		order = merge(logFiles, offsets, total);
+
+		eventsChanged = toRead.length > 0 || current.size() != loaded.size();
+		loaded = current;
+		filesRead = toRead.length;
+	}
+
+	/**
+	 * Returns the rooms the events refer to
+	 * @return rooms the room table
+	*/
+	RoomTable getRooms() {
+		return rooms;
+	}
+
+	/**
+	 * Returns every cleaning event for a listed room, in order of file and then line
+	 * @return events the store of cleaning events
+	*/
+	EventStore getEvents() {
+		return events;
+	}
+
+	/**
+	 * Returns the indexes of every event from most recent to least recent
+	 * @return order the sorted event indexes
+	*/
+	int[] getOrder() {
+		return order;
+	}
+
+	/**
+	 * Returns the number of cleaning events read, including ones for rooms that are not listed
+	 * @return eventCount the number of events read
+	*/
+	long getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * Returns the number of files read by the last load, not counting files that were unchanged
+	 * @return filesRead the number of files read
+	*/
+	int getFilesRead() {
+		return filesRead;
+	}
+
+	/**
+	 * Returns whether the last load read a file that was added or changed, or dropped a file
+	 * that is no longer in the set, so its events differ from the load before it
+	 * @return boolean true if the events changed
+	*/
+	boolean isChanged() {
+		return eventsChanged;
+	}
+
+	/**
+	 * Private helper method that lists every file in the set. The files of a directory come
+	 * in order of file name, and hidden files and subdirectories are left out
+	 *
+	 * @return File[] the files in the order they are loaded
+	 * @throws FileNotFoundException if a file or directory cannot be found
+	*/
+	private File[] listFiles() throws FileNotFoundException {
+		File[][] groups = new File[paths.length][];
+		int count = 0;
+		for (int i = 0; i < paths.length; i++) {
+			File path = new File(paths[i]);
+			if (path.isDirectory()) {
+				File[] listed = path.listFiles(file -> file.isFile() && !file.isHidden());
+				if (listed == null) {
+					throw new FileNotFoundException("Cannot list " + path);
+				}
+				Arrays.sort(listed);
+				groups[i] = listed;
+			} else if (path.isFile()) {
+				groups[i] = new File[] {path};
+			} else {
+				throw new FileNotFoundException(path + " (No such file or directory)");
+			}
+			count += groups[i].length;
+		}
+
+		File[] files = new File[count];
+		count = 0;
+		for (File[] group : groups) {
+			System.arraycopy(group, 0, files, count, group.length);
+			count += group.length;
+		}
+		return files;
+	}
+
+	/**
+	 * Private helper method that reads files on the pool, each into its own store sorted by time
+	 *
+	 * @param toRead the files to read
+	 * @throws FileNotFoundException if a file cannot be found
+	*/
+	private void read(LogFile[] toRead) throws FileNotFoundException {
+		if (toRead.length == 0) {
+			return;
+		}
+		try {
+			pool.invoke(new ReadTask(toRead, 0, toRead.length));
+		} catch (UncheckedIOException e) {
+			FileNotFoundException notFound = ParallelLogLoader.findNotFound(e);
+			if (notFound != null) {
+				throw notFound;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Private helper method that merges the sorted orders of the files into one order with a
+	 * priority queue holding the most recent unmerged event of each file. Each trip through the
+	 * queue takes every event of one file that comes before the other files' heads. On equal times the
+	 * event from the earlier file comes first, so the order is the same as loading the files
+	 * joined into one log
+	 *
+	 * @param logFiles the files, each with its events sorted
+	 * @param offsets where each file's events start in the joined store
+	 * @param total the number of events in every file
+	 * @return int[] the indexes of every event in the joined store from most recent to least recent
+	*/
+	private int[] merge(LogFile[] logFiles, int[] offsets, int total) {
+		Metrics.Probe probe = Metrics.start(Stage.MERGE_LOGS);
+		int[] merged = new int[total];
+		PriorityQueue<FileHead, Integer> heads = new HeapPriorityQueue<FileHead, Integer>();
+		for (int i = 0; i < logFiles.length; i++) {
+			if (logFiles[i].order.length > 0) {
+				FileHead head = new FileHead(i);
+				head.time = logFiles[i].events.getTime(logFiles[i].order[0]);
+				heads.insert(head, i);
+			}
+		}
+
+		int next = 0;
+		while (!heads.isEmpty()) {
+			FileHead head = heads.deleteMin().getKey();
+			FileHead rival = heads.isEmpty() ? null : heads.min().getKey();
+			LogFile logFile = logFiles[head.file];
+
+			// Take the file's events until the next file's head comes first. Daily logs barely
+			// overlap, so most files are taken whole from one trip through the queue
+			do {
+				merged[next++] = offsets[head.file] + logFile.order[head.position];
+				head.position++;
+				if (head.position < logFile.order.length) {
+					head.time = logFile.events.getTime(logFile.order[head.position]);
+				}
+			} while (head.position < logFile.order.length && (rival == null || head.compareTo(rival) < 0));
+
+			// The head is out of the queue, so it can be moved to the file's next event and put back
+			if (head.position < logFile.order.length) {
+				heads.insert(head, head.file);
+			}
+		}
+		Metrics.stop(probe, total);
+		return merged;
+	}
+
+	/**
+	 * Class that holds one cleaning log file and what was read from it
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class LogFile {
+
+		/** The file */
+		private final String path;
+		/** The size of the file when it was read */
+		private final long size;
+		/** The last modified time of the file when it was read */
+		private final long lastModified;
+		/** The cleaning events in the file for listed rooms in file order, or null until it is read */
+		private EventStore events;
+		/** The number of cleaning events read, including ones for rooms that are not listed */
+		private int read;
+		/** The indexes of the file's events from most recent to least recent */
+		private int[] order;
+
+		/**
+		 * The constructor that takes in a file and how it looked before it was read
+		 * @param path the file
+		 * @param size the size of the file
+		 * @param lastModified the last modified time of the file
+		*/
+		LogFile(String path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+	}
+
+	/**
+	 * Class that holds where the merge is in one file. Heads are ordered by the time of the
+	 * file's most recent unmerged event, most recent first, and then by file
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class FileHead implements Comparable<FileHead> {
+
+		/** The index of the file */
+		private final int file;
+		/** The position in the file's sorted order of its most recent unmerged event */
+		private int position;
+		/** The time of that event in epoch seconds */
+		private long time;
+
+		/**
+		 * The constructor that starts at a file's most recent event
+		 * @param file the index of the file
+		*/
+		FileHead(int file) {
+			this.file = file;
+		}
+
+		/**
+		 * Compare method that puts the head with the more recent event first
+		 * @param other the head to compare to
+		 * @return int negative if this head's event comes first
+		*/
+		@Override
+		public int compareTo(FileHead other) {
+			if (time != other.time) {
+				return time > other.time ? -1 : 1;
+			}
+			return Integer.compare(file, other.file);
+		}
+	}
+
+	/**
+	 * Class for the task that reads a range of files, splitting the range in half until
+	 * there is one file to read and sort
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private class ReadTask extends RecursiveAction {
+
+		/** The serial version UID for the task */
+		private static final long serialVersionUID = 1L;
+		/** The files to read */
+		private final LogFile[] logFiles;
+		/** The index of the first file in the range */
+		private final int from;
+		/** The index just past the last file in the range */
+		private final int to;
+
+		/**
+		 * The constructor that takes in a range of files
+		 * @param logFiles the files to read
+		 * @param from the index of the first file in the range
+		 * @param to the index just past the last file in the range
+		*/
+		ReadTask(LogFile[] logFiles, int from, int to) {
+			this.logFiles = logFiles;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Reads the range of files
+		*/
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				readFile(logFiles[from]);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new ReadTask(logFiles, from, mid), new ReadTask(logFiles, mid, to));
+		}
+
+		/**
+		 * Private helper method that parses one file into its own store and sorts it by time
+		 * Only the whole lines within the size the file had when it was listed are read, so a
+		 * line still being written is left until the file is loaded again
+		 * @param logFile the file to read
+		*/
+		private void readFile(LogFile logFile) {
+			EventStore fileEvents = new EventStore((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, logFile.size / 32)));
+			try {
+				long end = MappedInputReader.lastLineEnd(logFile.path, logFile.size);
+				logFile.read = MappedInputReader.readLogFile(logFile.path, end, event -> {
+					int room = rooms.indexOf(event.getRoomID());
+					if (room >= 0) {
+						fileEvents.add(CleaningManager.toEpochSecond(event.getTimestamp()), room, event.getPercentCompleted());
+					}
+				});
+			} catch (FileNotFoundException e) {
+				throw new UncheckedIOException(e);
+			}
+			logFile.order = EventSorter.mostRecentFirst(fileEvents);
+			logFile.events = fileEvents;
+		}
+	}
+
+}
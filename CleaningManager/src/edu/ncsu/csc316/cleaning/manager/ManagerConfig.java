@@ -0,0 +1,200 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.util.Comparator;
+
+import edu.ncsu.csc316.cleaning.dsa.Algorithm;
+import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.dsa.data.Identifiable;
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.list.SinglyLinkedList;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.map.SearchTableMap;
+import edu.ncsu.csc316.dsa.map.SkipListMap;
+import edu.ncsu.csc316.dsa.map.UnorderedLinkedMap;
+import edu.ncsu.csc316.dsa.map.hashing.LinearProbingHashMap;
+import edu.ncsu.csc316.dsa.map.hashing.SeparateChainingHashMap;
+import edu.ncsu.csc316.dsa.map.search_tree.AVLTreeMap;
+import edu.ncsu.csc316.dsa.map.search_tree.BinarySearchTreeMap;
+import edu.ncsu.csc316.dsa.map.search_tree.RedBlackTreeMap;
+import edu.ncsu.csc316.dsa.map.search_tree.SplayTreeMap;
+import edu.ncsu.csc316.dsa.sorter.BubbleSorter;
+import edu.ncsu.csc316.dsa.sorter.CountingSorter;
+import edu.ncsu.csc316.dsa.sorter.InsertionSorter;
+import edu.ncsu.csc316.dsa.sorter.MergeSorter;
+import edu.ncsu.csc316.dsa.sorter.QuickSorter;
+import edu.ncsu.csc316.dsa.sorter.RadixSorter;
+import edu.ncsu.csc316.dsa.sorter.SelectionSorter;
+import edu.ncsu.csc316.dsa.sorter.Sorter;
+
+/**
+*
+* Class that holds the data structure choices for one manager and builds its maps, lists
+* and sorters, the same ones DSAFactory would build for the same settings. Since each
+* manager keeps its own configuration instead of setting the static DSAFactory types,
+* managers with different map types can be built and queried at the same time on
+* different threads. A configuration cannot be changed once it is made
+*
+* @author Lalitha Edupuganti
+*
+*/
+public final class ManagerConfig {
+
+	/** The type of map built */
+	private final DataStructure mapType;
+	/** The type of indexed list built */
+	private final DataStructure listType;
+	/** The comparison based sorting algorithm */
+	private final Algorithm comparisonSorterType;
+	/** The non-comparison based sorting algorithm */
+	private final Algorithm nonComparisonSorterType;
+
+	/**
+	 * The constructor that takes in the map type, and uses an array based list,
+	 * merge sort and counting sort like the managers always have
+	 * @param mapType the type of map datastructure to hold the entries of room and cleaning events
+	*/
+	public ManagerConfig(DataStructure mapType) {
+		this(mapType, DataStructure.ARRAYBASEDLIST, Algorithm.MERGESORT, Algorithm.COUNTING_SORT);
+	}
+
+	/**
+	 * The constructor that takes in every data structure choice
+	 * @param mapType the type of map datastructure to hold the entries of room and cleaning events
+	 * @param listType the type of indexed list, either ARRAYBASEDLIST or SINGLYLINKEDLIST
+	 * @param comparisonSorterType the comparison based sorting algorithm
+	 * @param nonComparisonSorterType the non-comparison based sorting algorithm,
+	 * either COUNTING_SORT or RADIX_SORT
+	 * @throws IllegalArgumentException if a choice is null or is not the right kind of structure
+	*/
+	public ManagerConfig(DataStructure mapType, DataStructure listType, Algorithm comparisonSorterType, Algorithm nonComparisonSorterType) {
+		if (mapType == null || mapType == DataStructure.ARRAYBASEDLIST || mapType == DataStructure.SINGLYLINKEDLIST) {
+			throw new IllegalArgumentException("Invalid map type: " + mapType);
+		}
+		if (listType != DataStructure.ARRAYBASEDLIST && listType != DataStructure.SINGLYLINKEDLIST) {
+			throw new IllegalArgumentException("Invalid list type: " + listType);
+		}
+		if (comparisonSorterType == null || comparisonSorterType == Algorithm.COUNTING_SORT || comparisonSorterType == Algorithm.RADIX_SORT) {
+			throw new IllegalArgumentException("Invalid comparison sorter type: " + comparisonSorterType);
+		}
+		if (nonComparisonSorterType != Algorithm.COUNTING_SORT && nonComparisonSorterType != Algorithm.RADIX_SORT) {
+			throw new IllegalArgumentException("Invalid non-comparison sorter type: " + nonComparisonSorterType);
+		}
+		this.mapType = mapType;
+		this.listType = listType;
+		this.comparisonSorterType = comparisonSorterType;
+		this.nonComparisonSorterType = nonComparisonSorterType;
+	}
+
+	/**
+	 * Returns the type of map built
+	 * @return mapType the map type
+	*/
+	public DataStructure getMapType() {
+		return mapType;
+	}
+
+	/**
+	 * Returns the type of indexed list built
+	 * @return listType the list type
+	*/
+	public DataStructure getListType() {
+		return listType;
+	}
+
+	/**
+	 * Returns the comparison based sorting algorithm
+	 * @return comparisonSorterType the comparison sorter type
+	*/
+	public Algorithm getComparisonSorterType() {
+		return comparisonSorterType;
+	}
+
+	/**
+	 * Returns the non-comparison based sorting algorithm
+	 * @return nonComparisonSorterType the non-comparison sorter type
+	*/
+	public Algorithm getNonComparisonSorterType() {
+		return nonComparisonSorterType;
+	}
+
+	/**
+	 * Builds a new empty map of the configured type
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 * @param comparator the comparator that orders the keys, or null for their natural order
+	 * @return Map the new map
+	*/
+	public <K extends Comparable<K>, V> Map<K, V> getMap(Comparator<K> comparator) {
+		switch (mapType) {
+		case SKIPLIST:
+			return new SkipListMap<K, V>(comparator);
+		case UNORDEREDLINKEDMAP:
+			return new UnorderedLinkedMap<K, V>();
+		case SEARCHTABLE:
+			return new SearchTableMap<K, V>(comparator);
+		case BINARYSEARCHTREE:
+			return new BinarySearchTreeMap<K, V>(comparator);
+		case AVLTREE:
+			return new AVLTreeMap<K, V>(comparator);
+		case SPLAYTREE:
+			return new SplayTreeMap<K, V>(comparator);
+		case REDBLACKTREE:
+			return new RedBlackTreeMap<K, V>(comparator);
+		case SEPARATECHAININGHASHMAP:
+			return new SeparateChainingHashMap<K, V>();
+		default:
+			return new LinearProbingHashMap<K, V>();
+		}
+	}
+
+	/**
+	 * Builds a new empty indexed list of the configured type
+	 *
+	 * @param <E> the type of the elements
+	 * @return List the new list
+	*/
+	public <E> List<E> getIndexedList() {
+		if (listType == DataStructure.SINGLYLINKEDLIST) {
+			return new SinglyLinkedList<E>();
+		}
+		return new ArrayBasedList<E>();
+	}
+
+	/**
+	 * Builds a new comparison based sorter of the configured type
+	 *
+	 * @param <E> the type of the elements sorted
+	 * @param comparator the comparator that orders the elements, or null for their natural order
+	 * @return Sorter the new sorter
+	*/
+	public <E extends Comparable<E>> Sorter<E> getComparisonSorter(Comparator<E> comparator) {
+		switch (comparisonSorterType) {
+		case BUBBLE_SORT:
+			return new BubbleSorter<E>(comparator);
+		case INSERTION_SORT:
+			return new InsertionSorter<E>(comparator);
+		case SELECTION_SORT:
+			return new SelectionSorter<E>(comparator);
+		case QUICKSORT:
+			return new QuickSorter<E>(comparator);
+		default:
+			return new MergeSorter<E>(comparator);
+		}
+	}
+
+	/**
+	 * Builds a new non-comparison based sorter of the configured type
+	 *
+	 * @param <E> the type of the elements sorted
+	 * @return Sorter the new sorter
+	*/
+	public <E extends Identifiable> Sorter<E> getNonComparisonSorter() {
+		if (nonComparisonSorterType == Algorithm.RADIX_SORT) {
+			return new RadixSorter<E>();
+		}
+		return new CountingSorter<E>();
+	}
+
+}
@@ -0,0 +1,284 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import edu.ncsu.csc316.cleaning.io.MappedInputReader;
+
+/**
+*
+* Class that loads a cleaning log file on a fork-join pool. The file is split into chunks
+* at line breaks, each chunk is parsed into its own EventStore and sorted by time on its
+* own thread, and the chunks are then joined in file order and their sorted orders merged,
+* so the store and order built are the same as loading the file from InputReader.readLogFile
+*
+* The tasks never touch the DSAFactory maps, since some of them (like the splay tree)
+* change shape on a get. Rooms are looked up in the room table's sorted IDs instead
+*
+* @author Lalitha Edupuganti
+*
+*/
+class ParallelLogLoader {
+
+	/** The fewest bytes worth giving to one chunk */
+	private static final long MIN_CHUNK_BYTES = 1 << 20;
+	/** The number of chunks made for each thread in the pool, so uneven chunks balance out */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/** The pool the chunks are loaded on */
+	private final ForkJoinPool pool;
+	/** The rooms the events refer to */
+	private final RoomTable rooms;
+
+	/** Every cleaning event for a listed room in file order */
+	private EventStore events;
+	/** The indexes of every event from most recent to least recent */
+	private int[] order;
+	/** The number of cleaning events read, including ones for rooms that are not listed */
+	private long eventCount;
+
+	/**
+	 * The constructor that takes in the room table events are looked up in
+	 * @param rooms the rooms the events refer to
+	 * @param pool the pool the chunks are loaded on
+	*/
+	ParallelLogLoader(RoomTable rooms, ForkJoinPool pool) {
+		this.pool = pool;
+		this.rooms = rooms;
+	}
+
+	/**
+	 * Loads the cleaning log file up to a byte offset, splitting it into chunks that are parsed
+	 * in parallel. The offset should be just past a line break, so a line still being written
+	 * past it is not read
+	 *
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @param end the byte offset just past the last line to load, past the end of the file to load all of it
+	 * @throws FileNotFoundException if file cannot be found
+	*/
+	void load(String pathToLogFile, long end) throws FileNotFoundException {
+		long size = Math.min(new File(pathToLogFile).length(), end);
+		int parts = (int) Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, size / MIN_CHUNK_BYTES));
+		long[] boundaries = MappedInputReader.splitLines(pathToLogFile, end, parts);
+
+		Chunk[] chunks = new Chunk[boundaries.length - 1];
+		for (int i = 0; i < chunks.length; i++) {
+			chunks[i] = new Chunk(pathToLogFile, boundaries[i], boundaries[i + 1]);
+		}
+
+		try {
+			pool.invoke(new ChunkTask(chunks, 0, chunks.length));
+		} catch (UncheckedIOException e) {
+			FileNotFoundException notFound = findNotFound(e);
+			if (notFound != null) {
+				throw notFound;
+			}
+			throw e;
+		}
+
+		// Join the chunks in file order, shifting each chunk's sorted order by where it starts
+		int total = 0;
+		for (Chunk chunk : chunks) {
+			chunk.offset = total;
+			total += chunk.events.size();
+			eventCount += chunk.read;
+		}
+		events = new EventStore(total);
+		for (Chunk chunk : chunks) {
+			events.addAll(chunk.events);
+			for (int i = 0; i < chunk.order.length; i++) {
+				chunk.order[i] += chunk.offset;
+			}
+		}
+
+		order = pool.invoke(new MergeTask(chunks, 0, chunks.length));
+	}
+
+	/**
+	 * Returns every cleaning event for a listed room in file order
+	 * @return events the store of cleaning events
+	*/
+	EventStore getEvents() {
+		return events;
+	}
+
+	/**
+	 * Returns the indexes of every event from most recent to least recent
+	 * @return order the sorted event indexes
+	*/
+	int[] getOrder() {
+		return order;
+	}
+
+	/**
+	 * Returns the number of cleaning events read, including ones for rooms that are not listed
+	 * @return eventCount the number of events read
+	*/
+	long getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * Helper method that finds a missing file among the causes of a task's failure. The pool
+	 * may wrap the task's exception again, so every cause is looked through
+	 *
+	 * @param failure the exception the pool threw
+	 * @return FileNotFoundException the missing file's exception, or null if there is none
+	*/
+	static FileNotFoundException findNotFound(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof FileNotFoundException) {
+				return (FileNotFoundException) cause;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Class that holds one chunk of the log file and what was read from it
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class Chunk {
+
+		/** The file the chunk is in */
+		private final String path;
+		/** The byte offset the chunk starts at */
+		private final long start;
+		/** The byte offset just past the end of the chunk */
+		private final long end;
+		/** The cleaning events in the chunk for listed rooms in file order */
+		private EventStore events;
+		/** The number of cleaning events read, including ones for rooms that are not listed */
+		private int read;
+		/** The indexes of the chunk's events from most recent to least recent */
+		private int[] order;
+		/** The index of the chunk's first event once the chunks are joined */
+		private int offset;
+
+		/**
+		 * The constructor that takes in the byte range of the chunk
+		 * @param path the file the chunk is in
+		 * @param start the byte offset the chunk starts at
+		 * @param end the byte offset just past the end of the chunk
+		*/
+		Chunk(String path, long start, long end) {
+			this.path = path;
+			this.start = start;
+			this.end = end;
+		}
+	}
+
+	/**
+	 * Class for the task that reads a range of chunks, splitting the range in half until
+	 * there is one chunk to parse and sort
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private class ChunkTask extends RecursiveAction {
+
+		/** The serial version UID for the task */
+		private static final long serialVersionUID = 1L;
+		/** The chunks of the file */
+		private final Chunk[] chunks;
+		/** The index of the first chunk in the range */
+		private final int from;
+		/** The index just past the last chunk in the range */
+		private final int to;
+
+		/**
+		 * The constructor that takes in a range of chunks
+		 * @param chunks the chunks of the file
+		 * @param from the index of the first chunk in the range
+		 * @param to the index just past the last chunk in the range
+		*/
+		ChunkTask(Chunk[] chunks, int from, int to) {
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Reads the range of chunks
+		*/
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				readChunk(chunks[from]);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new ChunkTask(chunks, from, mid), new ChunkTask(chunks, mid, to));
+		}
+
+		/**
+		 * Private helper method that parses one chunk into its own store and sorts it by time
+		 * @param chunk the chunk to read
+		*/
+		private void readChunk(Chunk chunk) {
+			chunk.events = new EventStore((int) Math.min(Integer.MAX_VALUE - 8, (chunk.end - chunk.start) / 32));
+			try {
+				chunk.read = MappedInputReader.readLogFile(chunk.path, chunk.start, chunk.end, event -> {
+					int room = rooms.indexOf(event.getRoomID());
+					if (room >= 0) {
+						chunk.events.add(CleaningManager.toEpochSecond(event.getTimestamp()), room, event.getPercentCompleted());
+					}
+				});
+			} catch (FileNotFoundException e) {
+				throw new UncheckedIOException(e);
+			}
+			chunk.order = EventSorter.mostRecentFirst(chunk.events);
+		}
+	}
+
+	/**
+	 * Class for the task that merges the sorted orders of a range of chunks, splitting the
+	 * range in half and merging the halves, so earlier chunks win ties and file order is kept
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private class MergeTask extends RecursiveTask<int[]> {
+
+		/** The serial version UID for the task */
+		private static final long serialVersionUID = 1L;
+		/** The chunks of the file, already read and joined */
+		private final Chunk[] chunks;
+		/** The index of the first chunk in the range */
+		private final int from;
+		/** The index just past the last chunk in the range */
+		private final int to;
+
+		/**
+		 * The constructor that takes in a range of chunks
+		 * @param chunks the chunks of the file, already read and joined
+		 * @param from the index of the first chunk in the range
+		 * @param to the index just past the last chunk in the range
+		*/
+		MergeTask(Chunk[] chunks, int from, int to) {
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Merges the sorted orders of the range of chunks
+		 * @return int[] the merged event indexes from most recent to least recent
+		*/
+		@Override
+		protected int[] compute() {
+			if (to - from == 1) {
+				return chunks[from].order;
+			}
+			int mid = (from + to) >>> 1;
+			MergeTask right = new MergeTask(chunks, mid, to);
+			right.fork();
+			int[] left = new MergeTask(chunks, from, mid).compute();
+			return EventSorter.merge(events, left, right.join());
+		}
+	}
+
+}
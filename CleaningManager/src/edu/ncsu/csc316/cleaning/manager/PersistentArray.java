@@ -0,0 +1,131 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+/**
+*
+* Class for a fixed length array that is never changed once it is made. Setting an element
+* returns a new array that shares everything but the changed path with the old one
+*
+* The elements are kept in a tree of 32 element nodes, so setting one element copies at most
+* one node on each of the log32(length) levels instead of the whole array, and getting an
+* element follows one path down the tree. Elements that were never set are null
+*
+* @param <E> the type of the elements
+*
+* @author Lalitha Edupuganti
+*
+*/
+final class PersistentArray<E> {
+
+	/** The number of bits of an index used on each level of the tree */
+	private static final int BITS = 5;
+	/** The number of children of each node */
+	private static final int WIDTH = 1 << BITS;
+	/** The mask that picks one level's bits out of an index */
+	private static final int MASK = WIDTH - 1;
+
+	/** The number of elements in the array */
+	private final int length;
+	/** The position of the lowest index bit used by the root node */
+	private final int shift;
+	/** The root node of the tree */
+	private final Object[] root;
+
+	/**
+	 * The constructor that makes an array where every element is null
+	 * @param length the number of elements in the array
+	*/
+	PersistentArray(int length) {
+		this.length = length;
+		int levelShift = 0;
+		while (Math.max(length - 1, 0) >>> levelShift >= WIDTH) {
+			levelShift += BITS;
+		}
+		this.shift = levelShift;
+		this.root = new Object[WIDTH];
+	}
+
+	/**
+	 * Private constructor that takes in the tree of an array
+	 *
+	 * @param length the number of elements in the array
+	 * @param shift the position of the lowest index bit used by the root node
+	 * @param root the root node of the tree
+	*/
+	private PersistentArray(int length, int shift, Object[] root) {
+		this.length = length;
+		this.shift = shift;
+		this.root = root;
+	}
+
+	/**
+	 * Returns the number of elements in the array
+	 * @return length the number of elements
+	*/
+	int length() {
+		return length;
+	}
+
+	/**
+	 * Returns an element of the array
+	 * @param index the index of the element
+	 * @return E the element, or null if it was never set
+	 * @throws IndexOutOfBoundsException if the index is not in the array
+	*/
+	@SuppressWarnings("unchecked")
+	E get(int index) {
+		checkIndex(index);
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+			if (node == null) {
+				return null;
+			}
+		}
+		return (E) node[index & MASK];
+	}
+
+	/**
+	 * Returns a new array with one element changed. This array is not changed
+	 *
+	 * @param index the index of the element to set
+	 * @param element the new element
+	 * @return PersistentArray the new array
+	 * @throws IndexOutOfBoundsException if the index is not in the array
+	*/
+	PersistentArray<E> set(int index, E element) {
+		checkIndex(index);
+		return new PersistentArray<E>(length, shift, set(root, shift, index, element));
+	}
+
+	/**
+	 * Private helper method that copies the path down to an element with the element changed
+	 *
+	 * @param node the node on the path, or null if none of its elements were ever set
+	 * @param level the position of the lowest index bit used by the node
+	 * @param index the index of the element to set
+	 * @param element the new element
+	 * @return Object[] the copy of the node
+	*/
+	private static Object[] set(Object[] node, int level, int index, Object element) {
+		Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+		if (level == 0) {
+			copy[index & MASK] = element;
+		} else {
+			int child = (index >>> level) & MASK;
+			copy[child] = set((Object[]) copy[child], level - BITS, index, element);
+		}
+		return copy;
+	}
+
+	/**
+	 * Private helper method that checks an index is in the array
+	 * @param index the index to check
+	 * @throws IndexOutOfBoundsException if the index is not in the array
+	*/
+	private void checkIndex(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index is outside of the array: " + index);
+		}
+	}
+
+}
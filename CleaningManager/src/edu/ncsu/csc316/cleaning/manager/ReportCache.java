@@ -0,0 +1,113 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+*
+* Class that keeps the most recently used reports, each with the data version it was built
+* at, so asking for the same report again while the data is unchanged returns it in O(1) time
+*
+* Reports are keyed by report type and parameters. A report built at an older data version
+* is never returned, and is dropped the next time it is looked up. Once the cache is full,
+* the least recently used report is dropped to make room
+*
+* @author Lalitha Edupuganti
+*
+*/
+final class ReportCache {
+
+	/** The most reports kept */
+	private final int capacity;
+	/** The reports and the versions they were built at, from least to most recently used */
+	private final LinkedHashMap<String, CachedReport> reports;
+
+	/**
+	 * The constructor that takes in the most reports to keep
+	 * @param capacity the most reports kept
+	 * @throws IllegalArgumentException if the capacity is not positive
+	*/
+	ReportCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Report cache size must be greater than 0");
+		}
+		this.capacity = capacity;
+		this.reports = new LinkedHashMap<String, CachedReport>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			/**
+			 * Drops the least recently used report once there are more than the capacity
+			 * @param eldest the least recently used report
+			 * @return boolean true if the report should be dropped
+			*/
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedReport> eldest) {
+				return size() > ReportCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns a report if it was built at the current data version
+	 * @param key the report type and parameters
+	 * @param version the current data version
+	 * @return String the report, or null if it is not kept or is out of date
+	*/
+	synchronized String get(String key, long version) {
+		CachedReport entry = reports.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.version != version) {
+			reports.remove(key);
+			return null;
+		}
+		return entry.report;
+	}
+
+	/**
+	 * Keeps a report built at a data version, unless a report built at a newer version is
+	 * already kept for the same key
+	 * @param key the report type and parameters
+	 * @param version the data version the report was built at
+	 * @param report the report
+	*/
+	synchronized void put(String key, long version, String report) {
+		CachedReport entry = reports.get(key);
+		if (entry == null || entry.version <= version) {
+			reports.put(key, new CachedReport(version, report));
+		}
+	}
+
+	/**
+	 * Returns the number of reports kept, including out of date ones not yet dropped
+	 * @return int the number of reports
+	*/
+	synchronized int size() {
+		return reports.size();
+	}
+
+	/**
+	 * Class that holds a report and the data version it was built at
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class CachedReport {
+
+		/** The data version the report was built at */
+		private final long version;
+		/** The report */
+		private final String report;
+
+		/**
+		 * The constructor that takes in the report and its version
+		 * @param version the data version the report was built at
+		 * @param report the report
+		*/
+		CachedReport(long version, String report) {
+			this.version = version;
+			this.report = report;
+		}
+	}
+
+}
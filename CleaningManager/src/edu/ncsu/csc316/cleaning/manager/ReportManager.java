@@ -1,20 +1,21 @@
 package edu.ncsu.csc316.cleaning.manager;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Comparator;
-import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+import java.util.function.Supplier;
 
-import edu.ncsu.csc316.cleaning.dsa.Algorithm;
-import edu.ncsu.csc316.cleaning.dsa.DSAFactory;
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
 import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
 
+import edu.ncsu.csc316.dsa.data.Identifiable;
 import edu.ncsu.csc316.dsa.list.List;
-import edu.ncsu.csc316.dsa.map.Map;
-import edu.ncsu.csc316.dsa.map.Map.Entry;
-
+import edu.ncsu.csc316.dsa.priority_queue.HeapPriorityQueue;
 import edu.ncsu.csc316.dsa.sorter.Sorter;
 
 /**
@@ -22,14 +23,33 @@ import edu.ncsu.csc316.dsa.sorter.Sorter;
  * Class that uses methods to generate different reports including the 
  * frequency of rooms, vacuum bag status report and events by room
  * 
+ * Each report is built from one snapshot of the cleaning manager's data, so reports can be
+ * requested from any number of threads at once, even while cleaning events are being added
+ * 
+ * The most recently used frequency, room and vacuum bag reports are cached with the cleaning
+ * manager's data version they were built at, so asking for the same report again is O(1)
+ * until cleaning events are added or the logs are reloaded
+ * 
  * @author Lalitha Edupuganti
  *
 */
 public class ReportManager {
 
+	/** The number of days up to the latest cleaning that the recent cleaning rate is taken from */
+	public static final int RATE_DAYS = 7;
+	/** The number of seconds in a day */
+	private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+	/** The note added to a vacuum bag report when only the most recent cleanings were kept */
+	static final String APPROXIMATE_COVERAGE = "(only the most recent cleanings were kept, so coverage is a lower bound)";
+	/** The most reports kept in the report cache */
+	public static final int REPORT_CACHE_SIZE = 32;
+
 	/** Private cleaningManager field that holds a cleaningManager necessary to 
 	 * access different method associated with the class*/
     private CleaningManager manager = null;
+    
+    /** The most recently used reports and the data versions they were built at */
+    private final ReportCache reportCache = new ReportCache(REPORT_CACHE_SIZE);
 
     /**
      * The constructor that takes in a roomFile, cleaning log file, and the specified
@@ -40,13 +60,63 @@ public class ReportManager {
      * @throws FileNotFoundException if file cannot be found
     */
     public ReportManager(String pathToRoomFile, String pathToLogFile, DataStructure mapType) throws FileNotFoundException {
-    	manager = new CleaningManager(pathToRoomFile, pathToLogFile, mapType);
-        DSAFactory.setListType(DataStructure.ARRAYBASEDLIST);
-        DSAFactory.setComparisonSorterType(Algorithm.MERGESORT);
-        DSAFactory.setNonComparisonSorterType(Algorithm.COUNTING_SORT);
-        DSAFactory.setMapType(mapType);
-        
-       
+    	this(pathToRoomFile, pathToLogFile, mapType, LoadMode.STANDARD);
+    }
+    
+    /**
+     * The constructor that takes in a roomFile, cleaning log file, the specified
+     * mapType, and the way the cleaning log file should be loaded
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param mapType the type of map datastructure to hold the entries of room and cleaning events
+     * @param loadMode the way the cleaning log file should be loaded
+     * @throws FileNotFoundException if file cannot be found
+    */
+    public ReportManager(String pathToRoomFile, String pathToLogFile, DataStructure mapType, LoadMode loadMode) throws FileNotFoundException {
+    	this(pathToRoomFile, pathToLogFile, new ManagerConfig(mapType), loadMode);
+    }
+    
+    /**
+     * The constructor that takes in a roomFile, cleaning log file, the data structure
+     * configuration, and the way the cleaning log file should be loaded
+     * The reports only use structures from the configuration, so report managers with
+     * different configurations can be built and used on several threads at once
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param config the data structures the managers build
+     * @param loadMode the way the cleaning log file should be loaded
+     * @throws FileNotFoundException if file cannot be found
+    */
+    public ReportManager(String pathToRoomFile, String pathToLogFile, ManagerConfig config, LoadMode loadMode) throws FileNotFoundException {
+    	manager = new CleaningManager(pathToRoomFile, pathToLogFile, config, loadMode);
+    }
+    
+    /**
+     * The constructor that takes in a roomFile, cleaning log file, a binary snapshot file, the
+     * data structure configuration, and the way the cleaning log file should be loaded
+     * The snapshot file is loaded in place of the files while it is current, and saved again when it is not
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathToLogFile the file that holds the list of cleaning events
+     * @param pathToSnapshotFile the binary snapshot file, or null to always load the files
+     * @param config the data structures the managers build
+     * @param loadMode the way the cleaning log file should be loaded
+     * @throws FileNotFoundException if file cannot be found
+    */
+    public ReportManager(String pathToRoomFile, String pathToLogFile, String pathToSnapshotFile, ManagerConfig config, LoadMode loadMode) throws FileNotFoundException {
+    	manager = new CleaningManager(pathToRoomFile, pathToLogFile, pathToSnapshotFile, config, loadMode);
+    }
+    
+    /**
+     * The constructor that takes in a roomFile, a set of cleaning log files, and the data
+     * structure configuration. The files are loaded as if they were one log written in the
+     * order given, and a directory stands for every file in it in order of file name
+     * @param pathToRoomFile the file that holds the list of rooms
+     * @param pathsToLogFiles the cleaning log files and directories of cleaning log files
+     * @param config the data structures the managers build
+     * @throws FileNotFoundException if a file or directory cannot be found
+    */
+    public ReportManager(String pathToRoomFile, String[] pathsToLogFiles, ManagerConfig config) throws FileNotFoundException {
+    	manager = new CleaningManager(pathToRoomFile, pathsToLogFiles, config);
     }
     
     /**
@@ -60,6 +130,39 @@ public class ReportManager {
         this(pathToRoomFile, pathToLogFile, DataStructure.SKIPLIST);
     }
 
+    /**
+     * Adds a cleaning event, as if it were at the end of the cleaning log file
+     * The next report includes the event without reloading the files
+     *
+     * @param newEvent the cleaning event to add
+    */
+    public void addEvent(CleaningLogEntry newEvent) {
+    	manager.addEvent(newEvent);
+    }
+
+    /**
+     * Adds cleaning events, as if they were at the end of the cleaning log file
+     * Reports already being built on other threads finish with the data they started with
+     *
+     * @param newEvents the cleaning events to add
+    */
+    public void addEvents(List<CleaningLogEntry> newEvents) {
+    	manager.addEvents(newEvents);
+    }
+
+    /**
+     * Loads the set of cleaning log files again, reading only the files that were added or
+     * changed since they were last loaded
+     * Reports already being built on other threads finish with the data they started with
+     *
+     * @return int the number of files read, not counting files that were unchanged
+     * @throws FileNotFoundException if a file or directory cannot be found
+     * @throws IllegalStateException if the reports were loaded from one cleaning log file
+    */
+    public int reloadLogs() throws FileNotFoundException {
+    	return manager.reloadLogs();
+    }
+
     /**
      * The method that prints a string report on the current vacuum bag capacity
      * This method will either tell how much space before a replacement is needed or
@@ -68,13 +171,22 @@ public class ReportManager {
      * @return vaccumString.toString the string report on vaccum bag capacity
     */
     public String getVacuumBagReport(String timestamp) {
-    	int total = 5280;
+    	return cachedReport("VACUUM " + timestamp, () -> buildVacuumBagReport(timestamp));
+    }
+    
+    /**
+     * Private helper method that builds the report on the current vacuum bag capacity
+     * @param timestamp used to calculate and report how many square feet are remaining
+     * @return vaccumString.toString the string report on vaccum bag capacity
+    */
+    private String buildVacuumBagReport(String timestamp) {
+    	int total = VacuumBag.STANDARD_CAPACITY;
     	
-    	DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
     	try {
-	        LocalDateTime lastReplaced = LocalDateTime.parse(timestamp, formatter);
+	        LocalDateTime lastReplaced = LocalDateTime.parse(timestamp, ReportWriter.TIMESTAMP_FORMAT);
 	        
-	        int remainingSquareFeet = total - manager.getCoverageSince(lastReplaced);
+	        CleaningSnapshot data = manager.getSnapshot();
+	        int remainingSquareFeet = total - data.getCoverageSince(lastReplaced);
 	        
 	        if (remainingSquareFeet <= 0) {
 	        	StringBuilder vaccumString = new StringBuilder("Vacuum Bag Report (last replaced ").append(timestamp).append(") [\n");
@@ -83,6 +195,12 @@ public class ReportManager {
 	        }
 	        
 	    	StringBuilder vaccumString = new StringBuilder("Vacuum Bag Report (last replaced ").append(timestamp).append(") [");
+	    	if (!data.isCoverageExact(lastReplaced)) {
+	    		// Only the most recent cleanings were kept, so the bag may be fuller than this
+	    		vaccumString.append("\n" + "   Bag is due for replacement in at most " + remainingSquareFeet + " SQ FT");
+	    		vaccumString.append("\n" + "   " + APPROXIMATE_COVERAGE + "\n]");
+	    		return vaccumString.toString();
+	    	}
 	    				vaccumString.append("\n" + "   Bag is due for replacement in " + remainingSquareFeet + " SQ FT\n]"); 
 	
 	        return vaccumString.toString();
@@ -94,6 +212,109 @@ public class ReportManager {
     	}
     }
 
+    /**
+     * The method that returns a report on the remaining life of every vacuum bag in a fleet,
+     * in the order the bags are given. The bags are sorted by when they were last replaced and
+     * answered together in one backward sweep over the cleaning events, instead of one search each
+     * @param bags the vacuum bags in the fleet
+     * @param projectFill whether to project when each bag will be full, from the rate rooms were
+     * cleaned in the RATE_DAYS days up to the most recent cleaning
+     * @return String the report on the fleet's vacuum bags
+    */
+    public String getVacuumFleetReport(List<VacuumBag> bags, boolean projectFill) {
+    	StringBuilder fleetReport = new StringBuilder();
+    	
+    	try {
+    		writeVacuumFleetReport(bags, projectFill, fleetReport);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
+    	
+    	return fleetReport.toString();
+    }
+    
+    /**
+     * The method that writes a report on the remaining life of every vacuum bag in a fleet,
+     * in the order the bags are given
+     * @param bags the vacuum bags in the fleet
+     * @param projectFill whether to project when each bag will be full
+     * @param out where the report is written
+     * @throws IOException if the report cannot be written
+    */
+    public void writeVacuumFleetReport(List<VacuumBag> bags, boolean projectFill, Appendable out) throws IOException {
+    	if (bags == null || bags.isEmpty()) {
+    		out.append("No vacuum bags to report on.");
+    		return;
+    	}
+    	
+    	Metrics.Probe probe = Metrics.start(Stage.RENDER_REPORT);
+    	VacuumBag[] fleet = new VacuumBag[bags.size()];
+    	try {
+    		int position = 0;
+    		for (VacuumBag bag : bags) {
+    			fleet[position++] = bag;
+    		}
+    	
+    		// Sort the bags from most recently replaced so one sweep back through the events answers them all
+    		Integer[] order = new Integer[fleet.length];
+    		for (int i = 0; i < order.length; i++) {
+    			order[i] = i;
+    		}
+    		Sorter<Integer> bagSorter = manager.getConfig().getComparisonSorter(new ReplacedComparator(fleet));
+    		bagSorter.sort(order);
+    	
+    		LocalDateTime[] replaced = new LocalDateTime[fleet.length];
+    		for (int i = 0; i < order.length; i++) {
+    			replaced[i] = fleet[order[i]].getLastReplaced();
+    		}
+    	
+    		CleaningSnapshot data = manager.getSnapshot();
+    		int[] sortedCoverage = data.getCoverageSince(replaced);
+    		int[] coverage = new int[fleet.length];
+    		for (int i = 0; i < order.length; i++) {
+    			coverage[order[i]] = sortedCoverage[i];
+    		}
+    	
+    		// The recent cleaning rate is the square feet cleaned in the RATE_DAYS days up to the latest cleaning
+    		LocalDateTime latest = data.getLatestTime();
+    		long recentCoverage = 0;
+    		if (projectFill && latest != null) {
+    			recentCoverage = data.getCoverageBetween(latest.minusDays(RATE_DAYS), latest.plusSeconds(1));
+    		}
+    	
+    		out.append("Vacuum Fleet Report [\n");
+    		for (int i = 0; i < fleet.length; i++) {
+    			VacuumBag bag = fleet[i];
+    			int remainingSquareFeet = bag.getCapacity() - coverage[i];
+    		
+    			out.append("   Vacuum ").append(bag.getVacuumId()).append(" (last replaced ");
+    			out.append(bag.getLastReplaced().format(ReportWriter.TIMESTAMP_FORMAT)).append(")");
+    			if (remainingSquareFeet <= 0) {
+    				out.append(" is overdue for replacement!\n");
+    				continue;
+    			}
+    			out.append(" is due for replacement in ");
+    			if (!data.isCoverageExact(bag.getLastReplaced())) {
+    				// Only the most recent cleanings were kept, so the bag may be fuller than this
+    				out.append("at most ");
+    			}
+    			out.append(Integer.toString(remainingSquareFeet)).append(" SQ FT");
+    		
+    			if (recentCoverage > 0) {
+    				// Round up, so the bag is never projected to fill before it could
+    				long seconds = ((long) remainingSquareFeet * RATE_DAYS * SECONDS_PER_DAY + recentCoverage - 1) / recentCoverage;
+    				LocalDateTime from = bag.getLastReplaced().isAfter(latest) ? bag.getLastReplaced() : latest;
+    				out.append(", projected to be full on ");
+    				ReportWriter.appendTimestamp(out, CleaningManager.toEpochSecond(from) + seconds);
+    			}
+    			out.append("\n");
+    		}
+    		out.append("]");
+    	} finally {
+    		Metrics.stop(probe, fleet.length);
+    	}
+    }
+    
     /**
      * The method that prints a string report on frequency report of the list of provided rooms
      * This method will provide a report on the rooms in decending order of how frequently
@@ -102,52 +323,158 @@ public class ReportManager {
      * @return frequencyLine the string report on the frequency the rooms
     */
     public String getFrequencyReport(int number) {
-    	String frequencyLine = "";
+    	return cachedReport("FREQUENCY " + number, () -> buildFrequencyReport(number));
+    }
+    
+    /**
+     * Private helper method that builds the frequency report of the list of provided rooms
+     * @param number the number of rooms to be reported
+     * @return frequencyLine the string report on the frequency the rooms
+    */
+    private String buildFrequencyReport(int number) {
+    	StringBuilder frequencyLine = new StringBuilder();
+    	
+    	try {
+    		writeFrequencyReport(number, frequencyLine);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
     	
+        return frequencyLine.toString();
+    }
+    
+    /**
+     * The method that writes the frequency report of the list of provided rooms
+     * straight into the given Appendable, such as a Writer for a file or socket, without
+     * building the report as a String first
+     * @param number the number of rooms to be reported
+     * @param out where the report is written
+     * @throws IOException if the report cannot be written
+    */
+    public void writeFrequencyReport(int number, Appendable out) throws IOException {
     	if (number <= 0) {
-    		frequencyLine = "Number of rooms must be greater than 0.";
-    		return frequencyLine;
-    	} else {
-    		frequencyLine = "Frequency of Cleanings [\n";
+    		out.append("Number of rooms must be greater than 0.");
+    		return;
     	}
     	
-    	Map<String, List<CleaningLogEntry>> getEventByRoomMap = DSAFactory.getMap(null);
-    	getEventByRoomMap = manager.getEventsByRoom();
+    	CleaningSnapshot data = manager.getSnapshot();
     	
-    	if (getEventByRoomMap == null) {
-    		return "No rooms have been cleaned.";
+    	if (data.isEmpty()) {
+    		out.append("No rooms have been cleaned.");
+    		return;
     	}
     	
-    	@SuppressWarnings("unchecked")
-		Map.Entry<String, List<CleaningLogEntry>>[] sortedEntries =  new Map.Entry[getEventByRoomMap.size()];
+    	Metrics.Probe probe = Metrics.start(Stage.RENDER_REPORT);
+    	int[] counts = new int[data.getRoomCount()];
+    	try {
+    		for (int room = 0; room < counts.length; room++) {
+    			counts[room] = data.getCount(room);
+    		}
     	
-    	sortedEntries = sortByParam(getEventByRoomMap, true, false);
+    		out.append("Frequency of Cleanings [\n");
+    		writeFrequencies(data, counts, number, out);
+    		out.append("]");
+    	} finally {
+    		Metrics.stop(probe, counts.length);
+    	}
+    }
+    
+    /**
+     * The method that prints a string report on how frequently the rooms were cleaned in a window
+     * of time, from the start time up to but not including the end time
+     * The rooms are in decending order of how frequently they were cleaned in the window
+     * @param number the number of rooms to be reported
+     * @param from the start of the window in the format MM/DD/YYYY HH:MM:SS
+     * @param to the end of the window in the format MM/DD/YYYY HH:MM:SS
+     * @return frequencyLine the string report on the frequency the rooms
+    */
+    public String getFrequencyReport(int number, String from, String to) {
+    	return cachedReport("FREQUENCY " + number + " FROM " + from + " TO " + to, () -> buildFrequencyReport(number, from, to));
+    }
+    
+    /**
+     * Private helper method that builds the frequency report for a window of time
+     * @param number the number of rooms to be reported
+     * @param from the start of the window in the format MM/DD/YYYY HH:MM:SS
+     * @param to the end of the window in the format MM/DD/YYYY HH:MM:SS
+     * @return frequencyLine the string report on the frequency the rooms
+    */
+    private String buildFrequencyReport(int number, String from, String to) {
+    	StringBuilder frequencyLine = new StringBuilder();
     	
-    	Integer [] count = new Integer[getEventByRoomMap.size()];
+    	try {
+    		writeFrequencyReport(number, from, to, frequencyLine);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
     	
-    	int index = 0;
+        return frequencyLine.toString();
+    }
+    
+    /**
+     * The method that writes the frequency report for a window of time straight into the given
+     * Appendable. Each room's count in the window is found with binary searches of its time
+     * ordered events, so the events outside the window are never visited
+     * When the log was streamed, only each room's most recent cleaning events are counted
+     * @param number the number of rooms to be reported
+     * @param from the start of the window in the format MM/DD/YYYY HH:MM:SS
+     * @param to the end of the window in the format MM/DD/YYYY HH:MM:SS
+     * @param out where the report is written
+     * @throws IOException if the report cannot be written
+    */
+    public void writeFrequencyReport(int number, String from, String to, Appendable out) throws IOException {
+    	if (number <= 0) {
+    		out.append("Number of rooms must be greater than 0.");
+    		return;
+    	}
     	
-    	for (Map.Entry<String, List<CleaningLogEntry>> entry : sortedEntries) {
-    		count[index] = entry.getValue().size();
-    		index++;
+    	LocalDateTime[] window = parseWindow(from, to, out);
+    	if (window == null) {
+    		return;
     	}
     	
-    	index = 0;
+    	CleaningSnapshot data = manager.getSnapshot();
     	
-    	for (Map.Entry<String, List<CleaningLogEntry>> entry : sortedEntries) {
-    		if (index >= number) {
-                break; // Stop when the requested number of rooms has been processed
-            }
-    		String room = entry.getKey();
-    		frequencyLine += "   " + room + " has been cleaned " + count[index] + " times\n";
-    		index++;		
-    		
+    	if (data.isEmpty()) {
+    		out.append("No rooms have been cleaned.");
+    		return;
     	}
     	
+    	Metrics.Probe probe = Metrics.start(Stage.RENDER_REPORT);
+    	try {
+    		out.append("Frequency of Cleanings from ").append(from).append(" to ").append(to).append(" [\n");
+    		writeFrequencies(data, data.getCountsBetween(window[0], window[1]), number, out);
+    		out.append("]");
+    	} finally {
+    		Metrics.stop(probe, data.getRoomCount());
+    	}
+    }
+    
+    /**
+     * The method that prints a string report on the square feet cleaned in a window of time,
+     * from the start time up to but not including the end time
+     * The total comes from two running totals of the time ordered coverage index
+     * @param from the start of the window in the format MM/DD/YYYY HH:MM:SS
+     * @param to the end of the window in the format MM/DD/YYYY HH:MM:SS
+     * @return coverageString the string report on the square feet cleaned
+    */
+    public String getCoverageReport(String from, String to) {
+    	StringBuilder coverageString = new StringBuilder();
     	
-    	frequencyLine += "]";
+    	try {
+    		LocalDateTime[] window = parseWindow(from, to, coverageString);
+    		if (window == null) {
+    			return coverageString.toString();
+    		}
+    		
+    		coverageString.append("Coverage Report (").append(from).append(" to ").append(to).append(") [\n   ");
+    		ReportWriter.appendNumber(coverageString, manager.getCoverageBetween(window[0], window[1]));
+    		coverageString.append(" SQ FT cleaned\n]");
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
     	
-        return frequencyLine;
+    	return coverageString.toString();
     }
 
     /**
@@ -158,110 +485,262 @@ public class ReportManager {
      * @return roomReport.toString the string report the rooms
     */
     public String getRoomReport() {
-    	DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
-    	
-    	Map<String, List<CleaningLogEntry>> getEventByRoomMap = DSAFactory.getMap(null);
-    	getEventByRoomMap = manager.getEventsByRoom();
+    	return cachedReport("ROOM", this::buildRoomReport);
+    }
+    
+    /**
+     * Private helper method that builds the report on the listed rooms and their cleaning events
+     * @return roomReport.toString the string report the rooms
+    */
+    private String buildRoomReport() {
+    	StringBuilder roomReport = new StringBuilder();
     	
-    	if (getEventByRoomMap == null) {
-    		return "No rooms have been cleaned.";
+    	try {
+    		writeRoomReport(roomReport);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
     	}
+
+	    return roomReport.toString();
+	    
+    }
+    
+    /**
+     * This method writes the report on the listed rooms and their cleaning events
+     * straight into the given Appendable, such as a Writer for a file or socket, one
+     * line at a time, so a large report is never held in memory as a String
+     *
+     * @param out where the report is written
+     * @throws IOException if the report cannot be written
+    */
+    public void writeRoomReport(Appendable out) throws IOException {
+    	CleaningSnapshot data = manager.getSnapshot();
     	
-    	@SuppressWarnings("unchecked")
-		Map.Entry<String, List<CleaningLogEntry>>[] sortedEntries =  new Map.Entry[getEventByRoomMap.size()];
-    	
-    	sortedEntries = sortByParam(getEventByRoomMap, false, true);
+    	if (data.isEmpty()) {
+    		out.append("No rooms have been cleaned.");
+    		return;
+    	}
     	
-    	StringBuilder roomReport = new StringBuilder("Room Report [\n");
+    	Metrics.Probe probe = Metrics.start(Stage.RENDER_REPORT);
+    	try {
+    		out.append("Room Report [\n");
     	
-    	for (Map.Entry<String, List<CleaningLogEntry>> entry : sortedEntries) {
-	        String room = entry.getKey();
-	        List<CleaningLogEntry> cleaningEvents = entry.getValue();
-
-	        roomReport.append("   ").append(room).append(" was cleaned on [");
-
-	        if (cleaningEvents.isEmpty()) {
-	            roomReport.append("\n      (never cleaned)");
-	        } else {
-	            for (CleaningLogEntry cleaningEvent : cleaningEvents) {
-	                roomReport.append("\n      " + cleaningEvent.getTimestamp().format(formatter));
-	            }
-	        }
-
-	        roomReport.append("\n   ]\n");
-	    }
+    		// Room indexes are in alphabetical order of room ID, so no sorting is needed
+    		for (int room = 0; room < data.getRoomCount(); room++) {
+    			RoomReportPages.writeRoom(data, room, data.getRoomId(room), Integer.MAX_VALUE, out);
+    		}
     	
-    	roomReport.append("]");
-
-	    return roomReport.toString();
-	    
+    		out.append("]");
+    	} finally {
+    		Metrics.stop(probe, data.getRoomCount());
+    	}
     }
     
     /**
-     * Private helper method that is used to sort through a list of map entries in format String, List -> CleaningLogEntry
-     * The method either sorts the input Map, by either count (frequency of rooms cleaned) or to sort out the rooms alphabetically
-     * depending on which param is true and false
+     * Returns the room report a page of rooms at a time. Pages are only built when they are
+     * asked for, so the first page is ready right away however long the cleaning log is, and
+     * every page comes from the data as it was when this method was called
+     * @param roomsPerPage the number of rooms on each page
+     * @return RoomReportPages the pages of the room report
+     * @throws IllegalArgumentException if roomsPerPage is not positive
+    */
+    public RoomReportPages getRoomReportPages(int roomsPerPage) {
+    	return getRoomReportPages(roomsPerPage, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Returns the room report a page of rooms at a time, listing at most a number of each room's
+     * most recent cleanings. The number of cleanings left out is shown after them
+     * @param roomsPerPage the number of rooms on each page
+     * @param maxEventsPerRoom the most cleanings listed for each room
+     * @return RoomReportPages the pages of the room report
+     * @throws IllegalArgumentException if either number is not positive
+    */
+    public RoomReportPages getRoomReportPages(int roomsPerPage, int maxEventsPerRoom) {
+    	return new RoomReportPages(manager.getSnapshot(), roomsPerPage, maxEventsPerRoom);
+    }
+    
+    /**
+     * Returns everything the report manager's cleaning manager has loaded as one snapshot
+     * @return snapshot the current snapshot
+    */
+    CleaningSnapshot getSnapshot() {
+    	return manager.getSnapshot();
+    }
+    
+    /**
+     * Returns the number of reports in the report cache, including out of date ones that
+     * have not been looked up since the data changed
+     * @return int the number of cached reports
+    */
+    int getCachedReportCount() {
+    	return reportCache.size();
+    }
+    
+    /**
+     * Private helper method that returns a cached report if it was built at the cleaning
+     * manager's current data version, and otherwise builds the report and caches it
+     * The version is read before the report is built, so a report is never cached at a newer
+     * version than the data it was built from
      *
-     * @param getEventByRoomMap the map to be sorted
-     * @param isFrequency the comparator boolean to specify sorting
-     * @param isRoomComp the comparator boolean to specify sorting
-     * 
-     * @return entryArray the array of sorted entries
+     * @param key the report type and parameters
+     * @param builder builds the report from the current data
+     * @return String the report
+    */
+    private String cachedReport(String key, Supplier<String> builder) {
+    	long version = manager.getDataVersion();
+    	String report = reportCache.get(key, version);
+    	if (report == null) {
+    		report = builder.get();
+    		reportCache.put(key, version, report);
+    	}
+    	return report;
+    }
+    
+    /**
+     * Private helper method that parses the start and end of a window of time, writing
+     * the problem to the report if they are not a window
+     *
+     * @param from the start of the window in the format MM/DD/YYYY HH:MM:SS
+     * @param to the end of the window in the format MM/DD/YYYY HH:MM:SS
+     * @param out where a problem with the window is written
+     * @return LocalDateTime[] the start and end of the window, or null if they are not a window
+     * @throws IOException if the problem cannot be written
     */
-    private Map.Entry<String, List<CleaningLogEntry>>[] sortByParam(Map<String, List<CleaningLogEntry>> getEventByRoomMap, Boolean isFrequency, Boolean isRoomComp) {
-    			
-    	@SuppressWarnings("unchecked")
-		Map.Entry<String, List<CleaningLogEntry>>[] entryArray = new Map.Entry[getEventByRoomMap.size()];
+    private LocalDateTime[] parseWindow(String from, String to, Appendable out) throws IOException {
+    	try {
+    		LocalDateTime start = LocalDateTime.parse(from, ReportWriter.TIMESTAMP_FORMAT);
+    		LocalDateTime end = LocalDateTime.parse(to, ReportWriter.TIMESTAMP_FORMAT);
+    		if (!start.isBefore(end)) {
+    			out.append("The start of the window must be before its end.");
+    			return null;
+    		}
+    		return new LocalDateTime[] {start, end};
+    	} catch (DateTimeParseException e) {
+    		out.append("Date & time must be in the format: MM/DD/YYYY HH:MM:SS");
+    		return null;
+    	}
+    }
+    
+    /**
+     * Private helper method that writes the lines of a frequency report for the most frequently cleaned rooms
+     *
+     * @param data the loaded rooms
+     * @param counts the number of times each room was cleaned
+     * @param number the number of rooms to be reported
+     * @param out where the report is written
+     * @throws IOException if the report cannot be written
+    */
+    private void writeFrequencies(CleaningSnapshot data, int[] counts, int number, Appendable out) throws IOException {
+    	for (int room : mostFrequentRooms(counts, number)) {
+    		out.append("   ").append(data.getRoomId(room)).append(" has been cleaned ");
+    		ReportWriter.appendNumber(out, counts[room]);
+    		out.append(" times\n");
+    	}
+    }
+    
+    /**
+     * Helper method that finds the most frequently cleaned rooms
+     * The rooms are kept in a heap that holds at most the requested number of rooms, with the
+     * least frequent of them on top, so only the top rooms are ever ordered instead of every room
+     * When every room is asked for, the rooms are counting sorted by their counts instead
+     *
+     * @param counts the number of times each room was cleaned
+     * @param number the number of rooms to find
+     * @return topRooms the indexes of the most frequently cleaned rooms, in descending order
+     * of how frequently they were cleaned
+    */
+    int[] mostFrequentRooms(int[] counts, int number) {
+    	if (number >= counts.length) {
+    		return roomsByFrequency(counts);
+    	}
+    	
+    	Comparator<Integer> frequency = new FrequencyComparator(counts);
+    	HeapPriorityQueue<Integer, Integer> heap = new HeapPriorityQueue<Integer, Integer>(frequency.reversed());
     	
+    	for (int room = 0; room < counts.length; room++) {
+    		if (heap.size() < number) {
+    			heap.insert(room, room);
+    		} else if (frequency.compare(room, heap.min().getKey()) < 0) {
+    			heap.deleteMin();
+    			heap.insert(room, room);
+    		}
+    	}
     	
-    	int i = 0;
-    	for (Map.Entry<String, List<CleaningLogEntry>> entry : getEventByRoomMap.entrySet()) {
-    		 entryArray[i] = entry; // Add the current entry to the array
-    	     i++;
+    	int[] topRooms = new int[heap.size()];
+    	for (int i = topRooms.length - 1; i >= 0; i--) {
+    		topRooms[i] = heap.deleteMin().getKey();
     	}
     	
-    	if (isFrequency) {
-    		Sorter<Entry<String, List<CleaningLogEntry>>> cleaningSorter = DSAFactory.getComparisonSorter(new FrequencyComparator());
-        	
-        	cleaningSorter.sort(entryArray);
+    	return topRooms;
+    }
+    
+    /**
+     * Private helper method that orders every room by how frequently it was cleaned
+     * The rooms are counting sorted in one linear pass over their counts, and since the
+     * counting sort is stable, rooms cleaned the same number of times stay in alphabetical order
+     *
+     * @param counts the number of times each room was cleaned
+     * @return sortedRooms the indexes of every room, in descending order of how frequently they were cleaned
+    */
+    private int[] roomsByFrequency(int[] counts) {
+    	int mostCleanings = 0;
+    	for (int count : counts) {
+    		mostCleanings = Math.max(mostCleanings, count);
     	}
     	
-    	if (isRoomComp) {
-    		Sorter<Entry<String, List<CleaningLogEntry>>> cleaningSorter = DSAFactory.getComparisonSorter(new RoomComparator());
-        	
-        	cleaningSorter.sort(entryArray);
+    	RoomCount[] roomCounts = new RoomCount[counts.length];
+    	for (int room = 0; room < roomCounts.length; room++) {
+    		roomCounts[room] = new RoomCount(room, mostCleanings - counts[room]);
     	}
     	
+    	Sorter<RoomCount> countSorter = manager.getConfig().getNonComparisonSorter();
+    	countSorter.sort(roomCounts);
     	
-
-    	return entryArray;
+    	int[] sortedRooms = new int[roomCounts.length];
+    	for (int i = 0; i < sortedRooms.length; i++) {
+    		sortedRooms[i] = roomCounts[i].room;
+    	}
     	
+    	return sortedRooms;
     }
     
-    
     /**
-     * Private class that holds the compareTo method to compare map entries of type
-     * Entry based on each entries's cleaning log size
+     * Private class that holds the compareTo method to compare rooms
+     * based on each room's cleaning count
      * 
      * @author Lalitha Edupuganti
     */
-    private class FrequencyComparator implements Comparator<Entry<String, List<CleaningLogEntry>>> {
+    private static class FrequencyComparator implements Comparator<Integer> {
+    	
+    	/** The number of times each room was cleaned */
+    	private final int[] counts;
+    	
+    	/**
+    	 * The constructor that takes in the counts the rooms are compared by
+    	 * @param counts the number of times each room was cleaned
+    	*/
+    	FrequencyComparator(int[] counts) {
+    		this.counts = counts;
+    	}
 
     	/**
-         * Compare to method that compares two entries based on their cleaning events' list size
-         * for frequency, the comparator helps sort entries in descending order of frequency
+         * Compare to method that compares two rooms based on their cleaning counts
+         * for frequency, the comparator helps sort rooms in descending order of frequency
+         * Rooms cleaned the same number of times are in alphabetical order, which is
+         * the order of their indexes
          * 
-         * @param entry1 the first entry to be compared
-         * @param entry2 the second entry to be compared
-         * @return int the int returned from comparing the two entries
+         * @param room1 the index of the first room to be compared
+         * @param room2 the index of the second room to be compared
+         * @return int the int returned from comparing the two rooms
         */
-    	public int compare(Entry<String, List<CleaningLogEntry>> entry1, Entry<String, List<CleaningLogEntry>> entry2) {
-			if (entry2.getValue().size() > entry1.getValue().size()) {
+    	public int compare(Integer room1, Integer room2) {
+			if (counts[room2] > counts[room1]) {
 				return 1;
-			} else if (entry2.getValue().size() < entry1.getValue().size()) {
+			} else if (counts[room2] < counts[room1]) {
 				return -1;
 			} else  {
-				return entry1.compareTo(entry2);
+				return Integer.compare(room1, room2);
 			}
 		}
 
@@ -270,33 +749,67 @@ public class ReportManager {
     }
     
     /**
-     * Private class that holds the compareTo method to compare map entries of type
-     * Entry based on each entries's key (room name string) for alphabetical sorting
+     * Private class that compares vacuum bags by when they were last replaced, so the most
+     * recently replaced bag comes first. Bags replaced at the same time stay in the order given
      * 
      * @author Lalitha Edupuganti
     */
-    private class RoomComparator implements Comparator<Entry<String, List<CleaningLogEntry>>> {
-
+    private static class ReplacedComparator implements Comparator<Integer> {
+    	
+    	/** The vacuum bags compared */
+    	private final VacuumBag[] fleet;
+    	
     	/**
-         * Compare to method that compares two entries based on their key value that is the room
-         * name string which is compared to sort the entries in alphabetical order
-         * 
-         * @param entry1 the first entry to be compared
-         * @param entry2 the second entry to be compared
-         * @return int the int returned from comparing the two entries
-        */
-    	public int compare(Entry<String, List<CleaningLogEntry>> entry1, Entry<String, List<CleaningLogEntry>> entry2) {
-			if (entry1.getKey().compareTo(entry2.getKey()) > 0) {
-				return 1;
-			} else if (entry1.getKey().compareTo(entry2.getKey()) < 0) {
-				return -1;
-			} else  {
-				return entry1.compareTo(entry2);
-			}
-		}
-
-
+    	 * The constructor that takes in the bags compared
+    	 * @param fleet the vacuum bags, by position
+    	*/
+    	ReplacedComparator(VacuumBag[] fleet) {
+    		this.fleet = fleet;
+    	}
     	
+    	/**
+    	 * Compare method that compares two bags by when they were last replaced
+    	 * @param bag1 the position of the first bag to be compared
+    	 * @param bag2 the position of the second bag to be compared
+    	 * @return int negative if the first bag was replaced more recently
+    	*/
+    	public int compare(Integer bag1, Integer bag2) {
+    		int replaced = fleet[bag2].getLastReplaced().compareTo(fleet[bag1].getLastReplaced());
+    		return replaced != 0 ? replaced : Integer.compare(bag1, bag2);
+    	}
+    }
+    
+    /**
+     * Private class that pairs a room with its sort key so rooms can be sorted by the
+     * non-comparison sorter. The key is how many fewer times the room was cleaned than the
+     * most cleaned room, so higher counts come first and the key is never negative
+     * 
+     * @author Lalitha Edupuganti
+    */
+    private static class RoomCount implements Identifiable {
+    	
+    	/** The index of the room */
+    	private final int room;
+    	/** How many fewer times the room was cleaned than the most cleaned room */
+    	private final int fewerCleanings;
+    	
+    	/**
+    	 * The constructor that takes in a room and its sort key
+    	 * @param room the index of the room
+    	 * @param fewerCleanings how many fewer times the room was cleaned than the most cleaned room
+    	*/
+    	RoomCount(int room, int fewerCleanings) {
+    		this.room = room;
+    		this.fewerCleanings = fewerCleanings;
+    	}
+    	
+    	/**
+    	 * Returns the sort key of the room
+    	 * @return int the sort key
+    	*/
+    	public int getId() {
+    		return fewerCleanings;
+    	}
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+/**
+*
+* Class that writes the pieces of a report straight into an Appendable without building
+* Strings. Timestamps are written from their epoch seconds in the fixed width
+* MM/dd/yyyy HH:mm:ss format with plain arithmetic, and numbers are written one digit at a time
+*
+* @author Lalitha Edupuganti
+*
+*/
+final class ReportWriter {
+
+	/** The format timestamps are written in */
+	static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+
+	/** The number of seconds in a day */
+	private static final long SECONDS_PER_DAY = 86400;
+	/** The number of days in a 400 year cycle of the calendar */
+	private static final long DAYS_PER_ERA = 146097;
+	/** The number of days from 0000-03-01 to 1970-01-01 */
+	private static final long DAYS_0000_TO_1970 = 719468;
+
+	/**
+	 * Private constructor since the class only has static methods
+	*/
+	private ReportWriter() {
+
+	}
+
+	/**
+	 * Writes a timestamp in the MM/dd/yyyy HH:mm:ss format
+	 *
+	 * @param out where the timestamp is written
+	 * @param epochSecond the timestamp in epoch seconds
+	 * @throws IOException if the timestamp cannot be written
+	*/
+	static void appendTimestamp(Appendable out, long epochSecond) throws IOException {
+		long days = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+		int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+		// Count days from March 1st so the leap day is the last day of the year
+		long shifted = days + DAYS_0000_TO_1970;
+		long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+		long dayOfEra = shifted - era * DAYS_PER_ERA;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long monthFromMarch = (5 * dayOfYear + 2) / 153;
+		int day = (int) (dayOfYear - (153 * monthFromMarch + 2) / 5 + 1);
+		int month = (int) (monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9);
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		if (year < 0 || year > 9999) {
+			// Years outside four digits are signed by the formatter, so leave them to it
+			out.append(CleaningManager.toLocalDateTime(epochSecond).format(TIMESTAMP_FORMAT));
+			return;
+		}
+
+		appendDigits(out, month, 2);
+		out.append('/');
+		appendDigits(out, day, 2);
+		out.append('/');
+		appendDigits(out, (int) year, 4);
+		out.append(' ');
+		appendDigits(out, secondOfDay / 3600, 2);
+		out.append(':');
+		appendDigits(out, secondOfDay / 60 % 60, 2);
+		out.append(':');
+		appendDigits(out, secondOfDay % 60, 2);
+	}
+
+	/**
+	 * Writes a whole number in decimal
+	 *
+	 * @param out where the number is written
+	 * @param number the number to write
+	 * @throws IOException if the number cannot be written
+	*/
+	static void appendNumber(Appendable out, long number) throws IOException {
+		if (number < 0) {
+			if (number == Long.MIN_VALUE) {
+				out.append(Long.toString(number));
+				return;
+			}
+			out.append('-');
+			number = -number;
+		}
+
+		long place = 1;
+		while (number / place >= 10) {
+			place *= 10;
+		}
+		for (; place > 0; place /= 10) {
+			out.append((char) ('0' + number / place % 10));
+		}
+	}
+
+	/**
+	 * Private helper method that writes a number padded with zeros to a fixed width
+	 *
+	 * @param out where the number is written
+	 * @param number the number to write, which fits in the width
+	 * @param width the number of digits to write
+	 * @throws IOException if the number cannot be written
+	*/
+	private static void appendDigits(Appendable out, int number, int width) throws IOException {
+		int place = 1;
+		for (int i = 1; i < width; i++) {
+			place *= 10;
+		}
+		for (; place > 0; place /= 10) {
+			out.append((char) ('0' + number / place % 10));
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+
+/**
+*
+* Class that holds the running totals for one room as its cleaning events are loaded,
+* the number of cleanings, the square feet cleaned, and a bounded number of the most
+* recent cleaning events
+* 
+* @author Lalitha Edupuganti
+*
+*/
+class RoomAggregate {
+	
+	/** The number of cleaning events for the room */
+	private int count;
+	/** The square feet cleaned in the room in hundredths of a square foot */
+	private long cleaned;
+	/** The most recent cleaning events for the room, from most recent to least recent */
+	private CleaningLogEntry[] recent;
+	/** The number of cleaning events held in recent */
+	private int recentSize;
+	
+	/**
+	 * The constructor that takes in how many recent cleaning events to keep
+	 * @param recentLimit the number of most recent cleaning events to keep, or 0 to keep none
+	*/
+	RoomAggregate(int recentLimit) {
+		recent = new CleaningLogEntry[recentLimit];
+	}
+	
+	/**
+	 * Adds a cleaning event to the room's totals, keeping the event if it is one of
+	 * the most recent. Events with the same time stay in the order they were added
+	 *
+	 * @param event the cleaning event to add
+	 * @param cleanedHundredths the square feet cleaned by the event in hundredths of a square foot
+	*/
+	void add(CleaningLogEntry event, long cleanedHundredths) {
+		count++;
+		cleaned += cleanedHundredths;
+		
+		if (recent.length == 0) {
+			return;
+		}
+		
+		// Find where the event goes, after every event at the same time or later
+		int position = recentSize;
+		while (position > 0 && recent[position - 1].getTimestamp().isBefore(event.getTimestamp())) {
+			position--;
+		}
+		if (position == recent.length) {
+			return;
+		}
+		
+		int last = Math.min(recentSize, recent.length - 1);
+		for (int i = last; i > position; i--) {
+			recent[i] = recent[i - 1];
+		}
+		recent[position] = event;
+		recentSize = Math.min(recentSize + 1, recent.length);
+	}
+	
+	/**
+	 * Returns the number of cleaning events for the room
+	 * @return count the number of cleaning events
+	*/
+	int getCount() {
+		return count;
+	}
+	
+	/**
+	 * Returns the square feet cleaned in the room
+	 * @return cleaned the square feet cleaned in hundredths of a square foot
+	*/
+	long getCleaned() {
+		return cleaned;
+	}
+	
+	/**
+	 * Returns the most recent cleaning events that were kept for the room
+	 * @return recentEvents the kept events from most recent to least recent
+	*/
+	CleaningLogEntry[] getRecentEvents() {
+		CleaningLogEntry[] recentEvents = new CleaningLogEntry[recentSize];
+		System.arraycopy(recent, 0, recentEvents, 0, recentSize);
+		return recentEvents;
+	}
+
+}
@@ -0,0 +1,84 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+/**
+*
+* Class that steps through one room's cleaning events in a snapshot from most recent to least
+* recent, merging the events in the room index with the events added since it was built
+* Events at the same time come in the order they were loaded or added
+*
+* @author Lalitha Edupuganti
+*
+*/
+final class RoomEventCursor {
+
+	/** The indexed events */
+	private final EventStore events;
+	/** The index of each room's indexed events */
+	private final RoomIndex roomIndex;
+	/** The room stepped through */
+	private final int room;
+	/** The position of the next indexed event */
+	private int k;
+	/** The walk through the room's added events */
+	private final AddedEvents.Walk added;
+	/** The time of the current event in epoch seconds */
+	private long time;
+	/** The percent of the room cleaned by the current event */
+	private int percent;
+
+	/**
+	 * The constructor that starts before a room's most recent event
+	 *
+	 * @param events the indexed events
+	 * @param roomIndex the index of each room's indexed events
+	 * @param room the room to step through
+	 * @param added the walk through the room's added events
+	*/
+	RoomEventCursor(EventStore events, RoomIndex roomIndex, int room, AddedEvents.Walk added) {
+		this.events = events;
+		this.roomIndex = roomIndex;
+		this.room = room;
+		this.added = added;
+	}
+
+	/**
+	 * Moves to the room's next less recent event
+	 * @return boolean true if there was another event, false if every event has been stepped through
+	*/
+	boolean next() {
+		AddedEvents.Node node = added.peek();
+		if (k < roomIndex.size(room)) {
+			int event = roomIndex.get(room, k);
+			if (node == null || events.getTime(event) >= node.time) {
+				time = events.getTime(event);
+				percent = events.getPercent(event);
+				k++;
+				return true;
+			}
+		}
+		if (node != null) {
+			time = node.time;
+			percent = node.percent;
+			added.advance();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the time of the current event
+	 * @return time the time of the event in epoch seconds
+	*/
+	long getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the percent of the room cleaned by the current event
+	 * @return percent the percent cleaned
+	*/
+	int getPercent() {
+		return percent;
+	}
+
+}
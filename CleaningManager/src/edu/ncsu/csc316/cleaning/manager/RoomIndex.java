@@ -0,0 +1,75 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+/**
+*
+* Class that indexes the events of an EventStore by room. Every room's event indexes are
+* kept together in one int array, from most recent to least recent, with the start of each
+* room's run kept in a second array, so a room's k-th most recent event is one lookup
+* 
+* @author Lalitha Edupuganti
+*
+*/
+class RoomIndex {
+	
+	/** Where each room's events start in order, with one extra entry at the end */
+	private final int[] roomStart;
+	/** The event indexes grouped by room, each room's from most recent to least recent */
+	private final int[] order;
+	
+	/**
+	 * The constructor that groups already time ordered events by room, keeping their order
+	 *
+	 * @param store the events to index
+	 * @param mostRecentFirst the indexes of every event in the store from most recent to least recent
+	 * @param roomCount the number of rooms
+	*/
+	RoomIndex(EventStore store, int[] mostRecentFirst, int roomCount) {
+		roomStart = new int[roomCount + 1];
+		for (int event : mostRecentFirst) {
+			roomStart[store.getRoom(event) + 1]++;
+		}
+		for (int room = 0; room < roomCount; room++) {
+			roomStart[room + 1] += roomStart[room];
+		}
+		
+		order = new int[mostRecentFirst.length];
+		int[] next = new int[roomCount];
+		System.arraycopy(roomStart, 0, next, 0, roomCount);
+		for (int event : mostRecentFirst) {
+			int room = store.getRoom(event);
+			order[next[room]] = event;
+			next[room]++;
+		}
+	}
+	
+	/**
+	 * The constructor that takes in events already grouped by room
+	 *
+	 * @param roomStart where each room's events start in order, with one extra entry at the end
+	 * @param order the event indexes grouped by room, each room's from most recent to least recent
+	*/
+	RoomIndex(int[] roomStart, int[] order) {
+		this.roomStart = roomStart;
+		this.order = order;
+	}
+	
+	/**
+	 * Returns the number of indexed events for a room
+	 * @param room the index of the room
+	 * @return int the number of events
+	*/
+	int size(int room) {
+		return roomStart[room + 1] - roomStart[room];
+	}
+	
+	/**
+	 * Returns a room's k-th most recent event
+	 * @param room the index of the room
+	 * @param k the position of the event, where 0 is the most recent
+	 * @return int the index of the event in the store
+	*/
+	int get(int room, int k) {
+		return order[roomStart[room] + k];
+	}
+
+}
@@ -0,0 +1,165 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
+
+/**
+*
+* Class that hands out the room report a page of rooms at a time. Each page is only built when
+* it is asked for, from the time-sorted events of the rooms on that page, so the first page costs
+* the same however long the cleaning log is
+*
+* Every page comes from the snapshot taken when the pages were requested, so events added while
+* paging do not shift rooms between pages. A page is formatted like the full room report, and one
+* page of every room with no cap on events is exactly the full report
+*
+* @author Lalitha Edupuganti
+*
+*/
+public final class RoomReportPages implements Iterator<String> {
+
+	/** The snapshot the pages are built from */
+	private final CleaningSnapshot data;
+	/** The number of rooms on each page */
+	private final int roomsPerPage;
+	/** The most cleaning events listed for each room */
+	private final int maxEventsPerRoom;
+	/** The index of the first room on the next page */
+	private int nextRoom = 0;
+	/** Whether the report for an empty snapshot has been handed out */
+	private boolean emptyReported = false;
+
+	/**
+	 * The constructor that starts before the first page of a snapshot's room report
+	 *
+	 * @param data the snapshot the pages are built from
+	 * @param roomsPerPage the number of rooms on each page
+	 * @param maxEventsPerRoom the most cleaning events listed for each room
+	 * @throws IllegalArgumentException if either number is not positive
+	*/
+	RoomReportPages(CleaningSnapshot data, int roomsPerPage, int maxEventsPerRoom) {
+		if (roomsPerPage <= 0 || maxEventsPerRoom <= 0) {
+			throw new IllegalArgumentException("Rooms per page and events per room must be greater than 0");
+		}
+		this.data = data;
+		this.roomsPerPage = roomsPerPage;
+		this.maxEventsPerRoom = maxEventsPerRoom;
+	}
+
+	/**
+	 * Returns the number of pages in the report
+	 * @return int the number of pages, which is 1 when there is nothing to report on
+	*/
+	public int getPageCount() {
+		if (data.isEmpty()) {
+			return 1;
+		}
+		return (data.getRoomCount() + roomsPerPage - 1) / roomsPerPage;
+	}
+
+	/**
+	 * Returns the number of the page the next call to next would return
+	 * @return int the page number, counting from 0
+	*/
+	public int getNextPage() {
+		if (data.isEmpty()) {
+			return emptyReported ? 1 : 0;
+		}
+		return (nextRoom + roomsPerPage - 1) / roomsPerPage;
+	}
+
+	/**
+	 * Returns whether there are pages left to hand out
+	 * @return boolean true if there is another page
+	*/
+	@Override
+	public boolean hasNext() {
+		return data.isEmpty() ? !emptyReported : nextRoom < data.getRoomCount();
+	}
+
+	/**
+	 * Builds the next page of the room report
+	 * @return String the next page
+	 * @throws NoSuchElementException if every page has been handed out
+	*/
+	@Override
+	public String next() {
+		StringBuilder page = new StringBuilder();
+		try {
+			writeNext(page);
+		} catch (IOException e) {
+			// A StringBuilder never throws
+			throw new UncheckedIOException(e);
+		}
+		return page.toString();
+	}
+
+	/**
+	 * Writes the next page of the room report
+	 * @param out where the page is written
+	 * @throws IOException if the page cannot be written
+	 * @throws NoSuchElementException if every page has been handed out
+	*/
+	public void writeNext(Appendable out) throws IOException {
+		if (!hasNext()) {
+			throw new NoSuchElementException("Every page of the room report has been built");
+		}
+		if (data.isEmpty()) {
+			emptyReported = true;
+			out.append("No rooms have been cleaned.");
+			return;
+		}
+
+		Metrics.Probe probe = Metrics.start(Stage.RENDER_REPORT);
+		int end = Math.min(nextRoom + roomsPerPage, data.getRoomCount());
+		try {
+			out.append("Room Report [\n");
+			for (int room = nextRoom; room < end; room++) {
+				writeRoom(data, room, data.getRoomId(room), maxEventsPerRoom, out);
+			}
+			out.append("]");
+		} finally {
+			Metrics.stop(probe, end - nextRoom);
+		}
+		nextRoom = end;
+	}
+
+	/**
+	 * Writes one room's part of the room report, listing at most a number of its cleaning
+	 * events from most recent to least recent. Only the events listed are stepped through
+	 *
+	 * @param data the snapshot the room is in
+	 * @param room the index of the room
+	 * @param label the name the room is written as
+	 * @param maxEvents the most cleaning events to list
+	 * @param out where the room is written
+	 * @throws IOException if the room cannot be written
+	*/
+	static void writeRoom(CleaningSnapshot data, int room, String label, int maxEvents, Appendable out) throws IOException {
+		out.append("   ").append(label).append(" was cleaned on [");
+
+		int total = data.getIndexedEventCount(room);
+		if (total == 0) {
+			out.append("\n      (never cleaned)");
+		} else {
+			RoomEventCursor events = data.getRoomEvents(room);
+			int listed = 0;
+			while (listed < maxEvents && events.next()) {
+				out.append("\n      ");
+				ReportWriter.appendTimestamp(out, events.getTime());
+				listed++;
+			}
+			if (listed < total) {
+				out.append("\n      (").append(Integer.toString(total - listed)).append(" more)");
+			}
+		}
+
+		out.append("\n   ]\n");
+	}
+
+}
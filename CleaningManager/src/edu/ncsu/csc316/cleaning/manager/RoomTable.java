@@ -0,0 +1,163 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.util.Comparator;
+
+import edu.ncsu.csc316.cleaning.data.RoomRecord;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.sorter.Sorter;
+
+/**
+*
+* Class that interns the listed rooms, giving each room ID a dense int index so cleaning
+* events can refer to their room by index instead of holding the room ID String
+* 
+* The indexes follow the alphabetical order of the room IDs, so walking the indexes in order
+* visits the rooms alphabetically, and a room ID is found with a binary search of the sorted IDs
+* 
+* @author Lalitha Edupuganti
+*
+*/
+class RoomTable {
+	
+	/** The room IDs in alphabetical order */
+	private final String[] ids;
+	/** The area of each room in square feet, parallel to ids */
+	private final long[] areas;
+	
+	/**
+	 * The constructor that takes in the listed rooms. If a room ID is listed more than once,
+	 * the later record's size is kept, the same as putting the rooms in a map
+	 * @param roomRecords the listed rooms
+	 * @param config the data structures used to sort the rooms
+	*/
+	RoomTable(List<RoomRecord> roomRecords, ManagerConfig config) {
+		RoomRecord[] records = new RoomRecord[roomRecords.size()];
+		Integer[] sortedRecords = new Integer[records.length];
+		int i = 0;
+		for (RoomRecord roomRecord : roomRecords) {
+			records[i] = roomRecord;
+			sortedRecords[i] = i;
+			i++;
+		}
+		
+		Sorter<Integer> roomSorter = config.getComparisonSorter(new RoomIdComparator(records));
+		roomSorter.sort(sortedRecords);
+		
+		String[] allIds = new String[records.length];
+		long[] allAreas = new long[records.length];
+		
+		int size = 0;
+		for (int record : sortedRecords) {
+			RoomRecord roomRecord = records[record];
+			long area = (long) roomRecord.getLength() * roomRecord.getWidth();
+			if (size > 0 && allIds[size - 1].equals(roomRecord.getRoomID())) {
+				allAreas[size - 1] = area;
+			} else {
+				allIds[size] = roomRecord.getRoomID();
+				allAreas[size] = area;
+				size++;
+			}
+		}
+		
+		ids = new String[size];
+		areas = new long[size];
+		System.arraycopy(allIds, 0, ids, 0, size);
+		System.arraycopy(allAreas, 0, areas, 0, size);
+	}
+	
+	/**
+	 * The constructor that takes in rooms that are already in alphabetical order with no
+	 * room ID listed twice, such as the rooms of a saved snapshot
+	 * @param ids the room IDs in alphabetical order
+	 * @param areas the area of each room in square feet, parallel to ids
+	*/
+	RoomTable(String[] ids, long[] areas) {
+		this.ids = ids;
+		this.areas = areas;
+	}
+	
+	/**
+	 * Returns the number of rooms in the table
+	 * @return size the number of rooms
+	*/
+	int size() {
+		return ids.length;
+	}
+	
+	/**
+	 * Returns the room ID at an index
+	 * @param room the index of the room
+	 * @return String the room ID
+	*/
+	String getId(int room) {
+		return ids[room];
+	}
+	
+	/**
+	 * Returns the area of the room at an index
+	 * @param room the index of the room
+	 * @return long the area of the room in square feet
+	*/
+	long getArea(int room) {
+		return areas[room];
+	}
+	
+	/**
+	 * Returns the index of a room ID
+	 * @param roomId the room ID to look up
+	 * @return int the index of the room, or -1 if the room is not listed
+	*/
+	int indexOf(String roomId) {
+		int low = 0;
+		int high = ids.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int compare = ids[mid].compareTo(roomId);
+			if (compare < 0) {
+				low = mid + 1;
+			} else if (compare > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Private class that holds the compareTo method to compare room records
+	 * by their room ID for alphabetical sorting, and records with the same room ID
+	 * by where they are in the room file
+	 * 
+	 * @author Lalitha Edupuganti
+	*/
+	private static class RoomIdComparator implements Comparator<Integer> {
+		
+		/** The listed rooms in room file order */
+		private final RoomRecord[] records;
+		
+		/**
+		 * The constructor that takes in the records being compared
+		 * @param records the listed rooms in room file order
+		*/
+		RoomIdComparator(RoomRecord[] records) {
+			this.records = records;
+		}
+
+		/**
+		 * Compare to method that compares two room records based on their room ID
+		 * 
+		 * @param record1 the position of the first record to be compared
+		 * @param record2 the position of the second record to be compared
+		 * @return int the int returned from comparing the two room IDs
+		*/
+		public int compare(Integer record1, Integer record2) {
+			int compare = records[record1].getRoomID().compareTo(records[record2].getRoomID());
+			if (compare == 0) {
+				return Integer.compare(record1, record2);
+			}
+			return compare;
+		}
+	}
+
+}
@@ -0,0 +1,506 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
+import edu.ncsu.csc316.dsa.priority_queue.HeapPriorityQueue;
+import edu.ncsu.csc316.dsa.priority_queue.PriorityQueue;
+import edu.ncsu.csc316.dsa.sorter.Sorter;
+
+/**
+*
+* Class that reports on several buildings at once, each with its own room file and cleaning
+* log file. Each building is loaded into its own report manager, and the buildings are loaded
+* in parallel on threads of their own, so loading takes about as long as the slowest building
+* In STANDARD mode InputReader reads each building's files while holding the DSAFactory lock,
+* so the files are read one building at a time and only the indexes are built in parallel
+*
+* Each report is scattered to every building on a thread pool and the buildings' answers are
+* gathered into one report. Only the most frequent rooms of each building are gathered for the
+* frequency report, each building's part of the room report is written in parallel and the
+* parts are merged in alphabetical order, and coverage is the sum of every building's coverage
+*
+* Rooms are written with their building, as in "Office (Main Hall)", so rooms with the same ID
+* in different buildings are told apart. Rooms with the same ID are in the order the buildings
+* were given. Buildings with no rooms or no cleaning events are left out of the reports
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class ShardedReportManager {
+
+	/** The IDs of the buildings, in the order they were given */
+	private final String[] buildingIds;
+	/** The report manager of each building */
+	private final ReportManager[] buildings;
+	/** The data structures the managers build */
+	private final ManagerConfig config;
+	/** The pool the reports are scattered on */
+	private final ExecutorService pool;
+
+	/**
+	 * The constructor that loads every building in parallel, each on its own thread, so the
+	 * buildings' file reads do not hold up the common pool the PARALLEL loader splits files on
+	 *
+	 * @param buildingIds the ID of each building
+	 * @param pathsToRoomFiles the file that holds the list of rooms of each building
+	 * @param pathsToLogFiles the file that holds the list of cleaning events of each building
+	 * @param config the data structures the managers build
+	 * @param loadMode the way each cleaning log file should be loaded
+	 * @throws FileNotFoundException if a file cannot be found
+	 * @throws IllegalArgumentException if there are no buildings, the arrays are different
+	 * lengths, or two buildings have the same ID
+	*/
+	public ShardedReportManager(String[] buildingIds, String[] pathsToRoomFiles, String[] pathsToLogFiles, ManagerConfig config, LoadMode loadMode) throws FileNotFoundException {
+		if (buildingIds.length == 0 || pathsToRoomFiles.length != buildingIds.length || pathsToLogFiles.length != buildingIds.length) {
+			throw new IllegalArgumentException("Every building needs one room file and one cleaning log file");
+		}
+		for (int i = 0; i < buildingIds.length; i++) {
+			for (int j = 0; j < i; j++) {
+				if (buildingIds[i].equals(buildingIds[j])) {
+					throw new IllegalArgumentException("Duplicate building ID: " + buildingIds[i]);
+				}
+			}
+		}
+
+		this.buildingIds = buildingIds.clone();
+		this.buildings = new ReportManager[buildingIds.length];
+		this.config = config;
+		this.pool = ForkJoinPool.commonPool();
+
+		ExecutorService loaders = Executors.newFixedThreadPool(buildingIds.length);
+		try {
+			forEachBuilding(loaders, building -> buildings[building] = new ReportManager(pathsToRoomFiles[building],
+					pathsToLogFiles[building], config, loadMode));
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			loaders.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the IDs of the buildings
+	 * @return String[] the building IDs, in the order they were given
+	*/
+	public String[] getBuildingIds() {
+		return buildingIds.clone();
+	}
+
+	/**
+	 * Returns the report manager of one building, for reports on that building alone
+	 * @param buildingId the ID of the building
+	 * @return ReportManager the building's report manager, or null if there is no such building
+	*/
+	public ReportManager getBuilding(String buildingId) {
+		for (int building = 0; building < buildingIds.length; building++) {
+			if (buildingIds[building].equals(buildingId)) {
+				return buildings[building];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The method that returns a report on the most frequently cleaned rooms of every building
+	 * Each building finds its own most frequent rooms in parallel, and only those are merged,
+	 * since no other room can be among the most frequent of every building
+	 *
+	 * @param number the number of rooms to be reported
+	 * @return String the report on the most frequently cleaned rooms
+	*/
+	public String getFrequencyReport(int number) {
+		if (number <= 0) {
+			return "Number of rooms must be greater than 0.";
+		}
+
+		Metrics.Probe probe = Metrics.start(Stage.RENDER_REPORT);
+		int candidates = 0;
+		try {
+			CleaningSnapshot[] data = snapshots();
+			int[][] counts = new int[data.length][];
+			int[][] topRooms = new int[data.length][];
+			try {
+				forEachBuilding(building -> {
+					topRooms[building] = new int[0];
+					if (!data[building].isEmpty()) {
+						counts[building] = new int[data[building].getRoomCount()];
+						for (int room = 0; room < counts[building].length; room++) {
+							counts[building][room] = data[building].getCount(room);
+						}
+						topRooms[building] = buildings[building].mostFrequentRooms(counts[building], number);
+					}
+				});
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			for (int[] rooms : topRooms) {
+				candidates += rooms.length;
+			}
+			if (candidates == 0) {
+				return "No rooms have been cleaned.";
+			}
+
+			// Each candidate is a building and one of its rooms
+			int[] candidateBuilding = new int[candidates];
+			int[] candidateRoom = new int[candidates];
+			Integer[] order = new Integer[candidates];
+			int next = 0;
+			for (int building = 0; building < topRooms.length; building++) {
+				for (int room : topRooms[building]) {
+					candidateBuilding[next] = building;
+					candidateRoom[next] = room;
+					order[next] = next;
+					next++;
+				}
+			}
+			Sorter<Integer> candidateSorter = config.getComparisonSorter(new FrequencyComparator(data, counts, candidateBuilding, candidateRoom));
+			candidateSorter.sort(order);
+
+			StringBuilder frequencyLine = new StringBuilder("Frequency of Cleanings [\n");
+			try {
+				for (int i = 0; i < Math.min(number, candidates); i++) {
+					int building = candidateBuilding[order[i]];
+					int room = candidateRoom[order[i]];
+					frequencyLine.append("   ").append(label(data[building], building, room)).append(" has been cleaned ");
+					ReportWriter.appendNumber(frequencyLine, counts[building][room]);
+					frequencyLine.append(" times\n");
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return frequencyLine.append("]").toString();
+		} finally {
+			Metrics.stop(probe, candidates);
+		}
+	}
+
+	/**
+	 * The method that returns a report of the cleaning events of every room of every building,
+	 * in alphabetical order of room ID. Each building writes its own rooms in parallel, and the
+	 * buildings' rooms, which are each in alphabetical order, are merged
+	 *
+	 * @return String the report on the cleaning events of every room
+	*/
+	public String getRoomReport() {
+		Metrics.Probe probe = Metrics.start(Stage.RENDER_REPORT);
+		int rooms = 0;
+		try {
+			CleaningSnapshot[] data = snapshots();
+			StringBuilder[] parts = new StringBuilder[data.length];
+			int[][] roomEnds = new int[data.length][];
+			try {
+				forEachBuilding(building -> {
+					parts[building] = new StringBuilder();
+					roomEnds[building] = new int[0];
+					if (!data[building].isEmpty()) {
+						roomEnds[building] = new int[data[building].getRoomCount()];
+						for (int room = 0; room < roomEnds[building].length; room++) {
+							RoomReportPages.writeRoom(data[building], room, label(data[building], building, room), Integer.MAX_VALUE, parts[building]);
+							roomEnds[building][room] = parts[building].length();
+						}
+					}
+				});
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			PriorityQueue<RoomHead, Integer> heads = new HeapPriorityQueue<RoomHead, Integer>();
+			int length = 0;
+			for (int building = 0; building < data.length; building++) {
+				if (roomEnds[building].length > 0) {
+					heads.insert(new RoomHead(data[building], building), building);
+					length += parts[building].length();
+					rooms += roomEnds[building].length;
+				}
+			}
+			if (heads.isEmpty()) {
+				return "No rooms have been cleaned.";
+			}
+
+			StringBuilder roomReport = new StringBuilder(length + 16).append("Room Report [\n");
+			while (!heads.isEmpty()) {
+				RoomHead head = heads.deleteMin().getKey();
+				int[] ends = roomEnds[head.building];
+				int start = head.room == 0 ? 0 : ends[head.room - 1];
+				roomReport.append(parts[head.building], start, ends[head.room]);
+
+				// The head is out of the queue, so it can be moved to the building's next room and put back
+				head.room++;
+				if (head.room < ends.length) {
+					heads.insert(head, head.building);
+				}
+			}
+			roomReport.append("]");
+			return roomReport.toString();
+		} finally {
+			Metrics.stop(probe, rooms);
+		}
+	}
+
+	/**
+	 * The method that returns the square feet cleaned in every building since a time, summing
+	 * the coverage each building finds in parallel
+	 *
+	 * @param time the time from which coverage should be calculated
+	 * @return long the total square feet cleaned in every building from the time
+	*/
+	public long getCoverageSince(LocalDateTime time) {
+		CleaningSnapshot[] data = snapshots();
+		long[] coverage = new long[data.length];
+		try {
+			forEachBuilding(building -> coverage[building] = data[building].getCoverageSince(time));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		long total = 0;
+		for (long squareFeet : coverage) {
+			total += squareFeet;
+		}
+		return total;
+	}
+
+	/**
+	 * Returns whether getCoverageSince counts every cleaning event since the given time in
+	 * every building. This is always true unless a building's log was streamed and older
+	 * events were dropped
+	 *
+	 * @param time the time from which coverage would be calculated
+	 * @return boolean true if coverage since the time is exact in every building
+	*/
+	public boolean isCoverageExact(LocalDateTime time) {
+		for (CleaningSnapshot data : snapshots()) {
+			if (!data.isCoverageExact(time)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The method that returns a report on the remaining life of a vacuum bag that is used in
+	 * every building
+	 *
+	 * @param timestamp when the bag was last replaced in the format MM/DD/YYYY HH:MM:SS
+	 * @return String the report on the vacuum bag
+	*/
+	public String getVacuumBagReport(String timestamp) {
+		LocalDateTime lastReplaced;
+		try {
+			lastReplaced = LocalDateTime.parse(timestamp, ReportWriter.TIMESTAMP_FORMAT);
+		} catch (DateTimeParseException e) {
+			return "Date & time must be in the format: MM/DD/YYYY HH:MM:SS";
+		}
+
+		long remainingSquareFeet = VacuumBag.STANDARD_CAPACITY - getCoverageSince(lastReplaced);
+		StringBuilder vacuumString = new StringBuilder("Vacuum Bag Report (last replaced ").append(timestamp).append(") [\n");
+		if (remainingSquareFeet <= 0) {
+			vacuumString.append("   Bag is overdue for replacement!\n]");
+		} else {
+			vacuumString.append("   Bag is due for replacement in ");
+			if (!isCoverageExact(lastReplaced)) {
+				vacuumString.append("at most ").append(remainingSquareFeet).append(" SQ FT\n   ");
+				vacuumString.append(ReportManager.APPROXIMATE_COVERAGE).append("\n]");
+			} else {
+				vacuumString.append(remainingSquareFeet).append(" SQ FT\n]");
+			}
+		}
+		return vacuumString.toString();
+	}
+
+	/**
+	 * Private helper method that takes a snapshot of every building, so a report is built from
+	 * the same data in each building even if events are added while it is being built
+	 * @return CleaningSnapshot[] the snapshot of each building
+	*/
+	private CleaningSnapshot[] snapshots() {
+		CleaningSnapshot[] data = new CleaningSnapshot[buildings.length];
+		for (int building = 0; building < buildings.length; building++) {
+			data[building] = buildings[building].getSnapshot();
+		}
+		return data;
+	}
+
+	/**
+	 * Private helper method that returns the name a room is written as in the reports
+	 * @param data the snapshot of the room's building
+	 * @param building the index of the building
+	 * @param room the index of the room in its building
+	 * @return String the room ID followed by the building ID
+	*/
+	private String label(CleaningSnapshot data, int building, int room) {
+		return data.getRoomId(room) + " (" + buildingIds[building] + ")";
+	}
+
+	/**
+	 * Private helper method that runs a task for every building on the pool and waits for all
+	 * of them, so it takes about as long as the slowest building
+	 *
+	 * @param task the task to run for each building
+	 * @throws IOException if the task fails for a building
+	*/
+	private void forEachBuilding(BuildingTask task) throws IOException {
+		forEachBuilding(pool, task);
+	}
+
+	/**
+	 * Private helper method that runs a task for every building on an executor and waits for
+	 * all of them
+	 *
+	 * @param executor the executor the tasks are run on
+	 * @param task the task to run for each building
+	 * @throws IOException if the task fails for a building
+	*/
+	private void forEachBuilding(ExecutorService executor, BuildingTask task) throws IOException {
+		List<Callable<Void>> calls = new ArrayList<Callable<Void>>(buildings.length);
+		for (int building = 0; building < buildings.length; building++) {
+			int index = building;
+			calls.add(() -> {
+				task.run(index);
+				return null;
+			});
+		}
+
+		try {
+			for (Future<Void> call : executor.invokeAll(calls)) {
+				call.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the buildings");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Interface for a step of a report that is run once for each building
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private interface BuildingTask {
+
+		/**
+		 * Runs the step for one building
+		 * @param building the index of the building
+		 * @throws IOException if the step fails
+		*/
+		void run(int building) throws IOException;
+	}
+
+	/**
+	 * Private class that compares the rooms gathered from the buildings by how many times they
+	 * were cleaned, most first. Rooms cleaned the same number of times are in alphabetical order
+	 * of room ID and then in the order the buildings were given
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class FrequencyComparator implements Comparator<Integer> {
+
+		/** The snapshot of each building */
+		private final CleaningSnapshot[] data;
+		/** The number of times each room of each building was cleaned */
+		private final int[][] counts;
+		/** The building of each gathered room */
+		private final int[] candidateBuilding;
+		/** The index of each gathered room in its building */
+		private final int[] candidateRoom;
+
+		/**
+		 * The constructor that takes in the gathered rooms
+		 * @param data the snapshot of each building
+		 * @param counts the number of times each room of each building was cleaned
+		 * @param candidateBuilding the building of each gathered room
+		 * @param candidateRoom the index of each gathered room in its building
+		*/
+		FrequencyComparator(CleaningSnapshot[] data, int[][] counts, int[] candidateBuilding, int[] candidateRoom) {
+			this.data = data;
+			this.counts = counts;
+			this.candidateBuilding = candidateBuilding;
+			this.candidateRoom = candidateRoom;
+		}
+
+		/**
+		 * Compare method that compares two gathered rooms by how many times they were cleaned
+		 * @param candidate1 the first gathered room to be compared
+		 * @param candidate2 the second gathered room to be compared
+		 * @return int negative if the first room comes first
+		*/
+		public int compare(Integer candidate1, Integer candidate2) {
+			int building1 = candidateBuilding[candidate1];
+			int building2 = candidateBuilding[candidate2];
+			int room1 = candidateRoom[candidate1];
+			int room2 = candidateRoom[candidate2];
+			int compare = Integer.compare(counts[building2][room2], counts[building1][room1]);
+			if (compare == 0) {
+				compare = data[building1].getRoomId(room1).compareTo(data[building2].getRoomId(room2));
+			}
+			return compare != 0 ? compare : Integer.compare(building1, building2);
+		}
+	}
+
+	/**
+	 * Class that holds where the room report merge is in one building. Heads are ordered by
+	 * the ID of the building's next room and then by building
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class RoomHead implements Comparable<RoomHead> {
+
+		/** The snapshot of the building */
+		private final CleaningSnapshot data;
+		/** The index of the building */
+		private final int building;
+		/** The index of the building's next room */
+		private int room;
+
+		/**
+		 * The constructor that starts at a building's first room
+		 * @param data the snapshot of the building
+		 * @param building the index of the building
+		*/
+		RoomHead(CleaningSnapshot data, int building) {
+			this.data = data;
+			this.building = building;
+		}
+
+		/**
+		 * Compare method that puts the head whose next room comes first alphabetically first
+		 * @param other the head to compare to
+		 * @return int negative if this head's room comes first
+		*/
+		@Override
+		public int compareTo(RoomHead other) {
+			int compare = data.getRoomId(room).compareTo(other.data.getRoomId(other.room));
+			return compare != 0 ? compare : Integer.compare(building, other.building);
+		}
+	}
+
+}
@@ -0,0 +1,464 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+*
+* Class that saves a CleaningSnapshot as a compact binary file and loads it back, so a manager
+* can restart without parsing the room and cleaning log files again. The file holds the room
+* table, the columnar events and the room and coverage indexes as little-endian primitive arrays,
+* which are loaded by memory-mapping the file and copying each array out in bulk
+*
+* The header holds a format version, the load mode, the size and last modified time of the room
+* and cleaning log files the snapshot was built from, and a CRC-32C checksum of the rest of the
+* header and the arrays. A snapshot from another format version, load mode or source files,
+* or one whose checksum does not match, is stale and is not loaded
+*
+* @author Lalitha Edupuganti
+*
+*/
+final class SnapshotFile {
+
+	/** The first four bytes of every snapshot file, "CMSN" */
+	private static final int MAGIC = 0x4E534D43;
+	/** The version of the file format, which changes whenever the layout does */
+	static final int VERSION = 1;
+	/** The number of bytes in the header */
+	private static final int HEADER_SIZE = 88;
+	/** The position of the checked length in the header, followed by the checksum */
+	private static final int CHECKED_LENGTH_POSITION = 8;
+	/** The position of the first byte covered by the checksum */
+	private static final int CHECKED_START = 24;
+	/** The most bytes mapped at one time */
+	private static final int MAX_REGION = 1 << 30;
+	/** The number of bytes written to the file at a time */
+	private static final int BLOCK_SIZE = 1 << 20;
+
+	/**
+	 * Private constructor since the class only has static methods
+	*/
+	private SnapshotFile() {
+
+	}
+
+	/**
+	 * Returns the sizes and last modified times of the files a snapshot is built from,
+	 * which are saved in the snapshot and checked when it is loaded
+	 *
+	 * @param pathToRoomFile the file that holds the list of rooms
+	 * @param pathToLogFile the file that holds the list of cleaning events
+	 * @return long[] the room file size and time, then the cleaning log size and time
+	*/
+	static long[] sourceStamp(String pathToRoomFile, String pathToLogFile) {
+		File roomFile = new File(pathToRoomFile);
+		File logFile = new File(pathToLogFile);
+		return new long[] {roomFile.length(), roomFile.lastModified(), logFile.length(), logFile.lastModified()};
+	}
+
+	/**
+	 * Saves a snapshot. The file is written next to the path and then moved into place,
+	 * so a snapshot that is being replaced is never left half written, and the file written
+	 * next to the path is deleted if either step fails
+	 *
+	 * @param path where the snapshot is saved
+	 * @param snapshot the snapshot to save
+	 * @param loadMode the way the cleaning log file was loaded
+	 * @param sourceStamp the sizes and last modified times of the files the snapshot was built from
+	 * @throws IOException if the file cannot be written
+	*/
+	static void write(Path path, CleaningSnapshot snapshot, LoadMode loadMode, long[] sourceStamp) throws IOException {
+		CleaningSnapshot data = snapshot.compacted();
+		RoomTable rooms = data.getRooms();
+		EventStore events = data.getEvents();
+		RoomIndex roomIndex = data.getRoomIndex();
+		CoverageIndex coverage = data.getCoverage();
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				Output out = new Output(channel);
+				out.putInt(MAGIC);
+				out.putInt(VERSION);
+				// The checked length and checksum are filled in once everything else is written
+				out.putLong(0);
+				out.putLong(0);
+				out.startChecksum();
+				out.putInt(loadMode.ordinal());
+				out.putInt(rooms.size());
+				for (long stamp : sourceStamp) {
+					out.putLong(stamp);
+				}
+				out.putLong(data.getEventCount());
+				out.putLong(data.getCoverageExactAfter());
+				out.putInt(events.size());
+				out.putInt(coverage.size());
+
+				for (int i = 0; i < events.size(); i++) {
+					out.putLong(events.getTime(i));
+				}
+				for (int i = 0; i < coverage.size(); i++) {
+					out.putLong(coverage.getTime(i));
+				}
+				for (int i = 0; i <= coverage.size(); i++) {
+					out.putLong(coverage.cleanedBefore(i));
+				}
+				for (int room = 0; room < rooms.size(); room++) {
+					out.putLong(rooms.getArea(room));
+				}
+				for (int i = 0; i < events.size(); i++) {
+					out.putInt(events.getRoom(i));
+				}
+				int start = 0;
+				for (int room = 0; room < rooms.size(); room++) {
+					out.putInt(start);
+					start += roomIndex.size(room);
+				}
+				out.putInt(start);
+				for (int room = 0; room < rooms.size(); room++) {
+					for (int k = 0; k < roomIndex.size(room); k++) {
+						out.putInt(roomIndex.get(room, k));
+					}
+				}
+				for (int room = 0; room < rooms.size(); room++) {
+					out.putInt(data.getCount(room));
+				}
+				for (int i = 0; i < events.size(); i++) {
+					out.putByte((byte) events.getPercent(i));
+				}
+				for (int room = 0; room < rooms.size(); room++) {
+					byte[] id = rooms.getId(room).getBytes(StandardCharsets.UTF_8);
+					out.putInt(id.length);
+					out.putBytes(id);
+				}
+
+				out.finish(CHECKED_LENGTH_POSITION);
+			}
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			// A half written snapshot is never loaded, but it should not be left on disk either
+			try {
+				Files.deleteIfExists(temporary);
+			} catch (IOException deleteFailure) {
+				e.addSuppressed(deleteFailure);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Loads a snapshot if it is current
+	 *
+	 * @param path where the snapshot was saved
+	 * @param config the data structures the loaded snapshot builds its maps from
+	 * @param loadMode the way the cleaning log file should be loaded
+	 * @param sourceStamp the sizes and last modified times of the files the snapshot should be built from
+	 * @return CleaningSnapshot the loaded snapshot, or null if there is no snapshot or it is stale
+	 * @throws IOException if the file cannot be read
+	*/
+	static CleaningSnapshot read(Path path, ManagerConfig config, LoadMode loadMode, long[] sourceStamp) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE) {
+				return null;
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				return null;
+			}
+			long checkedLength = header.getLong();
+			long checksum = header.getLong();
+			if (header.getInt() != loadMode.ordinal()) {
+				return null;
+			}
+			int roomCount = header.getInt();
+			for (long stamp : sourceStamp) {
+				if (header.getLong() != stamp) {
+					return null;
+				}
+			}
+			long eventCount = header.getLong();
+			long coverageExactAfter = header.getLong();
+			int eventSize = header.getInt();
+			int coverageSize = header.getInt();
+			if (channel.size() != CHECKED_START + checkedLength || checksum(channel) != checksum) {
+				return null;
+			}
+
+			Input in = new Input(channel, HEADER_SIZE);
+			long[] times = in.getLongs(eventSize);
+			long[] coverageTimes = in.getLongs(coverageSize);
+			long[] coveragePrefix = in.getLongs(coverageSize + 1);
+			long[] areas = in.getLongs(roomCount);
+			int[] eventRooms = in.getInts(eventSize);
+			int[] roomStart = in.getInts(roomCount + 1);
+			int[] order = in.getInts(eventSize);
+			int[] counts = in.getInts(roomCount);
+			byte[] percents = in.getBytes(eventSize);
+			String[] ids = new String[roomCount];
+			for (int room = 0; room < roomCount; room++) {
+				ids[room] = new String(in.getBytes(in.getInts(1)[0]), StandardCharsets.UTF_8);
+			}
+
+			return new CleaningSnapshot(config, new RoomTable(ids, areas), new EventStore(times, eventRooms, percents),
+					new RoomIndex(roomStart, order), new CoverageIndex(coverageTimes, coveragePrefix), counts, eventCount, coverageExactAfter);
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Private helper method that computes the checksum of everything after the checksum
+	 *
+	 * @param channel the snapshot file
+	 * @return long the CRC-32C checksum
+	 * @throws IOException if the file cannot be read
+	*/
+	private static long checksum(FileChannel channel) throws IOException {
+		CRC32C crc = new CRC32C();
+		long position = CHECKED_START;
+		long end = channel.size();
+		while (position < end) {
+			int regionSize = (int) Math.min(end - position, MAX_REGION);
+			crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize));
+			position += regionSize;
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Class that writes primitive values to a file through a buffer, keeping a checksum
+	 * of everything written after the checksum is started
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class Output {
+
+		/** The file written to */
+		private final FileChannel channel;
+		/** The bytes not yet written to the file */
+		private final ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		/** The checksum of the bytes written after the checksum was started, or null before then */
+		private CRC32C crc = null;
+		/** The number of bytes written after the checksum was started */
+		private long checked = 0;
+
+		/**
+		 * The constructor that takes in the file to write to
+		 * @param channel the file written to
+		*/
+		Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Writes a long
+		 * @param value the value to write
+		 * @throws IOException if the file cannot be written
+		*/
+		void putLong(long value) throws IOException {
+			ensure(Long.BYTES);
+			buffer.putLong(value);
+		}
+
+		/**
+		 * Writes an int
+		 * @param value the value to write
+		 * @throws IOException if the file cannot be written
+		*/
+		void putInt(int value) throws IOException {
+			ensure(Integer.BYTES);
+			buffer.putInt(value);
+		}
+
+		/**
+		 * Writes a byte
+		 * @param value the value to write
+		 * @throws IOException if the file cannot be written
+		*/
+		void putByte(byte value) throws IOException {
+			ensure(1);
+			buffer.put(value);
+		}
+
+		/**
+		 * Writes an array of bytes
+		 * @param values the values to write
+		 * @throws IOException if the file cannot be written
+		*/
+		void putBytes(byte[] values) throws IOException {
+			for (byte value : values) {
+				putByte(value);
+			}
+		}
+
+		/**
+		 * Starts the checksum from the next byte written
+		 * @throws IOException if the file cannot be written
+		*/
+		void startChecksum() throws IOException {
+			flush();
+			crc = new CRC32C();
+		}
+
+		/**
+		 * Writes what is left in the buffer, then fills in the checked length and checksum
+		 * @param position where the checked length is written, followed by the checksum
+		 * @throws IOException if the file cannot be written
+		*/
+		void finish(long position) throws IOException {
+			flush();
+			ByteBuffer trailer = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			trailer.putLong(checked).putLong(crc.getValue()).flip();
+			while (trailer.hasRemaining()) {
+				position += channel.write(trailer, position);
+			}
+			channel.force(true);
+		}
+
+		/**
+		 * Private helper method that writes the buffer if it does not have room for a value
+		 * @param bytes the size of the value
+		 * @throws IOException if the file cannot be written
+		*/
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		/**
+		 * Private helper method that writes the buffer to the file
+		 * @throws IOException if the file cannot be written
+		*/
+		private void flush() throws IOException {
+			buffer.flip();
+			if (crc != null) {
+				checked += buffer.remaining();
+				crc.update(buffer.duplicate());
+			}
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Class that reads primitive arrays from a file by memory-mapping it a region at a time
+	 *
+	 * @author Lalitha Edupuganti
+	*/
+	private static class Input {
+
+		/** The file read from */
+		private final FileChannel channel;
+		/** The mapped region being read */
+		private MappedByteBuffer region;
+		/** The position in the file of the start of the region */
+		private long regionStart;
+
+		/**
+		 * The constructor that starts reading at a position in a file
+		 * @param channel the file read from
+		 * @param position where reading starts
+		 * @throws IOException if the file cannot be mapped
+		*/
+		Input(FileChannel channel, long position) throws IOException {
+			this.channel = channel;
+			map(position);
+		}
+
+		/**
+		 * Reads an array of longs
+		 * @param count the number of longs
+		 * @return long[] the longs
+		 * @throws IOException if the file cannot be mapped
+		*/
+		long[] getLongs(int count) throws IOException {
+			long[] values = new long[count];
+			int read = 0;
+			while (read < count) {
+				int n = Math.min(count - read, available(Long.BYTES) / Long.BYTES);
+				region.asLongBuffer().get(values, read, n);
+				region.position(region.position() + n * Long.BYTES);
+				read += n;
+			}
+			return values;
+		}
+
+		/**
+		 * Reads an array of ints
+		 * @param count the number of ints
+		 * @return int[] the ints
+		 * @throws IOException if the file cannot be mapped
+		*/
+		int[] getInts(int count) throws IOException {
+			int[] values = new int[count];
+			int read = 0;
+			while (read < count) {
+				int n = Math.min(count - read, available(Integer.BYTES) / Integer.BYTES);
+				region.asIntBuffer().get(values, read, n);
+				region.position(region.position() + n * Integer.BYTES);
+				read += n;
+			}
+			return values;
+		}
+
+		/**
+		 * Reads an array of bytes
+		 * @param count the number of bytes
+		 * @return byte[] the bytes
+		 * @throws IOException if the file cannot be mapped
+		*/
+		byte[] getBytes(int count) throws IOException {
+			byte[] values = new byte[count];
+			int read = 0;
+			while (read < count) {
+				int n = Math.min(count - read, available(1));
+				region.get(values, read, n);
+				read += n;
+			}
+			return values;
+		}
+
+		/**
+		 * Private helper method that maps the next region if the current one has less than
+		 * one value left, and returns how many bytes are left in the region
+		 * @param bytes the size of one value
+		 * @return int the bytes left in the region
+		 * @throws IOException if the file cannot be mapped
+		*/
+		private int available(int bytes) throws IOException {
+			if (region.remaining() < bytes) {
+				map(regionStart + region.position());
+			}
+			if (region.remaining() < bytes) {
+				throw new IOException("Snapshot file ends early");
+			}
+			return region.remaining();
+		}
+
+		/**
+		 * Private helper method that maps a region starting at a position in the file
+		 * @param position the start of the region
+		 * @throws IOException if the file cannot be mapped
+		*/
+		private void map(long position) throws IOException {
+			regionStart = position;
+			region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(channel.size() - position, MAX_REGION));
+			region.order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+*
+* Class that describes the bag of one vacuum in a fleet: which vacuum it is in, how many
+* square feet it holds, and when it was last replaced
+*
+* @author Lalitha Edupuganti
+*
+*/
+public final class VacuumBag {
+
+	/** The number of square feet a standard vacuum bag holds */
+	public static final int STANDARD_CAPACITY = 5280;
+
+	/** The ID of the vacuum the bag is in */
+	private final String vacuumId;
+	/** The number of square feet the bag holds */
+	private final int capacity;
+	/** When the bag was last replaced */
+	private final LocalDateTime lastReplaced;
+
+	/**
+	 * The constructor that takes in the vacuum, the bag's capacity, and when it was last replaced
+	 *
+	 * @param vacuumId the ID of the vacuum the bag is in
+	 * @param capacity the number of square feet the bag holds
+	 * @param lastReplaced when the bag was last replaced in the format MM/DD/YYYY HH:MM:SS
+	 * @throws IllegalArgumentException if the ID is missing, the capacity is not positive,
+	 * or the time is not in the format
+	*/
+	public VacuumBag(String vacuumId, int capacity, String lastReplaced) {
+		if (vacuumId == null || vacuumId.isBlank()) {
+			throw new IllegalArgumentException("Vacuum ID must not be empty");
+		}
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Bag capacity must be greater than 0");
+		}
+		this.vacuumId = vacuumId;
+		this.capacity = capacity;
+		try {
+			this.lastReplaced = LocalDateTime.parse(lastReplaced, ReportWriter.TIMESTAMP_FORMAT);
+		} catch (DateTimeParseException | NullPointerException e) {
+			throw new IllegalArgumentException("Date & time must be in the format: MM/DD/YYYY HH:MM:SS", e);
+		}
+	}
+
+	/**
+	 * Returns the ID of the vacuum the bag is in
+	 * @return vacuumId the vacuum ID
+	*/
+	public String getVacuumId() {
+		return vacuumId;
+	}
+
+	/**
+	 * Returns the number of square feet the bag holds
+	 * @return capacity the capacity in square feet
+	*/
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns when the bag was last replaced
+	 * @return lastReplaced the time the bag was last replaced
+	*/
+	public LocalDateTime getLastReplaced() {
+		return lastReplaced;
+	}
+
+}
@@ -0,0 +1,333 @@
+package edu.ncsu.csc316.cleaning.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+*
+* Class that times the stages of loading and reporting. Metrics are off unless the
+* cleaning.metrics system property is true or setEnabled is called, and while they are off
+* start returns null and stop returns straight away, so a timed stage costs one volatile read
+*
+* While metrics are on, every run of a stage adds to the stage's number of runs, total and
+* longest time, items handled and bytes allocated by the running thread, and is sent to the
+* flight recorder as a StageEvent. The totals are read through snapshot or through the MBean
+* registered by registerMBean
+*
+* @author Lalitha Edupuganti
+*
+*/
+public final class Metrics {
+
+	/** The name the MBean is registered under */
+	public static final String MBEAN_NAME = "edu.ncsu.csc316.cleaning:type=Metrics";
+
+	/** The stages, in the order of their totals */
+	private static final Stage[] STAGES = Stage.values();
+	/** The number of runs of each stage */
+	private static final LongAdder[] CALLS = adders();
+	/** The total nanoseconds of each stage */
+	private static final LongAdder[] NANOS = adders();
+	/** The items handled by each stage */
+	private static final LongAdder[] ITEMS = adders();
+	/** The bytes allocated while running each stage */
+	private static final LongAdder[] ALLOCATED = adders();
+	/** The longest single run of each stage, in nanoseconds */
+	private static final LongAccumulator[] MAX_NANOS = new LongAccumulator[STAGES.length];
+	/** The thread bean that counts allocated bytes, or null if the JVM does not count them */
+	private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+	/** Whether stages are being timed */
+	private static volatile boolean enabled = Boolean.getBoolean("cleaning.metrics");
+
+	static {
+		for (int i = 0; i < MAX_NANOS.length; i++) {
+			MAX_NANOS[i] = new LongAccumulator(Math::max, 0);
+		}
+	}
+
+	/**
+	 * Metrics are only used through static methods
+	*/
+	private Metrics() {
+	}
+
+	/**
+	 * Returns whether stages are being timed
+	 * @return boolean true if metrics are enabled
+	*/
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Turns timing of stages on or off. Stages already started when metrics are turned off
+	 * are still recorded when they stop
+	 *
+	 * @param on true to time stages
+	*/
+	public static void setEnabled(boolean on) {
+		enabled = on;
+	}
+
+	/**
+	 * Starts timing a run of a stage
+	 * @param stage the stage being run
+	 * @return Probe the running stage to pass to stop, or null if metrics are disabled
+	*/
+	public static Probe start(Stage stage) {
+		if (!enabled) {
+			return null;
+		}
+		return new Probe(stage);
+	}
+
+	/**
+	 * Stops timing a run of a stage and adds it to the stage's totals
+	 * @param probe the running stage returned by start, which may be null
+	 * @param items the number of cleaning events, rooms or vacuum bags the run handled
+	*/
+	public static void stop(Probe probe, long items) {
+		if (probe == null) {
+			return;
+		}
+		long nanos = System.nanoTime() - probe.startNanos;
+		long allocated = allocatedBytes() - probe.startAllocated;
+		if (allocated < 0 || probe.startAllocated < 0) {
+			allocated = 0;
+		}
+
+		int i = probe.stage.ordinal();
+		CALLS[i].increment();
+		NANOS[i].add(nanos);
+		ITEMS[i].add(items);
+		ALLOCATED[i].add(allocated);
+		MAX_NANOS[i].accumulate(nanos);
+
+		StageEvent event = probe.event;
+		event.end();
+		if (event.shouldCommit()) {
+			event.stage = probe.stage.name();
+			event.items = items;
+			event.allocatedBytes = allocated;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Returns a copy of every stage's totals
+	 * @return MetricsSnapshot the totals as they are now
+	*/
+	public static MetricsSnapshot snapshot() {
+		int n = STAGES.length;
+		long[] calls = new long[n];
+		long[] nanos = new long[n];
+		long[] maxNanos = new long[n];
+		long[] items = new long[n];
+		long[] allocated = new long[n];
+		for (int i = 0; i < n; i++) {
+			calls[i] = CALLS[i].sum();
+			nanos[i] = NANOS[i].sum();
+			maxNanos[i] = MAX_NANOS[i].get();
+			items[i] = ITEMS[i].sum();
+			allocated[i] = ALLOCATED[i].sum();
+		}
+		return new MetricsSnapshot(calls, nanos, maxNanos, items, allocated);
+	}
+
+	/**
+	 * Sets every stage's totals back to zero
+	*/
+	public static void reset() {
+		for (int i = 0; i < STAGES.length; i++) {
+			CALLS[i].reset();
+			NANOS[i].reset();
+			MAX_NANOS[i].reset();
+			ITEMS[i].reset();
+			ALLOCATED[i].reset();
+		}
+	}
+
+	/**
+	 * Registers the metrics MBean with the platform MBean server under MBEAN_NAME, if it
+	 * is not registered already
+	 *
+	 * @throws IllegalStateException if the MBean cannot be registered
+	*/
+	public static synchronized void registerMBean() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(MBEAN_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MetricsBean(), name);
+			}
+		} catch (InstanceAlreadyExistsException e) {
+			// Registered by another class loader in the meantime
+		} catch (JMException e) {
+			throw new IllegalStateException("Metrics MBean could not be registered", e);
+		}
+	}
+
+	/**
+	 * Returns the bytes allocated so far by the current thread
+	 * @return long the allocated bytes, or -1 if the JVM does not count them
+	*/
+	private static long allocatedBytes() {
+		if (THREADS == null) {
+			return -1;
+		}
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Returns the thread bean if it can count allocated bytes
+	 * @return ThreadMXBean the thread bean with allocation counting on, or null
+	*/
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+		if (!counter.isThreadAllocatedMemorySupported()) {
+			return null;
+		}
+		if (!counter.isThreadAllocatedMemoryEnabled()) {
+			counter.setThreadAllocatedMemoryEnabled(true);
+		}
+		return counter;
+	}
+
+	/**
+	 * Returns one adder for each stage
+	 * @return LongAdder[] the adders
+	*/
+	private static LongAdder[] adders() {
+		LongAdder[] adders = new LongAdder[Stage.values().length];
+		for (int i = 0; i < adders.length; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	/**
+	 *
+	 * A run of a stage that has been started and not yet stopped
+	 *
+	 * @author Lalitha Edupuganti
+	 *
+	*/
+	public static final class Probe {
+
+		/** The stage being run */
+		private final Stage stage;
+		/** The flight recorder event for the run */
+		private final StageEvent event;
+		/** The bytes the thread had allocated when the run started */
+		private final long startAllocated;
+		/** The time the run started */
+		private final long startNanos;
+
+		/**
+		 * The constructor that starts the run
+		 * @param stage the stage being run
+		*/
+		private Probe(Stage stage) {
+			this.stage = stage;
+			this.event = new StageEvent();
+			this.startAllocated = allocatedBytes();
+			event.begin();
+			this.startNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 *
+	 * The MBean that shows the totals to JMX clients
+	 *
+	 * @author Lalitha Edupuganti
+	 *
+	*/
+	private static final class MetricsBean implements MetricsMXBean {
+
+		/**
+		 * Returns whether stages are being timed
+		 * @return boolean true if metrics are enabled
+		*/
+		@Override
+		public boolean isEnabled() {
+			return Metrics.isEnabled();
+		}
+
+		/**
+		 * Turns timing of stages on or off
+		 * @param enabled true to time stages
+		*/
+		@Override
+		public void setEnabled(boolean enabled) {
+			Metrics.setEnabled(enabled);
+		}
+
+		/**
+		 * Returns the number of times each stage ran
+		 * @return Map the number of runs of each stage
+		*/
+		@Override
+		public Map<String, Long> getCalls() {
+			return snapshot().getCalls();
+		}
+
+		/**
+		 * Returns the total time spent in each stage
+		 * @return Map the total nanoseconds of each stage
+		*/
+		@Override
+		public Map<String, Long> getTotalNanos() {
+			return snapshot().getTotalNanos();
+		}
+
+		/**
+		 * Returns the longest single run of each stage
+		 * @return Map the most nanoseconds of one run of each stage
+		*/
+		@Override
+		public Map<String, Long> getMaxNanos() {
+			return snapshot().getMaxNanos();
+		}
+
+		/**
+		 * Returns the number of items each stage handled
+		 * @return Map the number of items of each stage
+		*/
+		@Override
+		public Map<String, Long> getItems() {
+			return snapshot().getItems();
+		}
+
+		/**
+		 * Returns the bytes allocated by the threads that ran each stage
+		 * @return Map the allocated bytes of each stage
+		*/
+		@Override
+		public Map<String, Long> getAllocatedBytes() {
+			return snapshot().getAllocatedBytes();
+		}
+
+		/**
+		 * Sets every stage's totals back to zero
+		*/
+		@Override
+		public void reset() {
+			Metrics.reset();
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+package edu.ncsu.csc316.cleaning.metrics;
+
+import java.util.Map;
+
+/**
+*
+* The management interface the metrics are shown through in JConsole, VisualVM or any other
+* JMX client. Each map holds one value for every stage, keyed by the stage's name
+*
+* @author Lalitha Edupuganti
+*
+*/
+public interface MetricsMXBean {
+
+	/**
+	 * Returns whether stages are being timed
+	 * @return boolean true if metrics are enabled
+	*/
+	boolean isEnabled();
+
+	/**
+	 * Turns timing of stages on or off
+	 * @param enabled true to time stages
+	*/
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Returns the number of times each stage ran
+	 * @return Map the number of runs of each stage
+	*/
+	Map<String, Long> getCalls();
+
+	/**
+	 * Returns the total time spent in each stage
+	 * @return Map the total nanoseconds of each stage
+	*/
+	Map<String, Long> getTotalNanos();
+
+	/**
+	 * Returns the longest single run of each stage
+	 * @return Map the most nanoseconds of one run of each stage
+	*/
+	Map<String, Long> getMaxNanos();
+
+	/**
+	 * Returns the number of cleaning events, rooms or vacuum bags each stage handled
+	 * @return Map the number of items of each stage
+	*/
+	Map<String, Long> getItems();
+
+	/**
+	 * Returns the bytes allocated by the threads that ran each stage
+	 * @return Map the allocated bytes of each stage
+	*/
+	Map<String, Long> getAllocatedBytes();
+
+	/**
+	 * Sets every stage's totals back to zero
+	*/
+	void reset();
+
+}
@@ -0,0 +1,170 @@
+package edu.ncsu.csc316.cleaning.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+*
+* Class that holds a copy of every stage's totals taken at one moment. Stages keep running
+* after a snapshot is taken, so two snapshots can be compared to see what ran between them
+*
+* @author Lalitha Edupuganti
+*
+*/
+public final class MetricsSnapshot {
+
+	/** The number of nanoseconds in a millisecond */
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	/** The number of runs of each stage, by ordinal */
+	private final long[] calls;
+	/** The total nanoseconds of each stage, by ordinal */
+	private final long[] nanos;
+	/** The longest single run of each stage, by ordinal */
+	private final long[] maxNanos;
+	/** The items handled by each stage, by ordinal */
+	private final long[] items;
+	/** The bytes allocated while running each stage, by ordinal */
+	private final long[] allocated;
+
+	/**
+	 * The constructor that holds the totals copied by Metrics
+	 *
+	 * @param calls the number of runs of each stage
+	 * @param nanos the total nanoseconds of each stage
+	 * @param maxNanos the longest single run of each stage
+	 * @param items the items handled by each stage
+	 * @param allocated the bytes allocated while running each stage
+	*/
+	MetricsSnapshot(long[] calls, long[] nanos, long[] maxNanos, long[] items, long[] allocated) {
+		this.calls = calls;
+		this.nanos = nanos;
+		this.maxNanos = maxNanos;
+		this.items = items;
+		this.allocated = allocated;
+	}
+
+	/**
+	 * Returns the number of times a stage ran
+	 * @param stage the stage
+	 * @return long the number of runs
+	*/
+	public long getCalls(Stage stage) {
+		return calls[stage.ordinal()];
+	}
+
+	/**
+	 * Returns the total time spent in a stage
+	 * @param stage the stage
+	 * @return long the total nanoseconds
+	*/
+	public long getTotalNanos(Stage stage) {
+		return nanos[stage.ordinal()];
+	}
+
+	/**
+	 * Returns the longest single run of a stage
+	 * @param stage the stage
+	 * @return long the most nanoseconds of one run
+	*/
+	public long getMaxNanos(Stage stage) {
+		return maxNanos[stage.ordinal()];
+	}
+
+	/**
+	 * Returns the number of cleaning events, rooms or vacuum bags a stage handled
+	 * @param stage the stage
+	 * @return long the number of items
+	*/
+	public long getItems(Stage stage) {
+		return items[stage.ordinal()];
+	}
+
+	/**
+	 * Returns the bytes allocated by the threads that ran a stage, or 0 if the JVM
+	 * does not count allocated bytes
+	 *
+	 * @param stage the stage
+	 * @return long the allocated bytes
+	*/
+	public long getAllocatedBytes(Stage stage) {
+		return allocated[stage.ordinal()];
+	}
+
+	/**
+	 * Returns the number of runs of each stage keyed by the stage's name
+	 * @return Map the number of runs of each stage
+	*/
+	public Map<String, Long> getCalls() {
+		return byName(calls);
+	}
+
+	/**
+	 * Returns the total nanoseconds of each stage keyed by the stage's name
+	 * @return Map the total nanoseconds of each stage
+	*/
+	public Map<String, Long> getTotalNanos() {
+		return byName(nanos);
+	}
+
+	/**
+	 * Returns the longest single run of each stage keyed by the stage's name
+	 * @return Map the most nanoseconds of one run of each stage
+	*/
+	public Map<String, Long> getMaxNanos() {
+		return byName(maxNanos);
+	}
+
+	/**
+	 * Returns the items handled by each stage keyed by the stage's name
+	 * @return Map the number of items of each stage
+	*/
+	public Map<String, Long> getItems() {
+		return byName(items);
+	}
+
+	/**
+	 * Returns the bytes allocated while running each stage keyed by the stage's name
+	 * @return Map the allocated bytes of each stage
+	*/
+	public Map<String, Long> getAllocatedBytes() {
+		return byName(allocated);
+	}
+
+	/**
+	 * Returns a report of every stage that has run, one line per stage
+	 * @return String the report
+	*/
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Metrics [");
+		for (Stage stage : Stage.values()) {
+			int i = stage.ordinal();
+			if (calls[i] == 0) {
+				continue;
+			}
+			sb.append("\n   ").append(stage.name())
+				.append(": ").append(calls[i]).append(" calls, ")
+				.append(String.format("%.3f", nanos[i] / NANOS_PER_MILLI)).append(" ms total, ")
+				.append(String.format("%.3f", maxNanos[i] / NANOS_PER_MILLI)).append(" ms max, ")
+				.append(items[i]).append(" items, ")
+				.append(allocated[i]).append(" bytes allocated");
+		}
+		return sb.append("\n]").toString();
+	}
+
+	/**
+	 * Returns one total for each stage keyed by the stage's name, in stage order
+	 * @param totals the totals by ordinal
+	 * @return Map the totals by name
+	*/
+	private static Map<String, Long> byName(long[] totals) {
+		Map<String, Long> map = new LinkedHashMap<String, Long>();
+		for (Stage stage : Stage.values()) {
+			map.put(stage.name(), totals[stage.ordinal()]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+}
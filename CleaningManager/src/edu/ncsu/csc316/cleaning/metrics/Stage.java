@@ -0,0 +1,40 @@
+package edu.ncsu.csc316.cleaning.metrics;
+
+/**
+*
+* The stages of loading and reporting that are timed when metrics are enabled
+* Stages can run inside other stages, so LOAD_FILES includes the SORT_EVENTS and
+* BUILD_INDEXES it runs
+*
+* @author Lalitha Edupuganti
+*
+*/
+public enum Stage {
+
+	/** Reading the room and cleaning log files into a snapshot, counting the cleaning events read */
+	LOAD_FILES,
+
+	/** Sorting cleaning events by time, counting the events sorted */
+	SORT_EVENTS,
+
+	/** Building the room and coverage indexes over the sorted events, counting the events indexed */
+	BUILD_INDEXES,
+
+	/** Merging the sorted cleaning log files of a set of files, counting the events merged */
+	MERGE_LOGS,
+
+	/** Building the maps of each room's events or counts, counting the rooms in the map */
+	BUILD_MAPS,
+
+	/** Adding cleaning events to a loaded manager, counting the events added */
+	ADD_EVENTS,
+
+	/** Loading a binary snapshot file, counting the cleaning events loaded */
+	READ_SNAPSHOT,
+
+	/** Saving a binary snapshot file, counting the cleaning events saved */
+	WRITE_SNAPSHOT,
+
+	/** Writing a report, counting the rooms or vacuum bags written */
+	RENDER_REPORT
+}
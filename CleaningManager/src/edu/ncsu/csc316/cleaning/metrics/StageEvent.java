@@ -0,0 +1,37 @@
+package edu.ncsu.csc316.cleaning.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+*
+* Flight recorder event for one run of a stage, so stages show up on a recording next to
+* garbage collection and thread activity. The event is only built while metrics are enabled,
+* and only committed when a recording has the event turned on
+*
+* @author Lalitha Edupuganti
+*
+*/
+@Name("edu.ncsu.csc316.cleaning.Stage")
+@Label("Cleaning Manager Stage")
+@Category("Cleaning Manager")
+@Description("One run of a stage of loading or reporting")
+final class StageEvent extends jdk.jfr.Event {
+
+	/** The name of the stage */
+	@Label("Stage")
+	String stage;
+
+	/** The number of cleaning events, rooms or vacuum bags the stage handled */
+	@Label("Items")
+	long items;
+
+	/** The bytes allocated by the thread that ran the stage */
+	@Label("Allocated")
+	@DataAmount
+	long allocatedBytes;
+
+}
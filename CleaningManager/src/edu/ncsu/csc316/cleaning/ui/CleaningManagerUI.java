@@ -5,93 +5,182 @@ import java.io.FileNotFoundException;
 import java.util.Scanner;
 
 
+import edu.ncsu.csc316.cleaning.dsa.DSAFactory;
 import edu.ncsu.csc316.cleaning.manager.ReportManager;
+import edu.ncsu.csc316.cleaning.manager.RoomReportPages;
+import edu.ncsu.csc316.cleaning.manager.VacuumBag;
+import edu.ncsu.csc316.dsa.list.List;
 
 /**
 * The user interface used for black box testing, holds the main method
-* 
+*
+* The files are loaded once when they are entered and the same report manager answers
+* every action after that, until the files are reloaded. The time taken to load the files
+* and to build each report is shown, so it is clear where the time goes
+*
 * @author Lalitha Edupuganti
 *
 */
 public class CleaningManagerUI {
 
 	/**
-	* The main method that interacts with the user's commands and 
+	* The main method that interacts with the user's commands and
 	* perform the actions requested
 	* @param args the arguments provided
 	*/
 	public static void main (String [] args) {
 		Scanner in = new Scanner(System.in);
 		System.out.println("Welcome to the Cleaning Manager System!");
-		boolean alreadyChecked = false;
+		ReportManager newReportManager = null;
 		String roomFile = null;
 		String cleaningEventFile = null;
+
+		while (newReportManager == null) {
+			System.out.print("Please enter the Room List File Name: ");
+			roomFile = in.next();
+
+			System.out.print("Please enter the Cleaning Events Log File Name: ");
+			cleaningEventFile = in.next();
+
+			newReportManager = load(roomFile, cleaningEventFile);
+		}
+
 		while (true) {
-			
-		    if(!alreadyChecked) {
-				System.out.print("Please enter the Room List File Name: ");
-				roomFile = in.next();
-	
-				System.out.print("Please enter the Cleaning Events Log File Name: ");
-				cleaningEventFile = in.next();
-		    }
-			
-			try {
-				ReportManager newReportManager = new ReportManager(roomFile, cleaningEventFile);
-	
-				boolean returnToMainMenu = false;
-				
-				System.out.println("Enter a number on which action you would like to take: \n"
-						+ "   1. View the most frequently cleaned rooms\n   2. View a report of cleanings by room\n"
-						+ "   3. View estimated remaining vaccum bag life\n"
-						+ "   4. Close the program");
-				System.out.print("Task: ");
-				
-				int action = in.nextInt();
-				
-				while(!returnToMainMenu) {
-					switch(action) {
-						case 1:
-							System.out.print("Please specify the number of rooms to generate the frequency report: ");
-							int count = in.nextInt();
-							System.out.println(newReportManager.getFrequencyReport(count));
-							returnToMainMenu = true;
-							alreadyChecked = true;
-							break;
-						case 2:
-							System.out.println(newReportManager.getRoomReport());
-							returnToMainMenu = true;
-							alreadyChecked = true;
-							break;
-						case 3:
-							System.out.print("Please enter the date to be checked in format MM/DD/YYYY HH:MM:SS: ");
-							String timeStamp = in.next() + " " + in.next();
-							System.out.print(newReportManager.getVacuumBagReport(timeStamp) + "\n");  
-							returnToMainMenu = true;
-							alreadyChecked = true;
-							break;
-						case 4:
-							System.out.println("Program is closed");
-							in.close();		
-							return;
-						default:
-							System.out.println("Please choose one of the options provided!");
-							returnToMainMenu = true;
-							alreadyChecked = true;
-							break;
+			System.out.println("Enter a number on which action you would like to take: \n"
+					+ "   1. View the most frequently cleaned rooms\n   2. View a report of cleanings by room\n"
+					+ "   3. View estimated remaining vaccum bag life\n"
+					+ "   4. Close the program\n   5. Reload the files\n"
+					+ "   6. View the report of cleanings by room a page at a time\n"
+					+ "   7. View estimated remaining vacuum bag life for a fleet of vacuums");
+			System.out.print("Task: ");
+
+			int action = in.nextInt();
+			long start = System.nanoTime();
+
+			switch(action) {
+				case 1:
+					System.out.print("Please specify the number of rooms to generate the frequency report: ");
+					int count = in.nextInt();
+					start = System.nanoTime();
+					printReport(newReportManager.getFrequencyReport(count), start);
+					break;
+				case 2:
+					printReport(newReportManager.getRoomReport(), start);
+					break;
+				case 3:
+					System.out.print("Please enter the date to be checked in format MM/DD/YYYY HH:MM:SS: ");
+					String timeStamp = in.next() + " " + in.next();
+					start = System.nanoTime();
+					printReport(newReportManager.getVacuumBagReport(timeStamp), start);
+					break;
+				case 4:
+					System.out.println("Program is closed");
+					in.close();
+					return;
+				case 5:
+					// The old files stay loaded if the new load fails
+					ReportManager reloaded = load(roomFile, cleaningEventFile);
+					if (reloaded != null) {
+						newReportManager = reloaded;
+					}
+					break;
+				case 6:
+					System.out.print("Please specify the number of rooms on each page and cleanings listed for each room: ");
+					int roomsPerPage = in.nextInt();
+					int eventsPerRoom = in.nextInt();
+					showPages(in, newReportManager, roomsPerPage, eventsPerRoom);
+					break;
+				case 7:
+					System.out.print("Please enter the number of vacuums in the fleet: ");
+					int vacuums = in.nextInt();
+					List<VacuumBag> bags = DSAFactory.getIndexedList();
+					try {
+						for (int i = 0; i < vacuums; i++) {
+							System.out.print("Please enter the vacuum ID, bag capacity in SQ FT, and date replaced in format MM/DD/YYYY HH:MM:SS: ");
+							bags.addLast(new VacuumBag(in.next(), in.nextInt(), in.next() + " " + in.next()));
+						}
+					} catch (IllegalArgumentException e) {
+						System.out.println(e.getMessage());
+						break;
 					}
-					
-					 if (returnToMainMenu) {
-	                     break; 
-	                 }
+					start = System.nanoTime();
+					printReport(newReportManager.getVacuumFleetReport(bags, true), start);
+					break;
+				default:
+					System.out.println("Please choose one of the options provided!");
+					break;
+			}
+		}
+
+	}
+
+	/**
+	 * Private helper method that loads the room and cleaning log files and shows how long it took
+	 * @param roomFile the file that holds the list of rooms
+	 * @param cleaningEventFile the file that holds the list of cleaning events
+	 * @return ReportManager the report manager for the files, or null if a file does not exist
+	*/
+	private static ReportManager load(String roomFile, String cleaningEventFile) {
+		long start = System.nanoTime();
+		try {
+			ReportManager loaded = new ReportManager(roomFile, cleaningEventFile);
+			printTime("Files loaded", System.nanoTime() - start);
+			return loaded;
+		} catch (FileNotFoundException e) {
+			System.out.println("The specified file is does not exist, please enter a new file.");
+			return null;
+		}
+	}
+
+	/**
+	 * Private helper method that shows the room report one page at a time, until every page
+	 * has been shown or the user stops
+	 * @param in the scanner the user's answers are read from
+	 * @param reportManager the report manager the pages come from
+	 * @param roomsPerPage the number of rooms on each page
+	 * @param eventsPerRoom the most cleanings listed for each room
+	*/
+	private static void showPages(Scanner in, ReportManager reportManager, int roomsPerPage, int eventsPerRoom) {
+		if (roomsPerPage <= 0 || eventsPerRoom <= 0) {
+			System.out.println("Rooms per page and events per room must be greater than 0");
+			return;
+		}
+		RoomReportPages pages = reportManager.getRoomReportPages(roomsPerPage, eventsPerRoom);
+		while (pages.hasNext()) {
+			int page = pages.getNextPage() + 1;
+			long start = System.nanoTime();
+			String nextPage = pages.next();
+			long elapsed = System.nanoTime() - start;
+			System.out.println(nextPage);
+			printTime("Page " + page + " of " + pages.getPageCount() + " built", elapsed);
+			if (pages.hasNext()) {
+				System.out.print("Show the next page? (y/n): ");
+				if (!in.next().equalsIgnoreCase("y")) {
+					return;
 				}
-				
-			} catch (FileNotFoundException e) {
-				System.out.println("The specified file is does not exist, please enter a new file.");
 			}
-			
 		}
-		
+	}
+
+	/**
+	 * Private helper method that shows a report and the time taken to build it. The time is
+	 * taken before the report is printed, so it does not include writing to the console
+	 * @param report the report that was built
+	 * @param start the time from System.nanoTime when the report was started
+	*/
+	private static void printReport(String report, long start) {
+		long elapsed = System.nanoTime() - start;
+		System.out.println(report);
+		printTime("Report built", elapsed);
+	}
+
+	/**
+	 * Private helper method that shows the time taken by an action
+	 * @param action what was timed
+	 * @param elapsed the time taken in nanoseconds
+	*/
+	private static void printTime(String action, long elapsed) {
+		System.out.printf("(%s in %.1f ms)%n", action, elapsed / 1e6);
 	}
 
 }
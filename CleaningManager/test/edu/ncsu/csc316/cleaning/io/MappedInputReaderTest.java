@@ -0,0 +1,87 @@
+package edu.ncsu.csc316.cleaning.io;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+import edu.ncsu.csc316.cleaning.data.RoomRecord;
+import edu.ncsu.csc316.cleaning.dsa.DSAFactory;
+import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.dsa.list.List;
+
+/**
+*
+* Tests that the memory-mapped reader reads the same rooms and cleaning events
+* as the InputReader provided with the project
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class MappedInputReaderTest {
+
+	/** New cleaning events log*/
+	private final String cleaningTestFile = "input/text_testCEOne.txt";
+	/** New rooms list*/
+	private final String roomTestFile = "input/text_testRoomOne.txt";
+
+	/**
+	 *
+	 * Sets the list type used by both readers
+	 *
+	*/
+	@Before
+	public void setUp() {
+		DSAFactory.setListType(DataStructure.ARRAYBASEDLIST);
+	}
+
+	/**
+	 *
+	 * Tests that the cleaning events match the ones read by InputReader
+	 *
+	*/
+	@Test
+	public void readLogFile() throws FileNotFoundException {
+		List<CleaningLogEntry> expected = InputReader.readLogFile(cleaningTestFile);
+		List<CleaningLogEntry> actual = MappedInputReader.readLogFile(cleaningTestFile);
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+			assertEquals(expected.get(i).getRoomID(), actual.get(i).getRoomID());
+			assertEquals(expected.get(i).getPercentCompleted(), actual.get(i).getPercentCompleted());
+		}
+	}
+
+	/**
+	 *
+	 * Tests that the rooms match the ones read by InputReader
+	 *
+	*/
+	@Test
+	public void readRoomFile() throws FileNotFoundException {
+		List<RoomRecord> expected = InputReader.readRoomFile(roomTestFile);
+		List<RoomRecord> actual = MappedInputReader.readRoomFile(roomTestFile);
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getRoomID(), actual.get(i).getRoomID());
+			assertEquals(expected.get(i).getLength(), actual.get(i).getLength());
+			assertEquals(expected.get(i).getWidth(), actual.get(i).getWidth());
+		}
+	}
+
+	/**
+	 *
+	 * Tests that a missing file is reported the same way as InputReader
+	 *
+	*/
+	@Test(expected = FileNotFoundException.class)
+	public void readMissingFile() throws FileNotFoundException {
+		MappedInputReader.readLogFile("input/missing.txt");
+	}
+
+}
@@ -0,0 +1,639 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.cleaning.metrics.Metrics;
+import edu.ncsu.csc316.cleaning.metrics.Stage;
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+
+/**
+*
+* Tests adding cleaning events to a loaded manager, and querying the manager
+* from several threads while events are being added
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class CleaningManagerTest {
+
+	/** New cleaning events log*/
+	private final String cleaningTestFile = "input/text_testCEOne.txt";
+	/** New rooms list*/
+	private final String roomTestFile = "input/text_testRoomOne.txt";
+
+	/** New report manager instance*/
+	private ReportManager newReportManager;
+
+	/** Folder for cleaning logs written by the tests*/
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 *
+	 * Sets the new instance of the report manager
+	 *
+	*/
+	@Before
+	public void setUp() throws FileNotFoundException {
+		newReportManager = new ReportManager(roomTestFile, cleaningTestFile);
+	}
+
+	/**
+	 *
+	 * Tests that added events show up in every report, and events for rooms
+	 * that are not listed are left out
+	 *
+	*/
+	@Test
+	public void addEvents() throws FileNotFoundException {
+		List<CleaningLogEntry> newEvents = new ArrayBasedList<CleaningLogEntry>();
+		newEvents.addLast(new CleaningLogEntry(LocalDateTime.of(2021, 6, 2, 8, 0, 0), "Kitchen", 50));
+		newEvents.addLast(new CleaningLogEntry(LocalDateTime.of(2021, 5, 30, 10, 14, 41), "Living Room", 100));
+		newEvents.addLast(new CleaningLogEntry(LocalDateTime.of(2021, 6, 2, 9, 0, 0), "Garage", 100));
+
+		String oldVacuumReport = newReportManager.getVacuumBagReport("06/01/2021 13:39:01");
+		newReportManager.addEvents(newEvents);
+
+		String roomReport = newReportManager.getRoomReport();
+		assertTrue(roomReport.contains("   Kitchen was cleaned on [\n      06/02/2021 08:00:00\n   ]"));
+		assertTrue(roomReport.contains("   Living Room was cleaned on [\n      05/30/2021 10:14:41\n      05/30/2021 10:14:41\n"));
+		assertFalse(roomReport.contains("Garage"));
+		assertTrue(newReportManager.getFrequencyReport(1).contains("Living Room has been cleaned 7 times"));
+
+		// Office (12 x 14) at 78% was the only event since then, and the kitchen (18 x 20) at 50% is added
+		assertEquals("Vacuum Bag Report (last replaced 06/01/2021 13:39:01) [\n   Bag is due for replacement in 5149 SQ FT\n]", oldVacuumReport);
+		assertEquals("Vacuum Bag Report (last replaced 06/01/2021 13:39:01) [\n   Bag is due for replacement in 4969 SQ FT\n]",
+				newReportManager.getVacuumBagReport("06/01/2021 13:39:01"));
+	}
+
+	/**
+	 *
+	 * Tests that reports built while events are added on another thread each
+	 * see every added event or none of them
+	 *
+	*/
+	@Test
+	public void queryWhileAdding() throws Exception {
+		CleaningManager manager = new CleaningManager(roomTestFile, cleaningTestFile, DataStructure.SKIPLIST);
+		int baseCoverage = manager.getCoverageSince(LocalDateTime.of(2021, 1, 1, 0, 0));
+
+		ExecutorService threads = Executors.newFixedThreadPool(3);
+		try {
+			Future<?> writer = threads.submit(() -> {
+				for (int i = 0; i < 200; i++) {
+					// Two office cleanings of 12 x 14 at 50% add 168 square feet together
+					List<CleaningLogEntry> pair = new ArrayBasedList<CleaningLogEntry>();
+					pair.addLast(new CleaningLogEntry(LocalDateTime.of(2021, 7, 1, 0, 0).plusMinutes(i), "Office", 50));
+					pair.addLast(new CleaningLogEntry(LocalDateTime.of(2021, 7, 2, 0, 0).plusMinutes(i), "Office", 50));
+					manager.addEvents(pair);
+				}
+			});
+			Future<?>[] readers = new Future<?>[2];
+			for (int r = 0; r < readers.length; r++) {
+				readers[r] = threads.submit(() -> {
+					while (!writer.isDone()) {
+						CleaningSnapshot data = manager.getSnapshot();
+						int added = data.getCount(data.getRoomCount() - 1) - 1;
+						assertEquals(0, added % 2);
+						assertEquals(baseCoverage + added / 2 * 168, data.getCoverageSince(LocalDateTime.of(2021, 1, 1, 0, 0)));
+					}
+				});
+			}
+			writer.get();
+			for (Future<?> reader : readers) {
+				reader.get();
+			}
+		} finally {
+			threads.shutdown();
+		}
+
+		assertEquals(Integer.valueOf(401), manager.getCountsByRoom().get("Office"));
+		assertEquals(401, manager.getEventsByRoom().get("Office").size());
+	}
+
+	/**
+	 *
+	 * Tests that adding events one at a time, in and out of order and at the same
+	 * times as loaded events, gives the same reports as loading a log with the events
+	 * at the end, both before and after the added events are folded into the indexes
+	 *
+	*/
+	@Test
+	public void addEventMatchesLoad() throws IOException {
+		DateTimeFormatter format = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+		String[] rooms = {"Office", "Dining Room", "Living Room", "Guest Bedroom", "Guest Bathroom", "Foyer", "Kitchen", "Garage"};
+		StringBuilder log = new StringBuilder(new String(Files.readAllBytes(new File(cleaningTestFile).toPath()), StandardCharsets.UTF_8));
+		ReportManager added = new ReportManager(roomTestFile, cleaningTestFile);
+
+		Random random = new Random(14);
+		for (int i = 0; i < 10000; i++) {
+			// Mostly newer events, with some older ones and some at the time of a loaded event
+			LocalDateTime time = LocalDateTime.of(2021, 6, 1, 13, 39, 1);
+			if (random.nextInt(10) > 0) {
+				time = time.plusSeconds(random.nextInt(1000000) - 100000);
+			}
+			CleaningLogEntry newEvent = new CleaningLogEntry(time, rooms[random.nextInt(rooms.length)], random.nextInt(101));
+			added.addEvent(newEvent);
+			log.append(time.format(format)).append(",").append(newEvent.getRoomID()).append(",").append(newEvent.getPercentCompleted()).append("\n");
+
+			if (i == 100 || i == 9999) {
+				File logFile = folder.newFile();
+				Files.write(logFile.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+				ReportManager loaded = new ReportManager(roomTestFile, logFile.getPath());
+
+				assertEquals(loaded.getRoomReport(), added.getRoomReport());
+				assertEquals(loaded.getFrequencyReport(3), added.getFrequencyReport(3));
+				assertEquals(loaded.getFrequencyReport(10), added.getFrequencyReport(10));
+				assertEquals(loaded.getVacuumBagReport("06/01/2021 13:39:01"), added.getVacuumBagReport("06/01/2021 13:39:01"));
+				assertEquals(loaded.getVacuumBagReport("06/05/2021 00:00:00"), added.getVacuumBagReport("06/05/2021 00:00:00"));
+				assertEquals(loaded.getFrequencyReport(5, "05/30/2021 00:00:00", "06/05/2021 00:00:00"),
+						added.getFrequencyReport(5, "05/30/2021 00:00:00", "06/05/2021 00:00:00"));
+				assertEquals(loaded.getCoverageReport("05/30/2021 00:00:00", "06/05/2021 00:00:00"),
+						added.getCoverageReport("05/30/2021 00:00:00", "06/05/2021 00:00:00"));
+
+				// Bags out of order of replacement, so the fleet sweep has to sort them
+				List<VacuumBag> bags = new ManagerConfig(DataStructure.SKIPLIST).getIndexedList();
+				for (int day = 1; day <= 12; day++) {
+					bags.addLast(new VacuumBag("V" + day, VacuumBag.STANDARD_CAPACITY, String.format("06/%02d/2021 00:00:00", day * 5 % 12 + 1)));
+				}
+				String fleetReport = added.getVacuumFleetReport(bags, false);
+				assertEquals(loaded.getVacuumFleetReport(bags, true), added.getVacuumFleetReport(bags, true));
+				for (VacuumBag bag : bags) {
+					String replaced = bag.getLastReplaced().format(format);
+					String single = added.getVacuumBagReport(replaced);
+					String expected = single.contains("overdue") ? " is overdue for replacement!\n"
+							: " is due for replacement in " + single.substring(single.indexOf(" in ") + 4, single.indexOf(" SQ FT")) + " SQ FT\n";
+					assertTrue(fleetReport.contains("(last replaced " + replaced + ")" + expected));
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Tests that a backfill of a room's older cleanings, added from most recent to least
+	 * recent, keeps the room's added events in order in a tree of logarithmic height
+	 *
+	*/
+	@Test
+	public void addEventsBackfill() {
+		int size = 100000;
+		AddedEvents added = new AddedEvents(2);
+		for (int i = 0; i < size; i++) {
+			// Every event is older than every event added before it, and pairs share a time
+			added = added.add(1000000L - i / 2, 1, i % 101, 100);
+		}
+		assertEquals(size, added.size());
+		assertEquals(size, added.size(1));
+		assertEquals(0, added.size(0));
+		assertNull(added.walk(0).peek());
+		assertTrue(AddedEvents.Node.height(added.walk(1).peek()) <= 2 * 17 + 1);
+
+		AddedEvents.Walk walk = added.walk(1);
+		for (int i = 0; i < size; i++) {
+			AddedEvents.Node node = walk.peek();
+			assertEquals(1000000L - i / 2, node.time);
+			assertEquals(i % 101, node.percent);
+			walk.advance();
+		}
+		assertNull(walk.peek());
+		assertEquals(12, added.countSince(1, 1000000L - 5));
+		assertEquals(size, added.countSince(1, 0));
+		assertEquals(0, added.countSince(1, 1000001L));
+	}
+
+	/**
+	 *
+	 * Tests that following the log adds appended lines, waits for the rest of a
+	 * partly written line, and picks up appends on its own thread
+	 *
+	*/
+	@Test
+	public void followLog() throws IOException, InterruptedException {
+		File logFile = folder.newFile();
+		Files.copy(new File(cleaningTestFile).toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		CleaningManager manager = new CleaningManager(roomTestFile, logFile.getPath());
+
+		try (LogFollower follower = manager.follow()) {
+			assertSame(follower, manager.follow());
+			// The follower thread may read the lines first, so poll only makes sure they have been read
+			append(logFile, "06/02/2021 08:00:00,Kitchen,50\n06/02/2021 09:00:00,Kit");
+			follower.poll();
+			assertEquals(Integer.valueOf(1), manager.getCountsByRoom().get("Kitchen"));
+			assertEquals(logFile.length() - "06/02/2021 09:00:00,Kit".length(), follower.getOffset());
+
+			append(logFile, "chen,100\n\n06/02/2021 10:00:00,Kitchen,25\n");
+			follower.poll();
+			assertEquals(0, follower.poll());
+			assertEquals(logFile.length(), follower.getOffset());
+			assertEquals(Integer.valueOf(3), manager.getCountsByRoom().get("Kitchen"));
+
+			append(logFile, "06/02/2021 11:00:00,Kitchen,25\n");
+			for (int wait = 0; wait < 100 && manager.getCountsByRoom().get("Kitchen") < 4; wait++) {
+				Thread.sleep(100);
+			}
+			assertEquals(Integer.valueOf(4), manager.getCountsByRoom().get("Kitchen"));
+			assertTrue(follower.isRunning());
+		}
+	}
+
+	/**
+	 *
+	 * Tests that following starts just past the last line break each load mode read, so
+	 * lines and a partly written line appended after the load are added once, and a last
+	 * line loaded without its line break is not added again when the break is written
+	 *
+	*/
+	@Test
+	public void followAfterLoad() throws IOException {
+		for (LoadMode mode : LoadMode.values()) {
+			File logFile = folder.newFile();
+			Files.copy(new File(cleaningTestFile).toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			append(logFile, "06/02/2021 08:00:00,Kitchen,50");
+			CleaningManager manager = new CleaningManager(roomTestFile, logFile.getPath(), DataStructure.SEARCHTABLE, mode);
+			assertEquals(mode.name(), Integer.valueOf(1), manager.getCountsByRoom().get("Kitchen"));
+
+			append(logFile, "\n06/02/2021 09:00:00,Kitchen,25\n06/02/2021 10:00:00,Kit");
+			try (LogFollower follower = manager.follow()) {
+				follower.poll();
+				assertEquals(mode.name(), Integer.valueOf(2), manager.getCountsByRoom().get("Kitchen"));
+				assertEquals(logFile.length() - "06/02/2021 10:00:00,Kit".length(), follower.getOffset());
+
+				append(logFile, "chen,100\n");
+				follower.poll();
+				assertEquals(mode.name(), Integer.valueOf(3), manager.getCountsByRoom().get("Kitchen"));
+				assertTrue(follower.isRunning());
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Tests that a followed log that is truncated, replaced, or had more written to the last
+	 * line that was loaded stops the follower instead of adding its lines again
+	 *
+	*/
+	@Test
+	public void followRewrittenLog() throws IOException, InterruptedException {
+		File logFile = folder.newFile();
+		Files.copy(new File(cleaningTestFile).toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		byte[] original = Files.readAllBytes(logFile.toPath());
+		CleaningManager manager = new CleaningManager(roomTestFile, logFile.getPath());
+		try (LogFollower follower = manager.follow()) {
+			append(logFile, "06/02/2021 08:00:00,Kitchen,50\n");
+			follower.poll();
+			assertEquals(Integer.valueOf(1), manager.getCountsByRoom().get("Kitchen"));
+
+			// A rotated log starts again from its header
+			Files.write(logFile.toPath(), Arrays.copyOf(original, 40));
+			try {
+				follower.poll();
+				fail();
+			} catch (IllegalStateException e) {
+				assertTrue(e.getMessage().contains("is shorter than the"));
+			}
+			assertEquals(Integer.valueOf(1), manager.getCountsByRoom().get("Kitchen"));
+		}
+
+		// A replacement that is longer than what was read is found by its bytes
+		Files.write(logFile.toPath(), original);
+		manager = new CleaningManager(roomTestFile, logFile.getPath(), DataStructure.SEARCHTABLE, LoadMode.MAPPED);
+		LogFollower follower = manager.follow();
+		String replaced = new String(original, StandardCharsets.UTF_8).replace("Foyer,", "Foyer,1");
+		Files.write(logFile.toPath(), (replaced + "06/02/2021 08:00:00,Kitchen,50\n").getBytes(StandardCharsets.UTF_8));
+		for (int wait = 0; wait < 100 && follower.isRunning(); wait++) {
+			Thread.sleep(100);
+		}
+		assertFalse(follower.isRunning());
+		assertTrue(follower.getFailure() instanceof IllegalStateException);
+		assertTrue(follower.getFailure().getMessage().contains("was replaced after"));
+		assertEquals(Integer.valueOf(0), manager.getCountsByRoom().get("Kitchen"));
+
+		// The loaded last line was only the start of the line being written
+		Files.write(logFile.toPath(), original);
+		append(logFile, "06/02/2021 08:00:00,Kitchen,5");
+		manager = new CleaningManager(roomTestFile, logFile.getPath(), DataStructure.SEARCHTABLE, LoadMode.STREAMING);
+		append(logFile, "0\n");
+		try (LogFollower partial = manager.follow()) {
+			partial.poll();
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("was still being written when it was loaded"));
+		}
+		assertEquals(Integer.valueOf(1), manager.getCountsByRoom().get("Kitchen"));
+	}
+
+	/**
+	 *
+	 * Tests that a saved snapshot is loaded in place of the files while it is current and
+	 * holds only what was loaded from them, and that a snapshot for changed files, another
+	 * load mode or with a damaged byte is not loaded and is saved again from the files
+	 *
+	*/
+	@Test
+	public void snapshotFile() throws IOException {
+		File logFile = folder.newFile();
+		Files.copy(new File(cleaningTestFile).toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		String snapshotFile = new File(folder.getRoot(), "cleaning.snapshot").getPath();
+		ManagerConfig config = new ManagerConfig(DataStructure.SKIPLIST);
+
+		ReportManager loaded = new ReportManager(roomTestFile, logFile.getPath(), snapshotFile, config, LoadMode.MAPPED);
+		String roomReport = loaded.getRoomReport();
+		assertTrue(new File(snapshotFile).exists());
+
+		// An added event is not in the log, so it is not saved with the log's snapshot
+		CleaningManager manager = new CleaningManager(roomTestFile, logFile.getPath(), snapshotFile, config, LoadMode.MAPPED);
+		manager.addEvent(new CleaningLogEntry(LocalDateTime.of(2021, 6, 2, 8, 0, 0), "Kitchen", 50));
+		manager.saveSnapshot(snapshotFile);
+		Metrics.setEnabled(true);
+		Metrics.reset();
+		try {
+			ReportManager restored = new ReportManager(roomTestFile, logFile.getPath(), snapshotFile, config, LoadMode.MAPPED);
+			assertEquals(0, Metrics.snapshot().getCalls(Stage.LOAD_FILES));
+			assertTrue(Metrics.snapshot().getItems(Stage.READ_SNAPSHOT) > 0);
+			assertEquals(roomReport, restored.getRoomReport());
+			assertEquals(loaded.getVacuumBagReport("05/01/2021 00:00:00"), restored.getVacuumBagReport("05/01/2021 00:00:00"));
+		} finally {
+			Metrics.setEnabled(false);
+			Metrics.reset();
+		}
+		assertEquals(Integer.valueOf(1), manager.getCountsByRoom().get("Kitchen"));
+
+		assertEquals(roomReport, new ReportManager(roomTestFile, logFile.getPath(), snapshotFile, config, LoadMode.STANDARD).getRoomReport());
+		manager.saveSnapshot(snapshotFile);
+		byte[] bytes = Files.readAllBytes(new File(snapshotFile).toPath());
+		bytes[bytes.length - 1] ^= 1;
+		Files.write(new File(snapshotFile).toPath(), bytes);
+		assertEquals(roomReport, new ReportManager(roomTestFile, logFile.getPath(), snapshotFile, config, LoadMode.MAPPED).getRoomReport());
+
+		manager.saveSnapshot(snapshotFile);
+		append(logFile, "06/02/2021 09:00:00,Foyer,100\n");
+		CleaningManager changed = new CleaningManager(roomTestFile, logFile.getPath(), snapshotFile, config, LoadMode.MAPPED);
+		assertEquals(Integer.valueOf(0), changed.getCountsByRoom().get("Kitchen"));
+		assertEquals(Integer.valueOf(2), changed.getCountsByRoom().get("Foyer"));
+	}
+
+	/**
+	 *
+	 * Tests that a snapshot that cannot be saved leaves the loaded manager usable with the
+	 * error kept, and that no half written snapshot is left behind
+	 *
+	*/
+	@Test
+	public void snapshotNotSaved() throws IOException {
+		ManagerConfig config = new ManagerConfig(DataStructure.SKIPLIST);
+		String roomReport = new ReportManager(roomTestFile, cleaningTestFile).getRoomReport();
+
+		File missing = new File(new File(folder.getRoot(), "missing"), "cleaning.snapshot");
+		CleaningManager manager = new CleaningManager(roomTestFile, cleaningTestFile, missing.getPath(), config, LoadMode.MAPPED);
+		assertNotNull(manager.getSnapshotFailure());
+		assertEquals(Integer.valueOf(1), manager.getCountsByRoom().get("Foyer"));
+
+		// A directory in the snapshot's place lets the file be written but not moved there
+		File taken = folder.newFolder("cleaning.snapshot");
+		assertTrue(new File(taken, "other").createNewFile());
+		ReportManager reports = new ReportManager(roomTestFile, cleaningTestFile, taken.getPath(), config, LoadMode.MAPPED);
+		assertEquals(roomReport, reports.getRoomReport());
+		assertFalse(new File(folder.getRoot(), "cleaning.snapshot.tmp").exists());
+		try {
+			new CleaningManager(roomTestFile, cleaningTestFile, config, LoadMode.MAPPED).saveSnapshot(taken.getPath());
+			fail();
+		} catch (IOException e) {
+			assertFalse(new File(folder.getRoot(), "cleaning.snapshot.tmp").exists());
+		}
+		assertNull(new CleaningManager(roomTestFile, cleaningTestFile, config, LoadMode.MAPPED).getSnapshotFailure());
+	}
+
+	/**
+	 *
+	 * Tests that a directory of daily logs gives the same reports as one log holding the
+	 * files joined in order of file name, and that reloading only reads changed and new files
+	 *
+	*/
+	@Test
+	public void loadLogSet() throws IOException {
+		java.util.List<String> lines = Files.readAllLines(new File(cleaningTestFile).toPath(), StandardCharsets.UTF_8);
+		String header = lines.get(0) + "\n";
+		File days = folder.newFolder("days");
+		StringBuilder joined = new StringBuilder(header);
+		String[] dayNames = {"2021-05-01.csv", "2021-05-02.csv", "2021-05-03.csv"};
+		for (int day = 0; day < dayNames.length; day++) {
+			StringBuilder dayLog = new StringBuilder(header);
+			for (int line = 1 + day; line < lines.size(); line += dayNames.length) {
+				dayLog.append(lines.get(line)).append("\n");
+			}
+			Files.write(new File(days, dayNames[day]).toPath(), dayLog.toString().getBytes(StandardCharsets.UTF_8));
+			joined.append(dayLog.substring(header.length()));
+		}
+		Files.write(new File(days, ".hidden").toPath(), "not a log".getBytes(StandardCharsets.UTF_8));
+		File joinedFile = folder.newFile();
+		Files.write(joinedFile.toPath(), joined.toString().getBytes(StandardCharsets.UTF_8));
+
+		ManagerConfig config = new ManagerConfig(DataStructure.SKIPLIST);
+		ReportManager fromDays = new ReportManager(roomTestFile, new String[] {days.getPath()}, config);
+		ReportManager fromJoined = new ReportManager(roomTestFile, joinedFile.getPath());
+		assertEquals(fromJoined.getRoomReport(), fromDays.getRoomReport());
+		assertEquals(fromJoined.getFrequencyReport(10), fromDays.getFrequencyReport(10));
+		assertEquals(fromJoined.getVacuumBagReport("05/10/2021 00:00:00"), fromDays.getVacuumBagReport("05/10/2021 00:00:00"));
+		// Reloading unchanged files keeps the cached reports
+		String cached = fromDays.getRoomReport();
+		assertEquals(0, fromDays.reloadLogs());
+		assertSame(cached, fromDays.getRoomReport());
+
+		// A new day with an event at the same time as an older day keeps the older day's event first
+		String newDay = header + "06/01/2021 13:39:01,Kitchen,50\n05/31/2021 09:27:45,Foyer,10\n";
+		Files.write(new File(days, "2021-06-01.csv").toPath(), newDay.getBytes(StandardCharsets.UTF_8));
+		append(joinedFile, newDay.substring(header.length()));
+		assertEquals(1, fromDays.reloadLogs());
+		fromJoined = new ReportManager(roomTestFile, joinedFile.getPath());
+		assertEquals(fromJoined.getRoomReport(), fromDays.getRoomReport());
+		assertEquals(fromJoined.getCoverageReport("05/31/2021 00:00:00", "06/02/2021 00:00:00"),
+				fromDays.getCoverageReport("05/31/2021 00:00:00", "06/02/2021 00:00:00"));
+
+		// A line still being written to today's log is left until its line break is written
+		String beforeToday = fromDays.getRoomReport();
+		File today = new File(days, "2021-06-01.csv");
+		append(today, "06/01/2021 14:00:00,Foy");
+		assertEquals(1, fromDays.reloadLogs());
+		assertEquals(beforeToday, fromDays.getRoomReport());
+		append(today, "er,20\n");
+		assertEquals(1, fromDays.reloadLogs());
+		assertTrue(fromDays.getRoomReport().contains("   Foyer was cleaned on [\n      06/01/2021 14:00:00\n"));
+
+		File firstDay = new File(days, dayNames[0]);
+		append(firstDay, "05/02/2021 08:00:00,Kitchen,100\n");
+		firstDay.setLastModified(firstDay.lastModified() + 2000);
+		assertEquals(1, fromDays.reloadLogs());
+		assertTrue(fromDays.getRoomReport().contains("   Kitchen was cleaned on [\n      06/01/2021 13:39:01\n      05/02/2021 08:00:00\n   ]"));
+
+		// Files can also be listed one at a time, and a listed file that goes missing keeps what was loaded
+		ReportManager fromFiles = new ReportManager(roomTestFile, new String[] {new File(days, dayNames[2]).getPath(), firstDay.getPath()}, config);
+		String report = fromFiles.getRoomReport();
+		assertTrue(firstDay.delete());
+		try {
+			fromFiles.reloadLogs();
+			fail();
+		} catch (FileNotFoundException e) {
+			assertEquals(report, fromFiles.getRoomReport());
+		}
+
+		// A file removed from the directory is dropped
+		assertEquals(0, fromDays.reloadLogs());
+		assertFalse(fromDays.getRoomReport().contains("05/02/2021 08:00:00"));
+		try {
+			new CleaningManager(roomTestFile, cleaningTestFile).reloadLogs();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Only a manager loaded from a set of cleaning log files can reload them", e.getMessage());
+		}
+	}
+
+	/**
+	 *
+	 * Tests that streaming a log longer than the coverage window keeps only the most recent
+	 * events for coverage, and that vacuum bag reports that need the dropped events say so
+	 * @throws IOException if the log cannot be written
+	 *
+	*/
+	@Test
+	public void streamPastCoverageWindow() throws IOException {
+		// Ten early cleanings, then a full window of later ones that push the early ones out
+		StringBuilder log = new StringBuilder("TIMESTAMP,ROOM_ID,PERCENT_CLEANED\n");
+		for (int i = 0; i < 10; i++) {
+			log.append("01/01/2021 00:00:00,Foyer,0\n");
+		}
+		for (int i = 0; i < CleaningManager.STREAMING_COVERAGE_WINDOW; i++) {
+			log.append("02/01/2021 00:00:00,Foyer,0\n");
+		}
+		File logFile = folder.newFile();
+		Files.write(logFile.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+
+		ReportManager streamed = new ReportManager(roomTestFile, logFile.getPath(), DataStructure.SKIPLIST, LoadMode.STREAMING);
+		assertEquals("Vacuum Bag Report (last replaced 01/01/2021 00:00:00) [\n"
+				+ "   Bag is due for replacement in at most 5280 SQ FT\n"
+				+ "   " + ReportManager.APPROXIMATE_COVERAGE + "\n]", streamed.getVacuumBagReport("01/01/2021 00:00:00"));
+		assertEquals("Vacuum Bag Report (last replaced 01/15/2021 00:00:00) [\n"
+				+ "   Bag is due for replacement in 5280 SQ FT\n]", streamed.getVacuumBagReport("01/15/2021 00:00:00"));
+
+		List<VacuumBag> bags = new ArrayBasedList<VacuumBag>();
+		bags.addLast(new VacuumBag("V1", VacuumBag.STANDARD_CAPACITY, "01/01/2021 00:00:00"));
+		bags.addLast(new VacuumBag("V2", VacuumBag.STANDARD_CAPACITY, "01/15/2021 00:00:00"));
+		assertTrue(streamed.getVacuumFleetReport(bags, false).contains("   Vacuum V1 (last replaced 01/01/2021 00:00:00) is due for replacement in at most 5280 SQ FT\n"
+				+ "   Vacuum V2 (last replaced 01/15/2021 00:00:00) is due for replacement in 5280 SQ FT\n"));
+	}
+
+	/**
+	 *
+	 * Tests that events are sorted from most recent to least recent, keeping events at the
+	 * same time in the order they were added, for logs in order, reversed, in order with
+	 * bursts out of order, in no order, and with many events at the same time
+	 *
+	*/
+	@Test
+	public void sortEvents() {
+		Random random = new Random(21);
+		int[] sizes = {0, 1, 2, 31, 100, 5000, 100000};
+		for (int size : sizes) {
+			for (int pattern = 0; pattern < 5; pattern++) {
+				long[] times = new long[size];
+				for (int i = 0; i < size; i++) {
+					if (pattern == 0) {
+						times[i] = i * 60L;
+					} else if (pattern == 1) {
+						times[i] = (size - i) * 60L;
+					} else if (pattern == 2) {
+						// In order, with a burst of older events about every 500 events
+						times[i] = random.nextInt(500) == 0 ? i * 60L - random.nextInt(100000) : i * 60L;
+					} else if (pattern == 3) {
+						times[i] = random.nextInt(1000000);
+					} else {
+						times[i] = i / 7 + random.nextInt(3);
+					}
+				}
+				EventStore store = new EventStore(times, new int[size], new byte[size]);
+
+				Integer[] expected = new Integer[size];
+				for (int i = 0; i < size; i++) {
+					expected[i] = i;
+				}
+				Arrays.sort(expected, (a, b) -> Long.compare(times[b], times[a]));
+				int[] sorted = EventSorter.mostRecentFirst(store);
+				for (int i = 0; i < size; i++) {
+					assertEquals("size " + size + " pattern " + pattern, expected[i].intValue(), sorted[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Tests that events in no order, which are radix sorted, come out in the same order as a
+	 * stable comparison sort, for many events at the same time, times before the epoch, and
+	 * times spread across the whole range of a long
+	 *
+	*/
+	@Test
+	public void radixSortEvents() {
+		Random random = new Random(9);
+		int size = 20000;
+		long[][] patterns = new long[4][size];
+		for (int i = 0; i < size; i++) {
+			// Few distinct times, so most events tie with many others
+			patterns[0][i] = random.nextInt(40) * 3600L;
+			// Times in the 1950s and 1960s, before the epoch
+			patterns[1][i] = -631152000L + random.nextInt(400000000);
+			// Times on both sides of the epoch, with ties
+			patterns[2][i] = (random.nextInt(2001) - 1000) * 86400L;
+			// Times spread so far apart that the span overflows a signed long
+			patterns[3][i] = random.nextLong();
+		}
+		for (int pattern = 0; pattern < patterns.length; pattern++) {
+			long[] times = patterns[pattern];
+			EventStore store = new EventStore(times, new int[size], new byte[size]);
+
+			Integer[] expected = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				expected[i] = i;
+			}
+			Arrays.sort(expected, (a, b) -> Long.compare(times[b], times[a]));
+			int[] sorted = EventSorter.mostRecentFirst(store);
+			for (int i = 0; i < size; i++) {
+				assertEquals("pattern " + pattern, expected[i].intValue(), sorted[i]);
+			}
+		}
+	}
+
+	/**
+	 * Appends text to a file
+	 * @param file the file to append to
+	 * @param text the text to append
+	 * @throws IOException if the file cannot be written
+	*/
+	private static void append(File file, String text) throws IOException {
+		Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+	}
+
+}
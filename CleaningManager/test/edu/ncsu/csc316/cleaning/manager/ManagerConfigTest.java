@@ -0,0 +1,105 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.cleaning.dsa.Algorithm;
+import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
+
+/**
+*
+* Tests that a manager configuration builds the structures it is set to, and that
+* managers with different configurations can be built and queried at the same time
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class ManagerConfigTest {
+
+	/** New cleaning events log*/
+	private final String cleaningTestFile = "input/text_testCEOne.txt";
+	/** New rooms list*/
+	private final String roomTestFile = "input/text_testRoomOne.txt";
+
+	/**
+	 *
+	 * Tests that every map type builds a working map
+	 *
+	*/
+	@Test
+	public void getMap() {
+		for (DataStructure mapType : DataStructure.values()) {
+			if (mapType == DataStructure.ARRAYBASEDLIST || mapType == DataStructure.SINGLYLINKEDLIST) {
+				continue;
+			}
+			Map<String, Integer> map = new ManagerConfig(mapType).getMap(null);
+			map.put("Kitchen", 1);
+			map.put("Foyer", 2);
+			assertEquals(2, map.size());
+			assertEquals(Integer.valueOf(2), map.get("Foyer"));
+		}
+
+		List<String> list = new ManagerConfig(DataStructure.AVLTREE, DataStructure.SINGLYLINKEDLIST,
+				Algorithm.QUICKSORT, Algorithm.RADIX_SORT).getIndexedList();
+		list.addLast("Office");
+		assertEquals("Office", list.first());
+	}
+
+	/**
+	 *
+	 * Tests that a list type cannot be used as the map type
+	 *
+	*/
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidMapType() {
+		new ManagerConfig(DataStructure.ARRAYBASEDLIST);
+	}
+
+	/**
+	 *
+	 * Tests that report managers with different configurations built on several
+	 * threads at once give the same reports
+	 *
+	*/
+	@Test
+	public void buildOnSeveralThreads() throws Exception {
+		ReportManager expected = new ReportManager(roomTestFile, cleaningTestFile);
+		String roomReport = expected.getRoomReport();
+		String frequencyReport = expected.getFrequencyReport(7);
+
+		ManagerConfig[] configs = {
+			new ManagerConfig(DataStructure.SPLAYTREE),
+			new ManagerConfig(DataStructure.LINEARPROBINGHASHMAP, DataStructure.SINGLYLINKEDLIST, Algorithm.QUICKSORT, Algorithm.RADIX_SORT),
+			new ManagerConfig(DataStructure.SEARCHTABLE, DataStructure.ARRAYBASEDLIST, Algorithm.INSERTION_SORT, Algorithm.COUNTING_SORT),
+			new ManagerConfig(DataStructure.UNORDEREDLINKEDMAP)
+		};
+
+		ExecutorService threads = Executors.newFixedThreadPool(configs.length);
+		try {
+			ArrayList<Future<String[]>> results = new ArrayList<Future<String[]>>();
+			for (int i = 0; i < configs.length * 4; i++) {
+				ManagerConfig config = configs[i % configs.length];
+				LoadMode loadMode = LoadMode.values()[i / configs.length % LoadMode.values().length];
+				results.add(threads.submit(() -> {
+					ReportManager reports = new ReportManager(roomTestFile, cleaningTestFile, config, loadMode);
+					return new String[] {reports.getRoomReport(), reports.getFrequencyReport(7)};
+				}));
+			}
+			for (Future<String[]> result : results) {
+				assertEquals(roomReport, result.get()[0]);
+				assertEquals(frequencyReport, result.get()[1]);
+			}
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+}
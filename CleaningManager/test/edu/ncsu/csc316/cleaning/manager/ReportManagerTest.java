@@ -3,13 +3,19 @@ package edu.ncsu.csc316.cleaning.manager;
 import static org.junit.Assert.*;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.NoSuchElementException;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
 import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
 
 //Because the ReportManager class calls the CleaningManager class, and uses those
 //methods' funtionalities to write the reports returned by the report manager's methods
@@ -74,6 +80,31 @@ public class ReportManagerTest {
 		        "   Guest Bathroom has been cleaned 2 times\n]";
 		assertEquals(expectedFrequencyReport, newReportManager.getFrequencyReport(3));
 	}
+
+	/**
+	 *
+	 * Tests that the frequency report keeps rooms cleaned the same number of times
+	 * in alphabetical order, and lists every room when more rooms are asked for
+	 *
+	*/
+	@Test
+	public void getFrequencyReportTies() {
+		String expectedFrequencyReport = "Frequency of Cleanings [\n   Living Room has been cleaned 6 times\n" +
+		        "   Dining Room has been cleaned 3 times\n" +
+		        "   Guest Bathroom has been cleaned 2 times\n" +
+		        "   Guest Bedroom has been cleaned 2 times\n" +
+		        "   Foyer has been cleaned 1 times\n" +
+		        "   Office has been cleaned 1 times\n" +
+		        "   Kitchen has been cleaned 0 times\n]";
+		assertEquals(expectedFrequencyReport, newReportManager.getFrequencyReport(10));
+
+		String expectedFiveRooms = "Frequency of Cleanings [\n   Living Room has been cleaned 6 times\n" +
+		        "   Dining Room has been cleaned 3 times\n" +
+		        "   Guest Bathroom has been cleaned 2 times\n" +
+		        "   Guest Bedroom has been cleaned 2 times\n" +
+		        "   Foyer has been cleaned 1 times\n]";
+		assertEquals(expectedFiveRooms, newReportManager.getFrequencyReport(5));
+	}
 	
 //	/**
 //	 *
@@ -218,6 +249,156 @@ public class ReportManagerTest {
 		
 	}
 	
+	/**
+	 *
+	 * Tests that the fleet report answers every bag like the single bag report, in the order
+	 * the bags are given, and projects when each bag will be full from the recent cleaning rate
+	 *
+	*/
+	@Test
+	public void getVacuumFleetReport() {
+		List<VacuumBag> bags = new ManagerConfig(DataStructure.SKIPLIST).getIndexedList();
+		bags.addLast(new VacuumBag("V1", VacuumBag.STANDARD_CAPACITY, "05/28/2021 14:15:02"));
+		bags.addLast(new VacuumBag("V2", 1000, "05/01/2021 00:00:00"));
+		bags.addLast(new VacuumBag("V3", 2000, "06/02/2021 08:00:00"));
+		bags.addLast(new VacuumBag("V4", 3000, "05/28/2021 14:15:02"));
+
+		assertEquals("Vacuum Fleet Report [\n"
+				+ "   Vacuum V1 (last replaced 05/28/2021 14:15:02) is due for replacement in 3742 SQ FT\n"
+				+ "   Vacuum V2 (last replaced 05/01/2021 00:00:00) is overdue for replacement!\n"
+				+ "   Vacuum V3 (last replaced 06/02/2021 08:00:00) is due for replacement in 2000 SQ FT\n"
+				+ "   Vacuum V4 (last replaced 05/28/2021 14:15:02) is due for replacement in 1462 SQ FT\n"
+				+ "]", newReportManager.getVacuumFleetReport(bags, false));
+
+		// 1538 SQ FT were cleaned in the week up to 06/01/2021 13:39:01
+		assertEquals("Vacuum Fleet Report [\n"
+				+ "   Vacuum V1 (last replaced 05/28/2021 14:15:02) is due for replacement in 3742 SQ FT,"
+				+ " projected to be full on 06/18/2021 14:23:58\n"
+				+ "   Vacuum V2 (last replaced 05/01/2021 00:00:00) is overdue for replacement!\n"
+				+ "   Vacuum V3 (last replaced 06/02/2021 08:00:00) is due for replacement in 2000 SQ FT,"
+				+ " projected to be full on 06/11/2021 10:27:56\n"
+				+ "   Vacuum V4 (last replaced 05/28/2021 14:15:02) is due for replacement in 1462 SQ FT,"
+				+ " projected to be full on 06/08/2021 05:20:55\n"
+				+ "]", newReportManager.getVacuumFleetReport(bags, true));
+
+		assertEquals("No vacuum bags to report on.", newReportManager.getVacuumFleetReport(
+				new ManagerConfig(DataStructure.SKIPLIST).getIndexedList(), true));
+		try {
+			new VacuumBag("V5", 0, "05/28/2021 14:15:02");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Bag capacity must be greater than 0", e.getMessage());
+		}
+		try {
+			new VacuumBag("V5", 100, "05/28/2021");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Date & time must be in the format: MM/DD/YYYY HH:MM:SS", e.getMessage());
+		}
+	}
+
+	/**
+	 *
+	 * Tests the getEventsByRoom functionality from the CleaningManager class
+	 * checks that the per-room index is built once and kept in order of most recent time
+	 *
+	*/
+	@Test
+	public void getEventsByRoom() {
+		Map<String, List<CleaningLogEntry>> eventsByRoom = newCleaningManager.getEventsByRoom();
+		assertSame(eventsByRoom, newCleaningManager.getEventsByRoom());
+		assertEquals(7, eventsByRoom.size());
+		assertTrue(eventsByRoom.get("Kitchen").isEmpty());
+		
+		List<CleaningLogEntry> livingRoom = eventsByRoom.get("Living Room");
+		assertEquals(6, livingRoom.size());
+		for (int i = 1; i < livingRoom.size(); i++) {
+			assertTrue(livingRoom.get(i - 1).getTimestamp().isAfter(livingRoom.get(i).getTimestamp()));
+		}
+	}
+	
+	/**
+	 *
+	 * Tests the getCoverageSince functionality from the CleaningManager class
+	 * at the edges of the log, where an event at the exact time is counted
+	 *
+	*/
+	@Test
+	public void getCoverageSinceEdges() {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+		
+		assertEquals(131, newCleaningManager.getCoverageSince(LocalDateTime.parse("06/01/2021 13:39:01", formatter)));
+		assertEquals(0, newCleaningManager.getCoverageSince(LocalDateTime.parse("06/01/2021 13:39:01", formatter).plusNanos(1)));
+		assertEquals(0, newCleaningManager.getCoverageSince(LocalDateTime.parse("07/01/2021 00:00:00", formatter)));
+		assertEquals(newCleaningManager.getCoverageSince(LocalDateTime.parse("01/01/2000 00:00:00", formatter)),
+				newCleaningManager.getCoverageSince(LocalDateTime.parse("05/01/2021 10:03:11", formatter)));
+	}
+	
+	/**
+	 *
+	 * Tests the frequency and coverage reports over a window of time, where an event
+	 * at the start of the window is counted and one at the end is not
+	 *
+	*/
+	@Test
+	public void getWindowReports() {
+		String expectedFrequencyReport = "Frequency of Cleanings from 05/09/2021 00:00:00 to 05/24/2021 00:00:00 [\n"
+				+ "   Living Room has been cleaned 3 times\n   Dining Room has been cleaned 2 times\n"
+				+ "   Guest Bedroom has been cleaned 2 times\n]";
+		assertEquals(expectedFrequencyReport, newReportManager.getFrequencyReport(3, "05/09/2021 00:00:00", "05/24/2021 00:00:00"));
+		assertTrue(newReportManager.getFrequencyReport(7, "05/09/2021 00:00:00", "05/24/2021 00:00:00")
+				.endsWith("   Guest Bathroom has been cleaned 1 times\n   Foyer has been cleaned 0 times\n"
+				+ "   Kitchen has been cleaned 0 times\n   Office has been cleaned 0 times\n]"));
+		assertTrue(newReportManager.getFrequencyReport(2, "05/23/2021 18:22:11", "06/01/2021 13:39:01")
+				.contains("   Dining Room has been cleaned 2 times\n   Living Room has been cleaned 2 times\n"));
+		assertTrue(newReportManager.getFrequencyReport(2, "05/23/2021 18:22:12", "06/01/2021 13:39:02")
+				.contains("   Living Room has been cleaned 2 times\n   Dining Room has been cleaned 1 times\n"));
+
+		assertEquals("Coverage Report (05/09/2021 00:00:00 to 05/24/2021 00:00:00) [\n   3257 SQ FT cleaned\n]",
+				newReportManager.getCoverageReport("05/09/2021 00:00:00", "05/24/2021 00:00:00"));
+		assertEquals("Coverage Report (06/01/2021 13:39:01 to 06/01/2021 13:39:02) [\n   131 SQ FT cleaned\n]",
+				newReportManager.getCoverageReport("06/01/2021 13:39:01", "06/01/2021 13:39:02"));
+		assertEquals("Coverage Report (06/01/2021 13:39:00 to 06/01/2021 13:39:01) [\n   0 SQ FT cleaned\n]",
+				newReportManager.getCoverageReport("06/01/2021 13:39:00", "06/01/2021 13:39:01"));
+
+		assertEquals("The start of the window must be before its end.", newReportManager.getCoverageReport("05/24/2021 00:00:00", "05/09/2021 00:00:00"));
+		assertEquals("Date & time must be in the format: MM/DD/YYYY HH:MM:SS", newReportManager.getFrequencyReport(3, "05/09/2021", "05/24/2021 00:00:00"));
+		assertEquals("Number of rooms must be greater than 0.", newReportManager.getFrequencyReport(0, "05/09/2021 00:00:00", "05/24/2021 00:00:00"));
+	}
+	
+	/**
+	 *
+	 * Tests that a report manager that streams its log gives the same reports as one
+	 * that loads every event, when the log is small enough to keep every recent event
+	 *
+	*/
+	@Test
+	public void getStreamingReports() throws FileNotFoundException {
+		ReportManager streamingReportManager = new ReportManager(roomTestFile, cleaningTestFile, DataStructure.SKIPLIST, LoadMode.STREAMING);
+		
+		assertEquals(newReportManager.getFrequencyReport(7), streamingReportManager.getFrequencyReport(7));
+		assertEquals(newReportManager.getRoomReport(), streamingReportManager.getRoomReport());
+		assertEquals(newReportManager.getVacuumBagReport("05/28/2021 14:15:02"), streamingReportManager.getVacuumBagReport("05/28/2021 14:15:02"));
+		assertEquals(newReportManager.getVacuumBagReport("05/01/2021 00:00:00"), streamingReportManager.getVacuumBagReport("05/01/2021 00:00:00"));
+	}
+	
+	/**
+	 *
+	 * Tests that report managers that load their files memory-mapped or in parallel
+	 * give the same reports as one that uses InputReader
+	 *
+	*/
+	@Test
+	public void getMappedAndParallelReports() throws FileNotFoundException {
+		for (LoadMode loadMode : new LoadMode[] {LoadMode.MAPPED, LoadMode.PARALLEL}) {
+			ReportManager loadedReportManager = new ReportManager(roomTestFile, cleaningTestFile, DataStructure.SKIPLIST, loadMode);
+			
+			assertEquals(newReportManager.getFrequencyReport(7), loadedReportManager.getFrequencyReport(7));
+			assertEquals(newReportManager.getRoomReport(), loadedReportManager.getRoomReport());
+			assertEquals(newReportManager.getVacuumBagReport("05/28/2021 14:15:02"), loadedReportManager.getVacuumBagReport("05/28/2021 14:15:02"));
+		}
+	}
+	
 	/**
 	 *
 	 * Tests the getVacuumBagReport functionality from the ReportManager class
@@ -234,5 +415,175 @@ public class ReportManagerTest {
 		
 	}
 	
+	/**
+	 *
+	 * Tests that writing the reports to a Writer gives the same reports as the String methods
+	 *
+	*/
+	@Test
+	public void writeReports() throws IOException {
+		StringWriter roomReport = new StringWriter();
+		newReportManager.writeRoomReport(roomReport);
+		assertEquals(newReportManager.getRoomReport(), roomReport.toString());
+		
+		StringWriter frequencyReport = new StringWriter();
+		newReportManager.writeFrequencyReport(3, frequencyReport);
+		assertEquals(newReportManager.getFrequencyReport(3), frequencyReport.toString());
+		
+		StringWriter invalidReport = new StringWriter();
+		newReportManager.writeFrequencyReport(0, invalidReport);
+		assertEquals("Number of rooms must be greater than 0.", invalidReport.toString());
+	}
+
+	/**
+	 *
+	 * Tests that the room report pages hold the rooms in order, cap the events listed for
+	 * each room, and come together into the full room report when nothing is capped
+	 *
+	*/
+	@Test
+	public void getRoomReportPages() {
+		RoomReportPages pages = newReportManager.getRoomReportPages(3, 2);
+		assertEquals(3, pages.getPageCount());
+		assertEquals(0, pages.getNextPage());
+		assertTrue(pages.hasNext());
+		assertEquals("Room Report [\n"
+				+ "   Dining Room was cleaned on [\n"
+				+ "      05/31/2021 09:27:45\n"
+				+ "      05/23/2021 18:22:11\n"
+				+ "      (1 more)\n"
+				+ "   ]\n"
+				+ "   Foyer was cleaned on [\n"
+				+ "      05/01/2021 10:03:11\n"
+				+ "   ]\n"
+				+ "   Guest Bathroom was cleaned on [\n"
+				+ "      05/17/2021 04:37:31\n"
+				+ "      05/08/2021 07:01:51\n"
+				+ "   ]\n"
+				+ "]", pages.next());
+		assertEquals(1, pages.getNextPage());
+		pages.next();
+		String lastPage = pages.next();
+		assertTrue(lastPage.startsWith("Room Report [\n   Office was cleaned on ["));
+		assertFalse(pages.hasNext());
+		assertEquals(3, pages.getNextPage());
+		try {
+			pages.next();
+			fail();
+		} catch (NoSuchElementException e) {
+			assertFalse(pages.hasNext());
+		}
+
+		RoomReportPages allRooms = newReportManager.getRoomReportPages(7);
+		assertEquals(newReportManager.getRoomReport(), allRooms.next());
+		assertFalse(allRooms.hasNext());
+
+		// The pages keep the data from when they were requested
+		RoomReportPages onePerPage = newReportManager.getRoomReportPages(1, 1);
+		newReportManager.addEvent(new CleaningLogEntry(LocalDateTime.of(2021, 6, 1, 8, 0, 0), "Dining Room", 100));
+		assertEquals(7, onePerPage.getPageCount());
+		assertEquals("Room Report [\n   Dining Room was cleaned on [\n      05/31/2021 09:27:45\n      (2 more)\n   ]\n]",
+				onePerPage.next());
+		assertTrue(newReportManager.getRoomReportPages(1, 1).next().contains("06/01/2021 08:00:00\n      (3 more)"));
+
+		try {
+			newReportManager.getRoomReportPages(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Rooms per page and events per room must be greater than 0", e.getMessage());
+		}
+	}
+
+	/**
+	 *
+	 * Tests that reports across two buildings merge each building's rooms in alphabetical
+	 * order, rank every building's rooms together, and add up their coverage
+	 *
+	*/
+	@Test
+	public void getShardedReports() throws FileNotFoundException {
+		String otherRoomFile = "input/text_testRoomTwo.txt";
+		String otherLogFile = "input/text_testCETwo.txt";
+		ShardedReportManager buildings = new ShardedReportManager(new String[] {"Main Hall", "Annex"},
+				new String[] {roomTestFile, otherRoomFile}, new String[] {cleaningTestFile, otherLogFile},
+				new ManagerConfig(DataStructure.SKIPLIST), LoadMode.STANDARD);
+		ReportManager annex = new ReportManager(otherRoomFile, otherLogFile);
+
+		assertEquals("Frequency of Cleanings [\n"
+				+ "   Living Room (Main Hall) has been cleaned 6 times\n"
+				+ "   Media Room (Annex) has been cleaned 5 times\n"
+				+ "   Den (Annex) has been cleaned 4 times\n"
+				+ "   Dining Room (Main Hall) has been cleaned 3 times\n"
+				+ "   Home Gym (Annex) has been cleaned 3 times\n"
+				+ "]", buildings.getFrequencyReport(5));
+		assertEquals("Number of rooms must be greater than 0.", buildings.getFrequencyReport(0));
+
+		String roomReport = buildings.getRoomReport();
+		assertTrue(roomReport.startsWith("Room Report [\n   Attic (Annex) was cleaned on [\n      06/07/2021 10:26:55\n"
+				+ "      05/17/2021 04:37:31\n   ]\n   Den (Annex) was cleaned on ["));
+		assertTrue(roomReport.contains("   ]\n   Dining Room (Main Hall) was cleaned on [\n      05/31/2021 09:27:45\n"));
+		String[] mainHallLines = newReportManager.getRoomReport().split("\n");
+		String[] annexLines = annex.getRoomReport().split("\n");
+		assertEquals(mainHallLines.length + annexLines.length - 2, roomReport.split("\n").length);
+		assertEquals(roomReport, new ShardedReportManager(new String[] {"Main Hall", "Annex"},
+				new String[] {roomTestFile, otherRoomFile}, new String[] {cleaningTestFile, otherLogFile},
+				new ManagerConfig(DataStructure.SKIPLIST), LoadMode.PARALLEL).getRoomReport());
+
+		assertEquals(newCleaningManager.getCoverageSince(LocalDateTime.of(2021, 5, 20, 0, 0, 0))
+				+ new CleaningManager(otherRoomFile, otherLogFile).getCoverageSince(LocalDateTime.of(2021, 5, 20, 0, 0, 0)),
+				buildings.getCoverageSince(LocalDateTime.of(2021, 5, 20, 0, 0, 0)));
+		assertEquals("Vacuum Bag Report (last replaced 06/14/2021 00:00:00) [\n   Bag is due for replacement in 4953 SQ FT\n]",
+				buildings.getVacuumBagReport("06/14/2021 00:00:00"));
+
+		assertSame(buildings.getBuilding("Annex"), buildings.getBuilding("Annex"));
+		assertNull(buildings.getBuilding("Garage"));
+		try {
+			new ShardedReportManager(new String[] {"Annex", "Annex"}, new String[] {roomTestFile, otherRoomFile},
+					new String[] {cleaningTestFile, otherLogFile}, new ManagerConfig(DataStructure.SKIPLIST), LoadMode.STANDARD);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Duplicate building ID: Annex", e.getMessage());
+		}
+	}
+
+
+	/**
+	 *
+	 * Tests that repeated reports come from the report cache until events are added,
+	 * and that the least recently used report is dropped once the cache is full
+	 *
+	*/
+	@Test
+	public void getCachedReports() {
+		String frequency = newReportManager.getFrequencyReport(3);
+		String window = newReportManager.getFrequencyReport(3, "05/01/2021 00:00:00", "06/02/2021 00:00:00");
+		String rooms = newReportManager.getRoomReport();
+		String vacuum = newReportManager.getVacuumBagReport("05/30/2021 00:00:00");
+		assertSame(frequency, newReportManager.getFrequencyReport(3));
+		assertSame(window, newReportManager.getFrequencyReport(3, "05/01/2021 00:00:00", "06/02/2021 00:00:00"));
+		assertSame(rooms, newReportManager.getRoomReport());
+		assertSame(vacuum, newReportManager.getVacuumBagReport("05/30/2021 00:00:00"));
+		assertNotSame(frequency, newReportManager.getFrequencyReport(2));
+		assertEquals(5, newReportManager.getCachedReportCount());
+
+		// Adding an event moves the data version on, so every report is built again
+		long version = newCleaningManager.getDataVersion();
+		newCleaningManager.addEvent(new CleaningLogEntry(LocalDateTime.of(2021, 6, 1, 8, 0, 0), "Foyer", 100));
+		assertEquals(version + 1, newCleaningManager.getDataVersion());
+		newReportManager.addEvent(new CleaningLogEntry(LocalDateTime.of(2021, 6, 1, 8, 0, 0), "Foyer", 100));
+		String newRooms = newReportManager.getRoomReport();
+		assertNotEquals(rooms, newRooms);
+		assertTrue(newRooms.contains("   Foyer was cleaned on [\n      06/01/2021 08:00:00\n"));
+		assertNotEquals(vacuum, newReportManager.getVacuumBagReport("05/30/2021 00:00:00"));
+		assertSame(newRooms, newReportManager.getRoomReport());
+
+		// Filling the cache drops the least recently used report first
+		for (int number = 1; number <= ReportManager.REPORT_CACHE_SIZE; number++) {
+			newReportManager.getFrequencyReport(number);
+		}
+		assertEquals(ReportManager.REPORT_CACHE_SIZE, newReportManager.getCachedReportCount());
+		assertNotSame(newRooms, newReportManager.getRoomReport());
+		assertEquals(newRooms, newReportManager.getRoomReport());
+	}
 
 }
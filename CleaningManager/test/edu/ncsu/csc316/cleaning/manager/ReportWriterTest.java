@@ -0,0 +1,70 @@
+package edu.ncsu.csc316.cleaning.manager;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+/**
+*
+* Tests that the report writer writes timestamps and numbers the same way
+* as formatting them with DateTimeFormatter and String.valueOf
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class ReportWriterTest {
+
+	/**
+	 *
+	 * Tests timestamps around month ends, leap days and century years
+	 *
+	*/
+	@Test
+	public void appendTimestamp() throws IOException {
+		LocalDateTime[] times = {
+			LocalDateTime.of(2021, 5, 31, 9, 27, 45),
+			LocalDateTime.of(1970, 1, 1, 0, 0, 0),
+			LocalDateTime.of(1969, 12, 31, 23, 59, 59),
+			LocalDateTime.of(2000, 2, 29, 12, 0, 1),
+			LocalDateTime.of(1900, 3, 1, 0, 0, 0),
+			LocalDateTime.of(2024, 12, 31, 23, 59, 59),
+			LocalDateTime.of(1, 1, 1, 0, 0, 0),
+			LocalDateTime.of(9999, 12, 31, 23, 59, 59)
+		};
+
+		for (LocalDateTime time : times) {
+			StringBuilder written = new StringBuilder();
+			ReportWriter.appendTimestamp(written, time.toEpochSecond(ZoneOffset.UTC));
+			assertEquals(time.format(ReportWriter.TIMESTAMP_FORMAT), written.toString());
+		}
+
+		// Walk every day of a few years at an odd time of day
+		LocalDateTime day = LocalDateTime.of(1999, 1, 1, 7, 8, 9);
+		while (day.getYear() < 2005) {
+			StringBuilder written = new StringBuilder();
+			ReportWriter.appendTimestamp(written, day.toEpochSecond(ZoneOffset.UTC));
+			assertEquals(day.format(ReportWriter.TIMESTAMP_FORMAT), written.toString());
+			day = day.plusDays(1);
+		}
+	}
+
+	/**
+	 *
+	 * Tests numbers with zeros, negatives and the extremes of a long
+	 *
+	*/
+	@Test
+	public void appendNumber() throws IOException {
+		long[] numbers = {0, 7, 10, 100, 3742, -5, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+		for (long number : numbers) {
+			StringBuilder written = new StringBuilder();
+			ReportWriter.appendNumber(written, number);
+			assertEquals(String.valueOf(number), written.toString());
+		}
+	}
+
+}
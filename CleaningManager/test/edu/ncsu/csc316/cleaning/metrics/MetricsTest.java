@@ -0,0 +1,149 @@
+package edu.ncsu.csc316.cleaning.metrics;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.cleaning.data.CleaningLogEntry;
+import edu.ncsu.csc316.cleaning.dsa.DataStructure;
+import edu.ncsu.csc316.cleaning.manager.LoadMode;
+import edu.ncsu.csc316.cleaning.manager.ReportManager;
+
+/**
+*
+* Tests that the stages of loading and reporting are timed and counted while metrics are
+* enabled, that nothing is recorded while they are disabled, and that the totals can be
+* read through the MBean
+*
+* @author Lalitha Edupuganti
+*
+*/
+public class MetricsTest {
+
+	/** New cleaning events log*/
+	private final String cleaningTestFile = "input/text_testCEOne.txt";
+	/** New rooms list*/
+	private final String roomTestFile = "input/text_testRoomOne.txt";
+
+	/**
+	 *
+	 * Starts each test with metrics disabled and every total at zero
+	 *
+	*/
+	@Before
+	public void setUp() {
+		Metrics.setEnabled(false);
+		Metrics.reset();
+	}
+
+	/**
+	 *
+	 * Leaves metrics disabled for the other tests
+	 *
+	*/
+	@After
+	public void tearDown() {
+		Metrics.setEnabled(false);
+		Metrics.reset();
+	}
+
+	/**
+	 *
+	 * Tests that loading and reporting record each stage they run
+	 * @throws FileNotFoundException if the files cannot be found
+	 *
+	*/
+	@Test
+	public void testStages() throws FileNotFoundException {
+		Metrics.setEnabled(true);
+		ReportManager manager = new ReportManager(roomTestFile, cleaningTestFile, DataStructure.SEARCHTABLE, LoadMode.STANDARD);
+		MetricsSnapshot loaded = Metrics.snapshot();
+		assertEquals(1, loaded.getCalls(Stage.LOAD_FILES));
+		assertEquals(15, loaded.getItems(Stage.LOAD_FILES));
+		assertEquals(1, loaded.getCalls(Stage.SORT_EVENTS));
+		assertEquals(1, loaded.getCalls(Stage.BUILD_INDEXES));
+		assertEquals(loaded.getItems(Stage.SORT_EVENTS), loaded.getItems(Stage.BUILD_INDEXES));
+		assertTrue(loaded.getTotalNanos(Stage.LOAD_FILES) >= loaded.getTotalNanos(Stage.SORT_EVENTS));
+		assertTrue(loaded.getMaxNanos(Stage.LOAD_FILES) > 0);
+		assertEquals(0, loaded.getCalls(Stage.RENDER_REPORT));
+
+		manager.getRoomReport();
+		manager.getFrequencyReport(3);
+		manager.getFrequencyReport(3, "05/01/2021 00:00:00", "06/02/2021 00:00:00");
+		manager.addEvent(new CleaningLogEntry(LocalDateTime.of(2021, 6, 2, 8, 0), "Foyer", 50));
+		MetricsSnapshot reported = Metrics.snapshot();
+		assertEquals(3, reported.getCalls(Stage.RENDER_REPORT));
+		assertEquals(21, reported.getItems(Stage.RENDER_REPORT));
+		assertEquals(1, reported.getCalls(Stage.ADD_EVENTS));
+		assertEquals(1, reported.getItems(Stage.ADD_EVENTS));
+		assertTrue(reported.toString().startsWith("Metrics [\n   LOAD_FILES: 1 calls, "));
+		assertFalse(reported.toString().contains("READ_SNAPSHOT"));
+
+		Metrics.reset();
+		assertEquals(0, Metrics.snapshot().getCalls(Stage.RENDER_REPORT));
+		assertEquals(0, Metrics.snapshot().getMaxNanos(Stage.LOAD_FILES));
+	}
+
+	/**
+	 *
+	 * Tests that nothing is recorded while metrics are disabled
+	 * @throws FileNotFoundException if the files cannot be found
+	 *
+	*/
+	@Test
+	public void testDisabled() throws FileNotFoundException {
+		assertNull(Metrics.start(Stage.LOAD_FILES));
+		Metrics.stop(null, 10);
+
+		ReportManager manager = new ReportManager(roomTestFile, cleaningTestFile, DataStructure.SEARCHTABLE, LoadMode.MAPPED);
+		manager.getRoomReport();
+		MetricsSnapshot snapshot = Metrics.snapshot();
+		for (Stage stage : Stage.values()) {
+			assertEquals(0, snapshot.getCalls(stage));
+			assertEquals(0, snapshot.getTotalNanos(stage));
+		}
+		assertEquals("Metrics [\n]", snapshot.toString());
+	}
+
+	/**
+	 *
+	 * Tests that the totals and the enabled flag can be read and changed through the MBean
+	 * @throws JMException if the MBean cannot be reached
+	 *
+	*/
+	@Test
+	public void testMBean() throws JMException {
+		Metrics.registerMBean();
+		Metrics.registerMBean();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(Metrics.MBEAN_NAME);
+		assertTrue(server.isRegistered(name));
+		assertEquals(Boolean.FALSE, server.getAttribute(name, "Enabled"));
+
+		server.setAttribute(name, new Attribute("Enabled", Boolean.TRUE));
+		assertTrue(Metrics.isEnabled());
+		Metrics.stop(Metrics.start(Stage.WRITE_SNAPSHOT), 7);
+
+		TabularData calls = (TabularData) server.getAttribute(name, "Calls");
+		assertEquals(Stage.values().length, calls.size());
+		assertEquals(1L, calls.get(new Object[] {"WRITE_SNAPSHOT"}).get("value"));
+		TabularData items = (TabularData) server.getAttribute(name, "Items");
+		assertEquals(7L, items.get(new Object[] {"WRITE_SNAPSHOT"}).get("value"));
+
+		server.invoke(name, "reset", null, null);
+		assertEquals(0, Metrics.snapshot().getCalls(Stage.WRITE_SNAPSHOT));
+	}
+
+}